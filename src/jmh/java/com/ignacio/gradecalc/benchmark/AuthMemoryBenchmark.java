@@ -0,0 +1,211 @@
+package com.ignacio.gradecalc.benchmark;
+
+import com.ignacio.gradecalc.GradecalcApplication;
+import com.ignacio.gradecalc.entity.User;
+import com.ignacio.gradecalc.enums.UniversityPreset;
+import com.ignacio.gradecalc.repository.UserRepository;
+import com.ignacio.gradecalc.service.UsernameIndex;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Server heap held per logged-in user, session mode vs token mode.
+ *
+ * Boots the real application, logs in every user over HTTP (login page, form post, dashboard)
+ * and measures the heap still in use after a full GC. heapMbPer10kUsers scales the measured
+ * per-user cost to 10,000 students. Every login runs BCrypt, so the user count is kept modest.
+ *
+ * Run on its own: -Djmh.args="AuthMemory -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(value = 1, jvmArgs = {"-Xms1g", "-Xmx1g"})
+public class AuthMemoryBenchmark {
+
+    private static final String PASSWORD = "correct horse battery staple";
+    private static final Pattern CSRF = Pattern.compile("name=\"_csrf\" value=\"([^\"]+)\"");
+
+    @Param({"session", "token"})
+    private String authMode;
+
+    @Param({"2000"})
+    private int users;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private ExecutorService pool;
+    private String baseUrl;
+    private long heapBefore;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class HeapCounters {
+        public double heapBytesPerUser;
+        public double heapMbPer10kUsers;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(GradecalcApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:auth-benchmark-" + authMode,
+                        "spring.jpa.show-sql=false",
+                        "gradecalc.auth.mode=" + authMode,
+                        "gradecalc.auth.token.keys=bench=" + Base64.getEncoder().encodeToString(new byte[32]),
+                        "gradecalc.aggregates.repair-cron=-",
+                        // Every login comes from localhost
+                        "gradecalc.security.throttle.address-burst=1000000",
+                        "logging.level.root=WARN")
+                .run();
+        baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+
+        // One hash for everyone, so setup doesn't pay for BCrypt per user
+        String hash = context.getBean(PasswordEncoder.class).encode(PASSWORD);
+        List<User> accounts = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            accounts.add(new User(username(i), hash, UniversityPreset.TUD));
+        }
+        context.getBean(UserRepository.class).saveAll(accounts);
+        // Saved behind the service's back, so the index has to be told
+        context.getBean(UsernameIndex.class).build();
+
+        client = HttpClient.newBuilder().followRedirects(HttpClient.Redirect.NEVER).build();
+        pool = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors() * 2);
+    }
+
+    @Setup(Level.Iteration)
+    public void measureBaseline() {
+        heapBefore = usedHeapAfterGc();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdownNow();
+        context.close();
+    }
+
+    @Benchmark
+    public void loginAllUsers(HeapCounters counters) throws Exception {
+        List<Callable<Void>> logins = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            int user = i;
+            logins.add(() -> {
+                login(user);
+                return null;
+            });
+        }
+        for (Future<Void> login : pool.invokeAll(logins)) {
+            login.get();
+        }
+
+        long retained = usedHeapAfterGc() - heapBefore;
+        counters.heapBytesPerUser = (double) retained / users;
+        counters.heapMbPer10kUsers = counters.heapBytesPerUser * 10_000 / (1024 * 1024);
+    }
+
+    /**
+     * Load the login page, post the form and open the dashboard, like a browser would.
+     * The cookies are dropped afterwards, so only the server's share of the heap is left.
+     */
+    private void login(int user) throws Exception {
+        Map<String, String> cookies = new HashMap<>();
+
+        HttpResponse<String> page = send(HttpRequest.newBuilder(URI.create(baseUrl + "/login")).GET(), cookies);
+        Matcher csrf = CSRF.matcher(page.body());
+        if (!csrf.find()) {
+            throw new IllegalStateException("No CSRF token on the login page");
+        }
+
+        String form = "username=" + encode(username(user))
+                + "&password=" + encode(PASSWORD)
+                + "&_csrf=" + encode(csrf.group(1));
+        HttpResponse<String> login = send(HttpRequest.newBuilder(URI.create(baseUrl + "/login"))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(form)), cookies);
+        String location = login.headers().firstValue("Location").orElse("");
+        if (login.statusCode() != 302 || !location.endsWith("/dashboard")) {
+            throw new IllegalStateException("Login failed for " + username(user) + ": " + location);
+        }
+
+        HttpResponse<String> dashboard = send(HttpRequest.newBuilder(URI.create(baseUrl + "/dashboard")).GET(), cookies);
+        if (dashboard.statusCode() != 200) {
+            throw new IllegalStateException("Dashboard returned " + dashboard.statusCode());
+        }
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request, Map<String, String> cookies) throws Exception {
+        if (!cookies.isEmpty()) {
+            request.header("Cookie", cookies.entrySet().stream()
+                    .map(cookie -> cookie.getKey() + "=" + cookie.getValue())
+                    .collect(Collectors.joining("; ")));
+        }
+
+        HttpResponse<String> response = client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        for (String header : response.headers().allValues("Set-Cookie")) {
+            String pair = header.split(";", 2)[0];
+            int separator = pair.indexOf('=');
+            cookies.put(pair.substring(0, separator), pair.substring(separator + 1));
+        }
+        return response;
+    }
+
+    private static long usedHeapAfterGc() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private static String username(int user) {
+        return "student" + user;
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,112 @@
+package com.ignacio.gradecalc.benchmark;
+
+import com.ignacio.gradecalc.entity.Assessment;
+import com.ignacio.gradecalc.entity.GradingScale;
+import com.ignacio.gradecalc.entity.Module;
+import com.ignacio.gradecalc.enums.AssessmentType;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Test data shared by the benchmarks, shaped like real student modules.
+ */
+final class BenchmarkData {
+
+    private BenchmarkData() {}
+
+    static List<GradingScale> tudScales() {
+        return Arrays.asList(
+                scale("TUD", "A1", "First Class Honours", "80.00", "100.00", "4.00"),
+                scale("TUD", "A2", "First Class Honours", "75.00", "79.99", "3.80"),
+                scale("TUD", "A3", "First Class Honours", "70.00", "74.99", "3.60"),
+                scale("TUD", "B1", "Second Class Honours I", "65.00", "69.99", "3.20"),
+                scale("TUD", "B2", "Second Class Honours I", "60.00", "64.99", "3.00"),
+                scale("TUD", "B3", "Second Class Honours II", "55.00", "59.99", "2.80"),
+                scale("TUD", "C1", "Second Class Honours II", "50.00", "54.99", "2.60"),
+                scale("TUD", "C2", "Pass", "45.00", "49.99", "2.40"),
+                scale("TUD", "C3", "Pass", "40.00", "44.99", "2.00"),
+                scale("TUD", "D1", "Compensating Fail", "35.00", "39.99", "1.60"),
+                scale("TUD", "F", "Fail", "0.00", "34.99", "0.00")
+        );
+    }
+
+    static List<GradingScale> ucdScales() {
+        return Arrays.asList(
+                scale("UCD", "A+", "Excellent", "90.00", "100.00", "4.20"),
+                scale("UCD", "A", "Excellent", "80.00", "89.99", "4.00"),
+                scale("UCD", "A-", "Excellent", "70.00", "79.99", "3.80"),
+                scale("UCD", "B+", "Very Good", "66.67", "69.99", "3.60"),
+                scale("UCD", "B", "Very Good", "63.33", "66.66", "3.40"),
+                scale("UCD", "B-", "Very Good", "60.00", "63.32", "3.20"),
+                scale("UCD", "C+", "Good", "56.67", "59.99", "3.00"),
+                scale("UCD", "C", "Good", "53.33", "56.66", "2.80"),
+                scale("UCD", "C-", "Good", "50.00", "53.32", "2.60"),
+                scale("UCD", "D+", "Acceptable", "46.67", "49.99", "2.40"),
+                scale("UCD", "D", "Acceptable", "43.33", "46.66", "2.20"),
+                scale("UCD", "D-", "Acceptable", "40.00", "43.32", "2.00"),
+                scale("UCD", "FM", "Fail", "0.00", "39.99", "0.00")
+        );
+    }
+
+    static List<GradingScale> tcdScales() {
+        return Arrays.asList(
+                scale("TCD", "I", "First Class Honours", "70.00", "100.00", "4.00"),
+                scale("TCD", "II.1", "Second Class Honours I", "60.00", "69.99", "3.00"),
+                scale("TCD", "II.2", "Second Class Honours II", "50.00", "59.99", "2.00"),
+                scale("TCD", "III", "Third Class Honours", "40.00", "49.99", "1.00"),
+                scale("TCD", "F1", "Fail", "30.00", "39.99", "0.00"),
+                scale("TCD", "F2", "Fail", "0.00", "29.99", "0.00")
+        );
+    }
+
+    static List<GradingScale> standardScales() {
+        return Arrays.asList(
+                scale("STANDARD", "A", "First Class Honours", "70.00", "100.00", "4.00"),
+                scale("STANDARD", "B", "Second Class Honours I", "60.00", "69.99", "3.00"),
+                scale("STANDARD", "C", "Second Class Honours II", "50.00", "59.99", "2.00"),
+                scale("STANDARD", "D", "Pass", "40.00", "49.99", "1.00"),
+                scale("STANDARD", "F", "Fail", "0.00", "39.99", "0.00")
+        );
+    }
+
+    /**
+     * A module with equally weighted assessments, the first {@code completed} of them graded.
+     */
+    static Module module(int assessments, int completed) {
+        return module(assessments, completed, new Random(assessments * 31L + completed));
+    }
+
+    static Module module(int assessments, int completed, Random random) {
+        Module module = new Module();
+        module.setCredits(5);
+
+        BigDecimal weight = BigDecimal.valueOf(10_000 / assessments, 2);
+        List<Assessment> list = new ArrayList<>();
+
+        for (int i = 0; i < assessments; i++) {
+            Assessment assessment = new Assessment();
+            assessment.setModule(module);
+            assessment.setName("Assessment " + (i + 1));
+            assessment.setType(i < completed ? AssessmentType.ASSIGNMENT : AssessmentType.EXAM);
+            assessment.setWeightPercentage(weight);
+            assessment.setTotalMarks(new BigDecimal("100.00"));
+            if (i < completed) {
+                assessment.setObtainedMark(BigDecimal.valueOf(4_000 + random.nextInt(5_500), 2));
+            }
+            list.add(assessment);
+        }
+
+        module.setAssessments(list);
+        return module;
+    }
+
+    private static GradingScale scale(String university, String code, String name,
+                                      String min, String max, String gpa) {
+        return new GradingScale(university, code, name,
+                new BigDecimal(min), new BigDecimal(max), new BigDecimal(gpa));
+    }
+}
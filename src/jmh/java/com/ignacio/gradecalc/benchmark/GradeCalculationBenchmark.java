@@ -0,0 +1,126 @@
+package com.ignacio.gradecalc.benchmark;
+
+import com.ignacio.gradecalc.entity.Assessment;
+import com.ignacio.gradecalc.entity.Module;
+import com.ignacio.gradecalc.entity.User;
+import com.ignacio.gradecalc.enums.UniversityPreset;
+import com.ignacio.gradecalc.repository.GradingScaleRepository;
+import com.ignacio.gradecalc.service.FixedPointGradeCalculator;
+import com.ignacio.gradecalc.service.GradeService;
+import com.ignacio.gradecalc.service.GradingScaleRegistry;
+import com.ignacio.gradecalc.strategy.GradingStrategyFactory;
+import com.ignacio.gradecalc.strategy.TudStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Compares the BigDecimal arithmetic in GradeService with FixedPointGradeCalculator.
+ * Run with "-prof gc" to see the allocation per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GradeCalculationBenchmark {
+
+    private GradeService gradeService;
+    private FixedPointGradeCalculator calculator;
+    private Module module;
+    private User user;
+
+    // The same module pre-converted to fixed point
+    private long[] obtainedMarks;
+    private long[] totalMarks;
+    private long[] weights;
+    private long pendingWeight;
+
+    @Setup
+    public void setUp() {
+        GradingScaleRepository repository = mock(GradingScaleRepository.class);
+        when(repository.findAll()).thenReturn(BenchmarkData.tudScales());
+
+        gradeService = new GradeService(new GradingStrategyFactory(List.of(new TudStrategy())),
+                new GradingScaleRegistry(repository));
+        calculator = new FixedPointGradeCalculator();
+
+        user = new User();
+        user.setUniversityPreset(UniversityPreset.TUD);
+
+        // Six graded continuous assessments and two pending exams
+        module = BenchmarkData.module(8, 6);
+
+        List<Assessment> completed = new ArrayList<>();
+        for (Assessment assessment : module.getAssessments()) {
+            if (assessment.isCompleted()) {
+                completed.add(assessment);
+            } else {
+                pendingWeight += FixedPointGradeCalculator.toHundredths(assessment.getWeightPercentage());
+            }
+        }
+
+        obtainedMarks = new long[completed.size()];
+        totalMarks = new long[completed.size()];
+        weights = new long[completed.size()];
+        for (int i = 0; i < completed.size(); i++) {
+            obtainedMarks[i] = FixedPointGradeCalculator.toHundredths(completed.get(i).getObtainedMark());
+            totalMarks[i] = FixedPointGradeCalculator.toHundredths(completed.get(i).getTotalMarks());
+            weights[i] = FixedPointGradeCalculator.toHundredths(completed.get(i).getWeightPercentage());
+        }
+    }
+
+    @Benchmark
+    public BigDecimal currentPercentageBigDecimal() {
+        return gradeService.calculateCurrentPercentage(module);
+    }
+
+    @Benchmark
+    public BigDecimal currentPercentageFixedPoint() {
+        return calculator.calculateCurrentPercentage(module);
+    }
+
+    @Benchmark
+    public long currentPercentageFixedPointPrimitive() {
+        long currentScore = 0;
+        for (int i = 0; i < weights.length; i++) {
+            currentScore += calculator.contribution(obtainedMarks[i], totalMarks[i], weights[i]);
+        }
+        return currentScore;
+    }
+
+    @Benchmark
+    public BigDecimal requiredPercentageBigDecimal() {
+        return gradeService.calculateRequiredPercentage(module, user, "A3");
+    }
+
+    @Benchmark
+    public BigDecimal requiredPercentageFixedPoint() {
+        return calculator.calculateRequiredPercentage(module, new BigDecimal("70.00"));
+    }
+
+    @Benchmark
+    public long requiredPercentageFixedPointPrimitive() {
+        long currentScore = 0;
+        for (int i = 0; i < weights.length; i++) {
+            currentScore += calculator.contribution(obtainedMarks[i], totalMarks[i], weights[i]);
+        }
+        return calculator.requiredPercentage(70_00, currentScore, pendingWeight);
+    }
+}
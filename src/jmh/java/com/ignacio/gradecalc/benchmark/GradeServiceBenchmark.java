@@ -0,0 +1,101 @@
+package com.ignacio.gradecalc.benchmark;
+
+import com.ignacio.gradecalc.entity.Module;
+import com.ignacio.gradecalc.entity.User;
+import com.ignacio.gradecalc.enums.UniversityPreset;
+import com.ignacio.gradecalc.repository.GradingScaleRepository;
+import com.ignacio.gradecalc.service.GradeService;
+import com.ignacio.gradecalc.service.GradingScaleRegistry;
+import com.ignacio.gradecalc.strategy.GradingStrategyFactory;
+import com.ignacio.gradecalc.strategy.StandardStrategy;
+import com.ignacio.gradecalc.strategy.UcdStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * GradeService over a whole transcript: a typical year is 12 modules of
+ * 3-6 assessments, a heavy one has continuous assessment every week.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GradeServiceBenchmark {
+
+    @Param({"6", "12", "24"})
+    private int modules;
+
+    @Param({"4", "10"})
+    private int assessmentsPerModule;
+
+    private GradeService gradeService;
+    private List<Module> transcript;
+    private User user;
+
+    @Setup
+    public void setUp() {
+        GradingScaleRepository repository = mock(GradingScaleRepository.class);
+        when(repository.findAll()).thenReturn(BenchmarkData.ucdScales());
+
+        gradeService = new GradeService(
+                new GradingStrategyFactory(List.of(new UcdStrategy(), new StandardStrategy())),
+                new GradingScaleRegistry(repository));
+
+        user = new User();
+        user.setUniversityPreset(UniversityPreset.UCD);
+
+        // Mid-semester: roughly two thirds of each module graded
+        Random random = new Random(modules * 100L + assessmentsPerModule);
+        transcript = new ArrayList<>();
+        for (int i = 0; i < modules; i++) {
+            transcript.add(BenchmarkData.module(assessmentsPerModule, assessmentsPerModule * 2 / 3, random));
+        }
+    }
+
+    @Benchmark
+    public void currentPercentage(Blackhole blackhole) {
+        for (Module module : transcript) {
+            blackhole.consume(gradeService.calculateCurrentPercentage(module));
+        }
+    }
+
+    @Benchmark
+    public void currentGradeCode(Blackhole blackhole) {
+        for (Module module : transcript) {
+            blackhole.consume(gradeService.getCurrentGradeCode(module, user));
+        }
+    }
+
+    @Benchmark
+    public void summary(Blackhole blackhole) {
+        for (Module module : transcript) {
+            blackhole.consume(gradeService.summarise(module, user));
+        }
+    }
+
+    @Benchmark
+    public BigDecimal overallGpa() {
+        return gradeService.calculateOverallGpa(transcript, user);
+    }
+}
@@ -0,0 +1,132 @@
+package com.ignacio.gradecalc.benchmark;
+
+import com.ignacio.gradecalc.GradecalcApplication;
+import com.ignacio.gradecalc.entity.Assessment;
+import com.ignacio.gradecalc.entity.Module;
+import com.ignacio.gradecalc.entity.User;
+import com.ignacio.gradecalc.enums.AssessmentType;
+import com.ignacio.gradecalc.enums.UniversityPreset;
+import com.ignacio.gradecalc.repository.UserRepository;
+import com.ignacio.gradecalc.service.AssessmentService;
+import com.ignacio.gradecalc.service.MarkImportResult;
+import com.ignacio.gradecalc.service.MarkImportService;
+import com.ignacio.gradecalc.service.ModuleService;
+import com.ignacio.gradecalc.service.NewAssessment;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recording a user's marks against the real JPA stack on in-memory H2.
+ *
+ * recordMarkLoop is what a client without the import does (recordMark once per mark).
+ * importCsv sends the same marks through MarkImportService as one CSV.
+ * The marks alternate between two sets, so every invocation really changes them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MarkImportBenchmark {
+
+    private static final int ASSESSMENTS_PER_MODULE = 10;
+
+    @Param({"100", "2000"})
+    private int marks;
+
+    private ConfigurableApplicationContext context;
+    private AssessmentService assessmentService;
+    private MarkImportService markImportService;
+    private Long userId;
+    private List<Long> assessmentIds;
+    private BigDecimal[][] markSets;
+    private String[] csvs;
+    private int invocation;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(GradecalcApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:import-benchmark-" + marks,
+                        "spring.jpa.show-sql=false",
+                        "gradecalc.aggregates.repair-cron=-",
+                        "logging.level.root=WARN")
+                .run();
+
+        assessmentService = context.getBean(AssessmentService.class);
+        markImportService = context.getBean(MarkImportService.class);
+        ModuleService moduleService = context.getBean(ModuleService.class);
+        userId = context.getBean(UserRepository.class)
+                .save(new User("benchmark", "not-a-real-hash", UniversityPreset.STANDARD))
+                .getId();
+
+        BigDecimal weight = BigDecimal.valueOf(10_000 / ASSESSMENTS_PER_MODULE, 2);
+        List<NewAssessment> drafts = new ArrayList<>();
+        for (int i = 0; i < ASSESSMENTS_PER_MODULE; i++) {
+            drafts.add(new NewAssessment("Assessment " + (i + 1), AssessmentType.ASSIGNMENT,
+                    weight, new BigDecimal("100.00"), null, null));
+        }
+
+        assessmentIds = new ArrayList<>();
+        for (int m = 0; m < marks / ASSESSMENTS_PER_MODULE; m++) {
+            Module module = moduleService.createModuleWithAssessments(userId, "Module " + m, "MI" + m, 5,
+                    null, "S1", drafts);
+            for (Assessment assessment : assessmentService.findByModuleId(module.getId())) {
+                assessmentIds.add(assessment.getId());
+            }
+        }
+
+        markSets = new BigDecimal[2][assessmentIds.size()];
+        csvs = new String[2];
+        for (int set = 0; set < 2; set++) {
+            StringBuilder csv = new StringBuilder("assessment_id,obtained_mark\n");
+            for (int i = 0; i < assessmentIds.size(); i++) {
+                markSets[set][i] = BigDecimal.valueOf(40 + (i + set * 7) % 60);
+                csv.append(assessmentIds.get(i)).append(',').append(markSets[set][i]).append('\n');
+            }
+            csvs[set] = csv.toString();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Assessment recordMarkLoop() {
+        BigDecimal[] set = markSets[invocation++ & 1];
+        Assessment last = null;
+        for (int i = 0; i < assessmentIds.size(); i++) {
+            last = assessmentService.recordMark(assessmentIds.get(i), set[i]);
+        }
+        return last;
+    }
+
+    @Benchmark
+    public MarkImportResult importCsv() throws IOException {
+        return markImportService.importMarks(userId, new StringReader(csvs[invocation++ & 1]));
+    }
+}
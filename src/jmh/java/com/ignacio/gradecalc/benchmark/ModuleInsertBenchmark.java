@@ -0,0 +1,105 @@
+package com.ignacio.gradecalc.benchmark;
+
+import com.ignacio.gradecalc.GradecalcApplication;
+import com.ignacio.gradecalc.entity.Module;
+import com.ignacio.gradecalc.entity.User;
+import com.ignacio.gradecalc.enums.AssessmentType;
+import com.ignacio.gradecalc.enums.UniversityPreset;
+import com.ignacio.gradecalc.repository.UserRepository;
+import com.ignacio.gradecalc.service.AssessmentService;
+import com.ignacio.gradecalc.service.ModuleService;
+import com.ignacio.gradecalc.service.NewAssessment;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creating a module with its assessments against the real JPA stack on in-memory H2.
+ *
+ * perCall is the old path (createModule, then createAssessment per assessment).
+ * graph is createModuleWithAssessments. jdbcBatchSize=1 sends one statement per row,
+ * which is what IDENTITY ids forced, and 50 is the configured batch size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ModuleInsertBenchmark {
+
+    @Param({"1", "50"})
+    private int jdbcBatchSize;
+
+    @Param({"10"})
+    private int assessments;
+
+    private ConfigurableApplicationContext context;
+    private ModuleService moduleService;
+    private AssessmentService assessmentService;
+    private Long userId;
+    private List<NewAssessment> drafts;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(GradecalcApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:insert-benchmark-" + jdbcBatchSize,
+                        "spring.jpa.show-sql=false",
+                        "spring.jpa.properties.hibernate.jdbc.batch_size=" + jdbcBatchSize,
+                        "gradecalc.aggregates.repair-cron=-",
+                        "logging.level.root=WARN")
+                .run();
+
+        moduleService = context.getBean(ModuleService.class);
+        assessmentService = context.getBean(AssessmentService.class);
+        userId = context.getBean(UserRepository.class)
+                .save(new User("benchmark", "not-a-real-hash", UniversityPreset.STANDARD))
+                .getId();
+
+        BigDecimal weight = BigDecimal.valueOf(10_000 / assessments, 2);
+        drafts = new ArrayList<>();
+        for (int i = 0; i < assessments; i++) {
+            drafts.add(new NewAssessment("Assessment " + (i + 1), AssessmentType.ASSIGNMENT,
+                    weight, new BigDecimal("100.00"), null, null));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Module perCall() {
+        Module module = moduleService.createModule(userId, "Benchmark", "BM1001", 5, null, "S1");
+        for (NewAssessment draft : drafts) {
+            assessmentService.createAssessment(module.getId(), draft.name(), draft.type(),
+                    draft.weightPercentage(), draft.totalMarks(), draft.dueDate());
+        }
+        return module;
+    }
+
+    @Benchmark
+    public Module graph() {
+        return moduleService.createModuleWithAssessments(userId, "Benchmark", "BM1001", 5, null, "S1", drafts);
+    }
+}
@@ -0,0 +1,87 @@
+package com.ignacio.gradecalc.benchmark;
+
+import com.ignacio.gradecalc.entity.Module;
+import com.ignacio.gradecalc.entity.User;
+import com.ignacio.gradecalc.enums.UniversityPreset;
+import com.ignacio.gradecalc.repository.GradingScaleRepository;
+import com.ignacio.gradecalc.service.GradeService;
+import com.ignacio.gradecalc.service.GradingScaleRegistry;
+import com.ignacio.gradecalc.service.OutcomeDistribution;
+import com.ignacio.gradecalc.service.OutcomeSimulationService;
+import com.ignacio.gradecalc.service.TranscriptOutcome;
+import com.ignacio.gradecalc.strategy.GradingStrategyFactory;
+import com.ignacio.gradecalc.strategy.StandardStrategy;
+import com.ignacio.gradecalc.strategy.UcdStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Monte Carlo simulation of the pending assessments, for one module
+ * and for a whole transcript. The target is 100k trials per module in under 100 ms.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OutcomeSimulationBenchmark {
+
+    @Param({"10000", "100000"})
+    private int trials;
+
+    @Param({"6", "12"})
+    private int modules;
+
+    private OutcomeSimulationService simulationService;
+    private List<Module> transcript;
+    private User user;
+    private long seed;
+
+    @Setup
+    public void setUp() {
+        GradingScaleRepository repository = mock(GradingScaleRepository.class);
+        when(repository.findAll()).thenReturn(BenchmarkData.ucdScales());
+
+        simulationService = new OutcomeSimulationService(new GradeService(
+                new GradingStrategyFactory(List.of(new UcdStrategy(), new StandardStrategy())),
+                new GradingScaleRegistry(repository)));
+
+        user = new User();
+        user.setUniversityPreset(UniversityPreset.UCD);
+
+        // Mid-semester: half of each module graded
+        Random random = new Random(modules);
+        transcript = new ArrayList<>();
+        for (int i = 0; i < modules; i++) {
+            transcript.add(BenchmarkData.module(6, 3, random));
+        }
+    }
+
+    @Benchmark
+    public OutcomeDistribution module() {
+        return simulationService.simulateModule(transcript.get(0), user, trials, seed++);
+    }
+
+    @Benchmark
+    public TranscriptOutcome transcript() {
+        return simulationService.simulateTranscript(transcript, user, trials, seed++);
+    }
+}
@@ -0,0 +1,97 @@
+package com.ignacio.gradecalc.benchmark;
+
+import com.ignacio.gradecalc.entity.GradingScale;
+import com.ignacio.gradecalc.strategy.GradingStrategy;
+import com.ignacio.gradecalc.strategy.StandardStrategy;
+import com.ignacio.gradecalc.strategy.TcdStrategy;
+import com.ignacio.gradecalc.strategy.TudStrategy;
+import com.ignacio.gradecalc.strategy.UcdStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Grade band lookups and target grade resolution for each strategy.
+ * Each invocation resolves one input, cycling through a fixed set so the
+ * branch predictor cannot learn a single answer.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StrategyLookupBenchmark {
+
+    private static final int INPUTS = 1024;
+
+    @Param({"UCD", "TCD", "TUD", "STANDARD"})
+    private String university;
+
+    private GradingStrategy strategy;
+    private List<GradingScale> scales;
+    private BigDecimal[] percentages;
+    private String[] targetGrades;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        switch (university) {
+            case "UCD" -> {
+                strategy = new UcdStrategy();
+                scales = BenchmarkData.ucdScales();
+                targetGrades = new String[]{"A+", "a-", "B+", "c", "D-", "fm"};
+            }
+            case "TCD" -> {
+                strategy = new TcdStrategy();
+                scales = BenchmarkData.tcdScales();
+                targetGrades = new String[]{"I", "1st", "2:1", "II-1", "2.2", "ii:2", "3rd", "F1"};
+            }
+            case "TUD" -> {
+                strategy = new TudStrategy();
+                scales = BenchmarkData.tudScales();
+                targetGrades = new String[]{"A1", "a3", "B2", "c1", "C3", "F"};
+            }
+            default -> {
+                strategy = new StandardStrategy();
+                scales = BenchmarkData.standardScales();
+                targetGrades = new String[]{"A", "first", "2ND", "third", "4", "fail"};
+            }
+        }
+
+        // Projected percentages are rounded to two places, like GradeService produces
+        Random random = new Random(1);
+        percentages = new BigDecimal[INPUTS];
+        for (int i = 0; i < INPUTS; i++) {
+            percentages[i] = BigDecimal.valueOf(random.nextInt(10_001), 2);
+        }
+    }
+
+    @Benchmark
+    public String gradeCode() {
+        return strategy.getGradeCode(percentages[next++ & (INPUTS - 1)], scales);
+    }
+
+    @Benchmark
+    public BigDecimal gpaPoints() {
+        return strategy.getGpaPoints(percentages[next++ & (INPUTS - 1)], scales);
+    }
+
+    @Benchmark
+    public BigDecimal minimumPercentageForAlias() {
+        return strategy.getMinimumPercentageForGrade(targetGrades[next++ % targetGrades.length], scales);
+    }
+}
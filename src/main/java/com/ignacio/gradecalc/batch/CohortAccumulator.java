@@ -0,0 +1,176 @@
+package com.ignacio.gradecalc.batch;
+
+import com.ignacio.gradecalc.enums.UniversityPreset;
+import com.ignacio.gradecalc.service.FixedPointGradeCalculator;
+import com.ignacio.gradecalc.service.GradeService;
+import com.ignacio.gradecalc.strategy.GradeBoundaryTable;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.EnumMap;
+import java.util.Map;
+
+import static com.ignacio.gradecalc.service.FixedPointGradeCalculator.toHundredths;
+
+/**
+ * Turns a stream of assessment rows, ordered by user and then module, into module
+ * and user results. Only the module and user currently being read are held in memory.
+ *
+ * Arithmetic is done in fixed point and grading through the compiled boundary tables,
+ * so results match GradeService exactly.
+ */
+class CohortAccumulator {
+
+    private static final long NONE = Long.MIN_VALUE;
+
+    private final GradeService gradeService;
+    private final FixedPointGradeCalculator calculator;
+    private final CohortResultSink sink;
+    private final Map<UniversityPreset, GradeBoundaryTable> tables = new EnumMap<>(UniversityPreset.class);
+
+    // Current user
+    private long userId = NONE;
+    private GradeBoundaryTable table;
+    private int userModules;
+    private int gradedCredits;
+    private long weightedGpa;
+
+    // Current module, scores in ten-thousandths and weights in hundredths
+    private long moduleId = NONE;
+    private int credits;
+    private long currentScore;
+    private long completedWeight;
+    private long pendingWeight;
+
+    private long users;
+    private long modules;
+    private long rows;
+
+    CohortAccumulator(GradeService gradeService, FixedPointGradeCalculator calculator, CohortResultSink sink) {
+        this.gradeService = gradeService;
+        this.calculator = calculator;
+        this.sink = sink;
+    }
+
+    /**
+     * Add one row. The weight is null for a module with no assessments,
+     * and the obtained mark is null for a pending assessment.
+     */
+    void row(long userId, UniversityPreset preset, long moduleId, int credits,
+             BigDecimal weightPercentage, BigDecimal obtainedMark, BigDecimal totalMarks) throws IOException {
+        rows++;
+
+        if (moduleId != this.moduleId) {
+            finishModule();
+
+            if (userId != this.userId) {
+                finishUser();
+                startUser(userId, preset);
+            }
+
+            this.moduleId = moduleId;
+            this.credits = credits;
+        }
+
+        if (weightPercentage == null) {
+            return;
+        }
+
+        long weight = toHundredths(weightPercentage);
+        if (obtainedMark != null) {
+            currentScore += calculator.contribution(toHundredths(obtainedMark), toHundredths(totalMarks), weight);
+            completedWeight += weight;
+        } else {
+            pendingWeight += weight;
+        }
+    }
+
+    /**
+     * Add a user who has no modules, so they are still emitted (with a GPA of 0, as GradeService gives them).
+     */
+    void user(long userId, UniversityPreset preset) throws IOException {
+        rows++;
+        finishModule();
+
+        if (userId != this.userId) {
+            finishUser();
+            startUser(userId, preset);
+        }
+    }
+
+    /**
+     * Emit the last module and user. Call once after the final row.
+     */
+    void finish() throws IOException {
+        finishModule();
+        finishUser();
+    }
+
+    long getUsers() {
+        return users;
+    }
+
+    long getModules() {
+        return modules;
+    }
+
+    long getRows() {
+        return rows;
+    }
+
+    private void startUser(long userId, UniversityPreset preset) {
+        this.userId = userId;
+        this.table = tables.computeIfAbsent(preset != null ? preset : UniversityPreset.STANDARD,
+                gradeService::getBoundaryTable);
+        this.userModules = 0;
+        this.gradedCredits = 0;
+        this.weightedGpa = 0;
+    }
+
+    private void finishModule() throws IOException {
+        if (moduleId == NONE) {
+            return;
+        }
+
+        // If nothing completed yet, no grade to show (same as GradeService)
+        long projected = 0;
+        int band = table.noGradeBand();
+        if (completedWeight != 0) {
+            projected = calculator.projectToFullModule(currentScore, completedWeight);
+            band = table.band(projected);
+
+            weightedGpa += (long) table.gpaHundredths(band) * credits;
+            gradedCredits += credits;
+        }
+
+        sink.module(new CohortModuleResult(
+                userId,
+                moduleId,
+                BigDecimal.valueOf(currentScore, 4),
+                BigDecimal.valueOf(completedWeight, 2),
+                BigDecimal.valueOf(pendingWeight, 2),
+                BigDecimal.valueOf(projected, 2),
+                table.code(band),
+                BigDecimal.valueOf(table.gpaHundredths(band), 2)
+        ));
+
+        modules++;
+        userModules++;
+        moduleId = NONE;
+        currentScore = 0;
+        completedWeight = 0;
+        pendingWeight = 0;
+    }
+
+    private void finishUser() throws IOException {
+        if (userId == NONE) {
+            return;
+        }
+
+        long overallGpa = gradedCredits == 0 ? 0 : FixedPointGradeCalculator.divideHalfUp(weightedGpa, gradedCredits);
+        sink.user(new CohortUserResult(userId, userModules, gradedCredits, BigDecimal.valueOf(overallGpa, 2)));
+
+        users++;
+        userId = NONE;
+    }
+}
@@ -0,0 +1,94 @@
+package com.ignacio.gradecalc.batch;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Writes one user range's results to a modules file and a users file.
+ *
+ * Both are written under a temporary name and only renamed into place by commit(),
+ * users file last, so a users file on disk means the whole range is complete.
+ */
+class CohortCsvWriter implements CohortResultSink, Closeable {
+
+    private static final String PART_SUFFIX = ".part";
+
+    private final Path modulesFile;
+    private final Path usersFile;
+    private final BufferedWriter modules;
+    private final BufferedWriter users;
+
+    CohortCsvWriter(Path outputDir, long fromUserId, long toUserId) throws IOException {
+        this.modulesFile = modulesFile(outputDir, fromUserId, toUserId);
+        this.usersFile = usersFile(outputDir, fromUserId, toUserId);
+        this.modules = Files.newBufferedWriter(part(modulesFile), StandardCharsets.UTF_8);
+        this.users = Files.newBufferedWriter(part(usersFile), StandardCharsets.UTF_8);
+
+        modules.write("user_id,module_id,banked_percentage,completed_weight,pending_weight,"
+                + "projected_percentage,grade_code,gpa_points");
+        modules.newLine();
+        users.write("user_id,modules,graded_credits,overall_gpa");
+        users.newLine();
+    }
+
+    /**
+     * Check whether a range was completed by an earlier run.
+     */
+    static boolean isComplete(Path outputDir, long fromUserId, long toUserId) {
+        return Files.exists(usersFile(outputDir, fromUserId, toUserId));
+    }
+
+    @Override
+    public void module(CohortModuleResult result) throws IOException {
+        modules.write(result.userId() + "," + result.moduleId() + ","
+                + result.bankedPercentage().toPlainString() + ","
+                + result.completedWeight().toPlainString() + ","
+                + result.pendingWeight().toPlainString() + ","
+                + result.projectedPercentage().toPlainString() + ","
+                + result.gradeCode() + ","
+                + result.gpaPoints().toPlainString());
+        modules.newLine();
+    }
+
+    @Override
+    public void user(CohortUserResult result) throws IOException {
+        users.write(result.userId() + "," + result.modules() + ","
+                + result.gradedCredits() + "," + result.overallGpa().toPlainString());
+        users.newLine();
+    }
+
+    /**
+     * Flush both files and move them into place.
+     */
+    void commit() throws IOException {
+        close();
+        Files.move(part(modulesFile), modulesFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        Files.move(part(usersFile), usersFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            modules.close();
+        } finally {
+            users.close();
+        }
+    }
+
+    private static Path modulesFile(Path outputDir, long fromUserId, long toUserId) {
+        return outputDir.resolve("modules-" + fromUserId + "-" + toUserId + ".csv");
+    }
+
+    private static Path usersFile(Path outputDir, long fromUserId, long toUserId) {
+        return outputDir.resolve("users-" + fromUserId + "-" + toUserId + ".csv");
+    }
+
+    private static Path part(Path file) {
+        return file.resolveSibling(file.getFileName() + PART_SUFFIX);
+    }
+}
@@ -0,0 +1,26 @@
+package com.ignacio.gradecalc.batch;
+
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs the cohort batch once at startup when gradecalc.cohort.run=true, e.g.
+ * java -jar gradecalc.jar --gradecalc.cohort.run=true --gradecalc.cohort.output-dir=/data/cohort
+ */
+@Component
+@ConditionalOnProperty(name = "gradecalc.cohort.run", havingValue = "true")
+public class CohortGradingRunner implements ApplicationRunner {
+
+    private final CohortGradingService cohortGradingService;
+
+    public CohortGradingRunner(CohortGradingService cohortGradingService) {
+        this.cohortGradingService = cohortGradingService;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        cohortGradingService.run();
+    }
+}
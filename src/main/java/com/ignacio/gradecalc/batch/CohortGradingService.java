@@ -0,0 +1,248 @@
+package com.ignacio.gradecalc.batch;
+
+import com.ignacio.gradecalc.enums.UniversityPreset;
+import com.ignacio.gradecalc.service.FixedPointGradeCalculator;
+import com.ignacio.gradecalc.service.GradeService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Grades every module and user in the database in one batch, for whole cohorts.
+ *
+ * Assessment rows are streamed straight from JDBC, ordered by user and module,
+ * without loading any entities. Users without modules are included, with a GPA of 0.
+ * Users are split into fixed id ranges that run in parallel on a ForkJoin pool,
+ * and each range is written to its own pair of CSV files.
+ * A range whose files already exist is skipped, so a failed or interrupted run
+ * picks up where it left off when started again with the same range size.
+ */
+@Service
+public class CohortGradingService {
+
+    private static final Logger log = LoggerFactory.getLogger(CohortGradingService.class);
+
+    private static final String ROWS_SQL = """
+            SELECT u.id, u.university_preset, m.id, m.credits,
+                   a.weight_percentage, a.obtained_mark, a.total_marks
+            FROM users u
+            LEFT JOIN modules m ON m.user_id = u.id
+            LEFT JOIN assessments a ON a.module_id = m.id
+            WHERE u.id BETWEEN ? AND ?
+            ORDER BY u.id, m.id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final GradeService gradeService;
+    private final FixedPointGradeCalculator calculator;
+    private final Path outputDir;
+    private final int rangeSize;
+    private final int parallelism;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicReference<LocalDateTime> startedAt = new AtomicReference<>();
+    private final AtomicInteger totalRanges = new AtomicInteger();
+    private final AtomicInteger completedRanges = new AtomicInteger();
+    private final AtomicInteger skippedRanges = new AtomicInteger();
+    private final AtomicInteger failedRanges = new AtomicInteger();
+    private final AtomicLong users = new AtomicLong();
+    private final AtomicLong modules = new AtomicLong();
+    private final AtomicLong rows = new AtomicLong();
+
+    public CohortGradingService(DataSource dataSource,
+                                PlatformTransactionManager transactionManager,
+                                GradeService gradeService,
+                                FixedPointGradeCalculator calculator,
+                                @Value("${gradecalc.cohort.output-dir:cohort-results}") Path outputDir,
+                                @Value("${gradecalc.cohort.range-size:1000}") int rangeSize,
+                                @Value("${gradecalc.cohort.parallelism:0}") int parallelism,
+                                @Value("${gradecalc.cohort.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.gradeService = gradeService;
+        this.calculator = calculator;
+        this.outputDir = outputDir;
+        this.rangeSize = rangeSize;
+        // 0 means one thread per core
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Grade every user, skipping ranges completed by an earlier run.
+     *
+     * @return Progress at the end of the run
+     * @throws IllegalStateException if a run is already in progress, or if any range failed
+     *                               (completed ranges are kept, so just run again)
+     */
+    public CohortProgress run() {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("Cohort run already in progress");
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            reset();
+            Files.createDirectories(outputDir);
+
+            List<long[]> ranges = userRanges();
+            totalRanges.set(ranges.size());
+            log.info("Cohort run started: {} user ranges of {} on {} threads, writing to {}",
+                    ranges.size(), rangeSize, parallelism, outputDir.toAbsolutePath());
+
+            List<Callable<Void>> tasks = new ArrayList<>(ranges.size());
+            for (long[] range : ranges) {
+                tasks.add(() -> {
+                    runRange(range[0], range[1]);
+                    return null;
+                });
+            }
+
+            for (Future<Void> result : pool.invokeAll(tasks)) {
+                result.get();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Cohort run interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(failedRanges.get() + " user ranges failed, run again to retry them",
+                    e.getCause());
+        } finally {
+            pool.shutdown();
+            running.set(false);
+        }
+
+        CohortProgress progress = getProgress();
+        log.info("Cohort run finished: {} users, {} modules, {} rows ({} ranges already done)",
+                progress.users(), progress.modules(), progress.rows(), progress.skippedRanges());
+        return progress;
+    }
+
+    /**
+     * Current progress, safe to call from another thread while a run is going.
+     */
+    public CohortProgress getProgress() {
+        if (startedAt.get() == null) {
+            return CohortProgress.idle();
+        }
+
+        return new CohortProgress(
+                running.get(),
+                startedAt.get(),
+                totalRanges.get(),
+                completedRanges.get(),
+                skippedRanges.get(),
+                failedRanges.get(),
+                users.get(),
+                modules.get(),
+                rows.get()
+        );
+    }
+
+    private void runRange(long fromUserId, long toUserId) throws IOException {
+        if (CohortCsvWriter.isComplete(outputDir, fromUserId, toUserId)) {
+            skippedRanges.incrementAndGet();
+            completedRanges.incrementAndGet();
+            return;
+        }
+
+        try (CohortCsvWriter writer = new CohortCsvWriter(outputDir, fromUserId, toUserId)) {
+            CohortAccumulator accumulator = new CohortAccumulator(gradeService, calculator, writer);
+
+            // Some drivers (e.g. PostgreSQL) only stream with a fetch size inside a transaction
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(ROWS_SQL, rs -> {
+                try {
+                    long userId = rs.getLong(1);
+                    UniversityPreset preset = UniversityPreset.valueOf(rs.getString(2));
+                    long moduleId = rs.getLong(3);
+                    if (rs.wasNull()) {
+                        accumulator.user(userId, preset); // No modules, but still gets a users row
+                    } else {
+                        accumulator.row(
+                                userId,
+                                preset,
+                                moduleId,
+                                rs.getInt(4),
+                                rs.getBigDecimal(5),
+                                rs.getBigDecimal(6),
+                                rs.getBigDecimal(7));
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, fromUserId, toUserId));
+
+            accumulator.finish();
+            writer.commit();
+
+            users.addAndGet(accumulator.getUsers());
+            modules.addAndGet(accumulator.getModules());
+            rows.addAndGet(accumulator.getRows());
+        } catch (RuntimeException | IOException e) {
+            failedRanges.incrementAndGet();
+            log.error("Cohort range {}-{} failed", fromUserId, toUserId, e);
+            throw e;
+        }
+
+        int done = completedRanges.incrementAndGet();
+        log.info("Cohort range {}-{} done ({}/{})", fromUserId, toUserId, done, totalRanges.get());
+    }
+
+    /**
+     * Split the user ids into ranges of rangeSize, aligned to multiples of rangeSize
+     * so the same ranges come out on every run.
+     */
+    private List<long[]> userRanges() {
+        Map<String, Object> bounds = jdbcTemplate.queryForMap("SELECT MIN(id) AS min_id, MAX(id) AS max_id FROM users");
+        List<long[]> ranges = new ArrayList<>();
+
+        if (bounds.get("min_id") == null) {
+            return ranges; // No users
+        }
+
+        long minId = ((Number) bounds.get("min_id")).longValue();
+        long maxId = ((Number) bounds.get("max_id")).longValue();
+
+        for (long from = Math.floorDiv(minId, rangeSize) * rangeSize; from <= maxId; from += rangeSize) {
+            ranges.add(new long[]{from, from + rangeSize - 1});
+        }
+        return ranges;
+    }
+
+    private void reset() {
+        startedAt.set(LocalDateTime.now());
+        totalRanges.set(0);
+        completedRanges.set(0);
+        skippedRanges.set(0);
+        failedRanges.set(0);
+        users.set(0);
+        modules.set(0);
+        rows.set(0);
+    }
+}
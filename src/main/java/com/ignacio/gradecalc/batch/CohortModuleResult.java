@@ -0,0 +1,17 @@
+package com.ignacio.gradecalc.batch;
+
+import java.math.BigDecimal;
+
+/**
+ * Batch result for one module, with the same values GradeService.summarise gives.
+ */
+public record CohortModuleResult(
+        long userId,
+        long moduleId,
+        BigDecimal bankedPercentage,
+        BigDecimal completedWeight,
+        BigDecimal pendingWeight,
+        BigDecimal projectedPercentage,
+        String gradeCode,
+        BigDecimal gpaPoints) {
+}
@@ -0,0 +1,25 @@
+package com.ignacio.gradecalc.batch;
+
+import java.time.LocalDateTime;
+
+/**
+ * Snapshot of a cohort run.
+ *
+ * @param skippedRanges User ranges already completed by an earlier run
+ * @param rows          Assessment rows read so far
+ */
+public record CohortProgress(
+        boolean running,
+        LocalDateTime startedAt,
+        int totalRanges,
+        int completedRanges,
+        int skippedRanges,
+        int failedRanges,
+        long users,
+        long modules,
+        long rows) {
+
+    public static CohortProgress idle() {
+        return new CohortProgress(false, null, 0, 0, 0, 0, 0, 0, 0);
+    }
+}
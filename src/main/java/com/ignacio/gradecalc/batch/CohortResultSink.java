@@ -0,0 +1,13 @@
+package com.ignacio.gradecalc.batch;
+
+import java.io.IOException;
+
+/**
+ * Receives batch results as they are produced, so nothing has to be held in memory.
+ */
+interface CohortResultSink {
+
+    void module(CohortModuleResult result) throws IOException;
+
+    void user(CohortUserResult result) throws IOException;
+}
@@ -0,0 +1,16 @@
+package com.ignacio.gradecalc.batch;
+
+import java.math.BigDecimal;
+
+/**
+ * Batch result for one user, with the same overall GPA GradeService.calculateOverallGpa gives.
+ *
+ * @param modules       Number of modules the user has
+ * @param gradedCredits Credits of the modules with completed work (the ones counted in the GPA)
+ */
+public record CohortUserResult(
+        long userId,
+        int modules,
+        int gradedCredits,
+        BigDecimal overallGpa) {
+}
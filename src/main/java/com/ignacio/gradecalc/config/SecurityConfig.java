@@ -1,24 +1,57 @@
 package com.ignacio.gradecalc.config;
 
+import com.ignacio.gradecalc.security.AuthTokenService;
+import com.ignacio.gradecalc.security.BoundedPasswordEncoder;
+import com.ignacio.gradecalc.security.LoginAdmissionFilter;
+import com.ignacio.gradecalc.security.LoginThrottle;
+import com.ignacio.gradecalc.security.PasswordHashingExecutor;
+import com.ignacio.gradecalc.security.TokenAuthenticationFilter;
+import com.ignacio.gradecalc.security.TokenCookies;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
+import org.springframework.security.web.authentication.SimpleUrlAuthenticationFailureHandler;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.csrf.CookieCsrfTokenRepository;
+import org.springframework.security.web.savedrequest.NullRequestCache;
+
+import java.time.Duration;
 
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
 
+    /**
+     * BCrypt run on a bounded pool, so a burst of logins queues (or is refused) instead of
+     * taking every request thread.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${gradecalc.security.bcrypt-strength:10}") int strength,
+                                           PasswordHashingExecutor hashingExecutor) {
+        return new BoundedPasswordEncoder(strength, hashingExecutor);
     }
 
+    /**
+     * gradecalc.auth.mode=session (the default) keeps the login in an HTTP session.
+     * gradecalc.auth.mode=token keeps nothing on the server: a successful form login sets a signed
+     * token cookie, and every later request is authenticated from that cookie alone.
+     */
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http,
+                                           @Value("${gradecalc.auth.mode:session}") String authMode,
+                                           ObjectProvider<AuthTokenService> authTokenService,
+                                           LoginThrottle loginThrottle,
+                                           PasswordHashingExecutor hashingExecutor,
+                                           @Value("${gradecalc.security.hashing.retry-after:5s}") Duration retryAfter)
+            throws Exception {
         http
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/", "/register", "/login", "/css/**", "/js/**").permitAll()
@@ -33,7 +66,17 @@ public class SecurityConfig {
                 .logout(logout -> logout
                         .logoutSuccessUrl("/login?logout")
                         .permitAll()
-                );
+                )
+                // API clients get a 401 rather than a redirect to the login page
+                .exceptionHandling(exceptions -> exceptions.defaultAuthenticationEntryPointFor(
+                        new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED),
+                        request -> request.getServletPath().startsWith("/api/")))
+                .addFilterBefore(new LoginAdmissionFilter(loginThrottle, hashingExecutor, retryAfter.toSeconds()),
+                        UsernamePasswordAuthenticationFilter.class);
+
+        if ("token".equals(authMode)) {
+            configureTokenMode(http, authTokenService.getObject());
+        }
 
         // Required for H2 console to work (disable for production)
         http.csrf(csrf -> csrf.ignoringRequestMatchers("/h2-console/**"));
@@ -41,4 +84,24 @@ public class SecurityConfig {
 
         return http.build();
     }
-}
\ No newline at end of file
+
+    private void configureTokenMode(HttpSecurity http, AuthTokenService tokens) throws Exception {
+        SimpleUrlAuthenticationFailureHandler failureHandler = new SimpleUrlAuthenticationFailureHandler("/login?error");
+        failureHandler.setAllowSessionCreation(false);
+
+        http
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                // The CSRF token and the saved request would otherwise each create a session
+                .csrf(csrf -> csrf.csrfTokenRepository(new CookieCsrfTokenRepository()))
+                .requestCache(cache -> cache.requestCache(new NullRequestCache()))
+                .formLogin(form -> form
+                        .successHandler((request, response, authentication) -> {
+                            TokenCookies.write(request, response, tokens.issue(authentication.getName()), tokens.getTtl());
+                            response.sendRedirect(request.getContextPath() + "/dashboard");
+                        })
+                        .failureHandler(failureHandler)
+                )
+                .logout(logout -> logout.deleteCookies(TokenCookies.NAME))
+                .addFilterBefore(new TokenAuthenticationFilter(tokens), UsernamePasswordAuthenticationFilter.class);
+    }
+}
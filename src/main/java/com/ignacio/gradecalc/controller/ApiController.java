@@ -0,0 +1,77 @@
+package com.ignacio.gradecalc.controller;
+
+import com.ignacio.gradecalc.service.AssessmentView;
+import com.ignacio.gradecalc.service.GradeApiService;
+import com.ignacio.gradecalc.service.ModuleView;
+import com.ignacio.gradecalc.service.SyncDelta;
+import com.ignacio.gradecalc.service.UserCredentials;
+import com.ignacio.gradecalc.service.UserLookupCache;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+/**
+ * Read-only JSON API for the signed-in user's data, for mobile and other non-browser clients.
+ * Every response is conditional on the user's data revision, like the dashboard.
+ */
+@RestController
+@RequestMapping("/api")
+public class ApiController {
+
+    private final GradeApiService gradeApiService;
+    private final UserLookupCache userLookupCache;
+    private final UserDataETags userDataETags;
+
+    public ApiController(GradeApiService gradeApiService, UserLookupCache userLookupCache,
+                         UserDataETags userDataETags) {
+        this.gradeApiService = gradeApiService;
+        this.userLookupCache = userLookupCache;
+        this.userDataETags = userDataETags;
+    }
+
+    @GetMapping("/modules")
+    public List<ModuleView> modules(@AuthenticationPrincipal UserDetails userDetails, ServletWebRequest request) {
+        if (userDataETags.checkNotModified(userDetails.getUsername(), request)) {
+            return null;
+        }
+        return gradeApiService.findModules(userId(userDetails));
+    }
+
+    @GetMapping("/modules/{moduleId}/assessments")
+    public List<AssessmentView> assessments(@AuthenticationPrincipal UserDetails userDetails,
+                                            @PathVariable Long moduleId, ServletWebRequest request) {
+        if (userDataETags.checkNotModified(userDetails.getUsername(), request)) {
+            return null;
+        }
+        return gradeApiService.findAssessments(userId(userDetails), moduleId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Module not found: " + moduleId));
+    }
+
+    /**
+     * Everything changed after the client's last synced revision. Send since=0 (or nothing) for the
+     * full data, then the revision from each response on the next call.
+     */
+    @GetMapping("/sync")
+    public SyncDelta sync(@AuthenticationPrincipal UserDetails userDetails,
+                          @RequestParam(defaultValue = "0") long since, ServletWebRequest request) {
+        if (userDataETags.checkNotModified(userDetails.getUsername(), request)) {
+            return null;
+        }
+        return gradeApiService.changesSince(userId(userDetails), since);
+    }
+
+    private Long userId(UserDetails userDetails) {
+        return userLookupCache.findByUsername(userDetails.getUsername())
+                .map(UserCredentials::id)
+                .orElseThrow(() -> new IllegalArgumentException("User not found: " + userDetails.getUsername()));
+    }
+}
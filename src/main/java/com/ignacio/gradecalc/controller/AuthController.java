@@ -1,7 +1,7 @@
 package com.ignacio.gradecalc.controller;
 
-import com.ignacio.gradecalc.entity.User;
-import com.ignacio.gradecalc.repository.UserRepository;
+import com.ignacio.gradecalc.service.UserService;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -13,11 +13,11 @@ import com.ignacio.gradecalc.enums.UniversityPreset;
 @Controller
 public class AuthController {
 
-    private final UserRepository userRepository;
+    private final UserService userService;
     private final PasswordEncoder passwordEncoder;
 
-    public AuthController(UserRepository userRepository, PasswordEncoder passwordEncoder) {
-        this.userRepository = userRepository;
+    public AuthController(UserService userService, PasswordEncoder passwordEncoder) {
+        this.userService = userService;
         this.passwordEncoder = passwordEncoder;
     }
 
@@ -38,8 +38,8 @@ public class AuthController {
             @RequestParam String universityPreset,
             Model model) {
 
-        // Check if username already exists
-        if (userRepository.existsByUsername(username)) {
+        // Check if username already exists (most free names are answered without a query)
+        if (userService.usernameExists(username)) {
             model.addAttribute("error", "Username already taken");
             return "auth/register";
         }
@@ -47,10 +47,13 @@ public class AuthController {
         // Hash password and create user
         String hashedPassword = passwordEncoder.encode(password);
         UniversityPreset preset = UniversityPreset.valueOf(universityPreset);
-        User user = new User(username, hashedPassword, preset);
-        userRepository.save(user);
-
-
+        try {
+            userService.register(username, hashedPassword, preset);
+        } catch (DataIntegrityViolationException e) {
+            // Someone else registered the same name since the check above
+            model.addAttribute("error", "Username already taken");
+            return "auth/register";
+        }
 
         return "redirect:/login?registered";
     }
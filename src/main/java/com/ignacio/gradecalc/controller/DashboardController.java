@@ -5,13 +5,26 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.context.request.ServletWebRequest;
 
 @Controller
 public class DashboardController {
 
+    private final UserDataETags userDataETags;
+
+    public DashboardController(UserDataETags userDataETags) {
+        this.userDataETags = userDataETags;
+    }
+
     @GetMapping("/dashboard")
-    public String dashboard(@AuthenticationPrincipal UserDetails userDetails, Model model) {
+    public String dashboard(@AuthenticationPrincipal UserDetails userDetails, Model model,
+                            ServletWebRequest request) {
+        // Unchanged since the browser's copy: 304 before anything is loaded or rendered
+        if (userDataETags.checkNotModified(userDetails.getUsername(), request)) {
+            return null;
+        }
+
         model.addAttribute("username", userDetails.getUsername());
         return "dashboard/home";
     }
-}
\ No newline at end of file
+}
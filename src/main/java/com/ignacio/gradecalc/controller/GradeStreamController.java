@@ -0,0 +1,40 @@
+package com.ignacio.gradecalc.controller;
+
+import com.ignacio.gradecalc.push.GradeDeltaBroadcaster;
+import com.ignacio.gradecalc.service.UserCredentials;
+import com.ignacio.gradecalc.service.UserLookupCache;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Server-Sent Events stream of grade deltas for the signed-in user's open dashboards.
+ * Each "grade" event carries a GradeDelta as JSON.
+ */
+@RestController
+public class GradeStreamController {
+
+    private final GradeDeltaBroadcaster gradeDeltaBroadcaster;
+    private final UserLookupCache userLookupCache;
+
+    public GradeStreamController(GradeDeltaBroadcaster gradeDeltaBroadcaster, UserLookupCache userLookupCache) {
+        this.gradeDeltaBroadcaster = gradeDeltaBroadcaster;
+        this.userLookupCache = userLookupCache;
+    }
+
+    @GetMapping(value = "/dashboard/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@AuthenticationPrincipal UserDetails userDetails) {
+        Long userId = userLookupCache.findByUsername(userDetails.getUsername())
+                .map(UserCredentials::id)
+                .orElseThrow(() -> new IllegalArgumentException("User not found: " + userDetails.getUsername()));
+
+        return gradeDeltaBroadcaster.subscribe(userId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                        "Too many open streams"));
+    }
+}
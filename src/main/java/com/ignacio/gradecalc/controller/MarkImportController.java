@@ -0,0 +1,58 @@
+package com.ignacio.gradecalc.controller;
+
+import com.ignacio.gradecalc.entity.User;
+import com.ignacio.gradecalc.service.MarkImportResult;
+import com.ignacio.gradecalc.service.MarkImportService;
+import com.ignacio.gradecalc.service.UserService;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Bulk mark import. Accepts either a multipart upload (field "file")
+ * or a raw text/csv request body. Only the text/csv body is read as it arrives;
+ * the container spools a multipart upload to memory or a temporary file first.
+ */
+@RestController
+public class MarkImportController {
+
+    private final MarkImportService markImportService;
+    private final UserService userService;
+
+    public MarkImportController(MarkImportService markImportService, UserService userService) {
+        this.markImportService = markImportService;
+        this.userService = userService;
+    }
+
+    @PostMapping(value = "/marks/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public MarkImportResult importFile(@AuthenticationPrincipal UserDetails userDetails,
+                                       @RequestParam("file") MultipartFile file) throws IOException {
+        try (InputStream in = file.getInputStream()) {
+            return importMarks(userDetails, in);
+        }
+    }
+
+    @PostMapping(value = "/marks/import", consumes = "text/csv")
+    public MarkImportResult importBody(@AuthenticationPrincipal UserDetails userDetails,
+                                       InputStream body) throws IOException {
+        return importMarks(userDetails, body);
+    }
+
+    private MarkImportResult importMarks(UserDetails userDetails, InputStream in) throws IOException {
+        User user = userService.findByUsername(userDetails.getUsername())
+                .orElseThrow(() -> new IllegalArgumentException("User not found: " + userDetails.getUsername()));
+
+        Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8);
+        return markImportService.importMarks(user.getId(), reader);
+    }
+}
@@ -0,0 +1,92 @@
+package com.ignacio.gradecalc.controller;
+
+import com.ignacio.gradecalc.service.GradingScaleRegistry;
+import com.ignacio.gradecalc.service.UserRevision;
+import com.ignacio.gradecalc.service.UserService;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.web.csrf.DeferredCsrfToken;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * Conditional GET for anything built from one user's data, HTML or JSON.
+ *
+ * The strong ETag is made from the user's data revision, which every write to their modules,
+ * assessments or preset bumps, plus a hash of the grading scales' content (so re-reading unchanged
+ * scales keeps it) and this process's start time (so a new release never matches a page rendered
+ * by the old one). Pages embed the CSRF token (the logout form), so a hash of the login's CSRF token
+ * is part of it too: logging out and in again gets a fresh page instead of one whose token is no
+ * longer accepted. Checking it costs one lookup by username; nothing else is loaded.
+ *
+ * <pre>
+ * if (userDataETags.checkNotModified(username, request)) {
+ *     return null; // 304 already prepared
+ * }
+ * </pre>
+ */
+@Component
+public class UserDataETags {
+
+    private final UserService userService;
+    private final GradingScaleRegistry gradingScaleRegistry;
+    private final String startId = Long.toString(System.currentTimeMillis(), 36);
+
+    public UserDataETags(UserService userService, GradingScaleRegistry gradingScaleRegistry) {
+        this.userService = userService;
+        this.gradingScaleRegistry = gradingScaleRegistry;
+    }
+
+    /**
+     * Set the ETag for the user's current data and compare it with If-None-Match.
+     * Every response is marked private and must be revalidated, so the browser keeps the page
+     * and asks again rather than showing it stale.
+     *
+     * @return true if the client's copy is current and a 304 has been prepared; the handler
+     *         should return null without doing any more work
+     */
+    public boolean checkNotModified(String username, ServletWebRequest request) {
+        Optional<UserRevision> revision = userService.findRevision(username);
+        if (revision.isEmpty()) {
+            return false; // Deleted since logging in, let the handler deal with it
+        }
+
+        if (request.getResponse() != null) {
+            request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL,
+                    CacheControl.noCache().cachePrivate().getHeaderValue());
+        }
+        return request.checkNotModified(etag(revision.get(), csrfFingerprint(request)));
+    }
+
+    String etag(UserRevision revision, String csrfFingerprint) {
+        return "\"" + startId + "-" + revision.userId() + "-" + revision.dataRevision()
+                + "-" + Long.toHexString(gradingScaleRegistry.getContentVersion()) + "-" + csrfFingerprint + "\"";
+    }
+
+    /**
+     * A short hash of the raw CSRF token CsrfFilter loaded for this request. The token rendered into a
+     * page is masked differently every time, but the raw one only changes when the user logs in or out.
+     * Hashed so the ETag never carries the token itself.
+     */
+    private static String csrfFingerprint(ServletWebRequest request) {
+        Object attribute = request.getRequest().getAttribute(DeferredCsrfToken.class.getName());
+        if (!(attribute instanceof DeferredCsrfToken deferred)) {
+            return "0"; // No CSRF protection on this request
+        }
+
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e); // Every JVM has SHA-256
+        }
+        byte[] hash = digest.digest(deferred.get().getToken().getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(hash, 0, 8);
+    }
+}
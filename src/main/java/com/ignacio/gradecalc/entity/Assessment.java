@@ -11,7 +11,8 @@ import java.time.LocalDateTime;
 public class Assessment {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "assessments_seq")
+    @SequenceGenerator(name = "assessments_seq", sequenceName = "assessments_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -145,4 +146,16 @@ public class Assessment {
                 .divide(totalMarks, 4, java.math.RoundingMode.HALF_UP)
                 .multiply(new BigDecimal("100"));
     }
+
+    // Utility method: get weighted contribution to the module (if completed)
+    // Weighted contribution = (percentage score) * (weight / 100)
+    public BigDecimal getWeightedContribution() {
+        BigDecimal percentageScore = getPercentageScore();
+        if (percentageScore == null || weightPercentage == null) {
+            return null;
+        }
+        return percentageScore
+                .multiply(weightPercentage)
+                .divide(new BigDecimal("100"), 4, java.math.RoundingMode.HALF_UP);
+    }
 }
\ No newline at end of file
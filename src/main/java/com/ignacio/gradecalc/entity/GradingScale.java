@@ -8,7 +8,8 @@ import java.math.BigDecimal;
 public class GradingScale {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "grading_scales_seq")
+    @SequenceGenerator(name = "grading_scales_seq", sequenceName = "grading_scales_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, length = 20)
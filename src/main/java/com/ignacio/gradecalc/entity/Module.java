@@ -10,7 +10,8 @@ import java.util.List;
 public class Module {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "modules_seq")
+    @SequenceGenerator(name = "modules_seq", sequenceName = "modules_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -35,6 +36,14 @@ public class Module {
     @Column(nullable = false)
     private LocalDateTime createdAt;
 
+    @Embedded
+    private ModuleAggregates aggregates = new ModuleAggregates();
+
+    // Bumped by Hibernate on every update of the row, including changes to the aggregates
+    @Version
+    @Column(nullable = false)
+    private Long revision;
+
     @OneToMany(mappedBy = "module", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Assessment> assessments = new ArrayList<>();
 
@@ -122,6 +131,18 @@ public class Module {
         this.createdAt = createdAt;
     }
 
+    public ModuleAggregates getAggregates() {
+        return aggregates;
+    }
+
+    public void setAggregates(ModuleAggregates aggregates) {
+        this.aggregates = aggregates;
+    }
+
+    public Long getRevision() {
+        return revision;
+    }
+
     public List<Assessment> getAssessments() {
         return assessments;
     }
@@ -0,0 +1,112 @@
+package com.ignacio.gradecalc.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Running totals over a module's assessments, stored on the module row.
+ * Kept up to date as deltas whenever an assessment is created, marked, edited or deleted,
+ * so reads don't need to load the assessments at all.
+ */
+@Embeddable
+public class ModuleAggregates {
+
+    @Column(nullable = false, precision = 7, scale = 2)
+    private BigDecimal completedWeight = BigDecimal.ZERO;
+
+    // Sum of each completed assessment's weighted contribution (the banked percentage)
+    @Column(nullable = false, precision = 9, scale = 4)
+    private BigDecimal weightedScore = BigDecimal.ZERO;
+
+    @Column(nullable = false, precision = 7, scale = 2)
+    private BigDecimal pendingWeight = BigDecimal.ZERO;
+
+    @Column(nullable = false)
+    private Integer completedCount = 0;
+
+    // Default constructor (required by JPA)
+    public ModuleAggregates() {}
+
+    /**
+     * Build the aggregates from scratch over a list of assessments.
+     */
+    public static ModuleAggregates of(List<Assessment> assessments) {
+        ModuleAggregates aggregates = new ModuleAggregates();
+        for (Assessment assessment : assessments) {
+            aggregates.add(assessment);
+        }
+        return aggregates;
+    }
+
+    /**
+     * Add an assessment's current state to the totals.
+     */
+    public void add(Assessment assessment) {
+        if (assessment.isCompleted()) {
+            completedWeight = completedWeight.add(assessment.getWeightPercentage());
+            weightedScore = weightedScore.add(assessment.getWeightedContribution());
+            completedCount++;
+        } else {
+            pendingWeight = pendingWeight.add(assessment.getWeightPercentage());
+        }
+    }
+
+    /**
+     * Remove an assessment's current state from the totals.
+     * Call this before changing the assessment, then add() it again afterwards.
+     */
+    public void remove(Assessment assessment) {
+        if (assessment.isCompleted()) {
+            completedWeight = completedWeight.subtract(assessment.getWeightPercentage());
+            weightedScore = weightedScore.subtract(assessment.getWeightedContribution());
+            completedCount--;
+        } else {
+            pendingWeight = pendingWeight.subtract(assessment.getWeightPercentage());
+        }
+    }
+
+    /**
+     * Check whether two sets of aggregates hold the same values (ignoring scale).
+     */
+    public boolean matches(ModuleAggregates other) {
+        return completedWeight.compareTo(other.completedWeight) == 0
+                && weightedScore.compareTo(other.weightedScore) == 0
+                && pendingWeight.compareTo(other.pendingWeight) == 0
+                && completedCount.equals(other.completedCount);
+    }
+
+    // Getters and setters
+    public BigDecimal getCompletedWeight() {
+        return completedWeight;
+    }
+
+    public void setCompletedWeight(BigDecimal completedWeight) {
+        this.completedWeight = completedWeight;
+    }
+
+    public BigDecimal getWeightedScore() {
+        return weightedScore;
+    }
+
+    public void setWeightedScore(BigDecimal weightedScore) {
+        this.weightedScore = weightedScore;
+    }
+
+    public BigDecimal getPendingWeight() {
+        return pendingWeight;
+    }
+
+    public void setPendingWeight(BigDecimal pendingWeight) {
+        this.pendingWeight = pendingWeight;
+    }
+
+    public Integer getCompletedCount() {
+        return completedCount;
+    }
+
+    public void setCompletedCount(Integer completedCount) {
+        this.completedCount = completedCount;
+    }
+}
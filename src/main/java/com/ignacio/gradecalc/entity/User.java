@@ -11,7 +11,8 @@ import java.util.List;
 public class User {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, unique = true, length = 50)
@@ -27,6 +28,10 @@ public class User {
     @Column(nullable = false)
     private LocalDateTime createdAt;
 
+    // Only ever changed by UserRepository.bumpDataRevision, so a stale copy here is never written back
+    @Column(nullable = false, insertable = false, updatable = false)
+    private Long dataRevision = 0L;
+
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Module> modules = new ArrayList<>();
 
@@ -89,6 +94,10 @@ public class User {
         this.createdAt = createdAt;
     }
 
+    public Long getDataRevision() {
+        return dataRevision;
+    }
+
     public List<Module> getModules() {
         return modules;
     }
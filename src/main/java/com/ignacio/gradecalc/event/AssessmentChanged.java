@@ -0,0 +1,7 @@
+package com.ignacio.gradecalc.event;
+
+/**
+ * An assessment was created, edited or deleted.
+ */
+public record AssessmentChanged(Long userId, Long moduleId, Long assessmentId, boolean deleted) implements GradeEvent {
+}
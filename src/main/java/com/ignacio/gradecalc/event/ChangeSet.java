@@ -0,0 +1,18 @@
+package com.ignacio.gradecalc.event;
+
+import java.util.Set;
+
+/**
+ * Events for one user folded together: which modules changed, or all of them.
+ *
+ * @param userId     The user whose data changed
+ * @param moduleIds  Modules changed by the events, including deleted ones
+ * @param allModules Whether every module is affected (the preset changed)
+ * @param events     How many events were folded into this set
+ */
+public record ChangeSet(Long userId, Set<Long> moduleIds, boolean allModules, int events) {
+
+    public boolean affects(Long moduleId) {
+        return allModules || moduleIds.contains(moduleId);
+    }
+}
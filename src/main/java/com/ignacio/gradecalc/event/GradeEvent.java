@@ -0,0 +1,11 @@
+package com.ignacio.gradecalc.event;
+
+/**
+ * Something changed that a user's grades are derived from. Published inside the changing
+ * transaction and handled by GradeEventPipeline once it commits.
+ */
+public sealed interface GradeEvent
+        permits MarkRecorded, MarksImported, AssessmentChanged, ModuleChanged, PresetChanged {
+
+    Long userId();
+}
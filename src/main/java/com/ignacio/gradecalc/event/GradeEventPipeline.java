@@ -0,0 +1,310 @@
+package com.ignacio.gradecalc.event;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Handles committed grade events in the background, one user at a time and in order.
+ *
+ * Each user with events waiting has one queue entry holding the events folded into a ChangeSet.
+ * Events that arrive while the user's last set is being handled are folded into the next one,
+ * so a burst becomes one or two refreshes rather than one per event. A failed set is folded
+ * back in and retried with exponential backoff, and dropped after the last attempt.
+ * At most max-pending-users users can have events waiting; events for anyone else are
+ * dropped and counted, leaving their summaries to be calculated on the next read.
+ */
+@Component
+public class GradeEventPipeline implements MeterBinder, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(GradeEventPipeline.class);
+
+    private final Consumer<ChangeSet> handler;
+    private final ScheduledExecutorService executor;
+    private final int maxPendingUsers;
+    private final int maxAttempts;
+    private final Duration retryBackoff;
+    private final LongSupplier nanoClock;
+
+    // Present while the user has a set queued, running or waiting to retry
+    private final Map<Long, UserQueue> queues = new ConcurrentHashMap<>();
+
+    private final LongAdder received = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder handledCount = new LongAdder();
+    private final LongAdder lagNanos = new LongAdder();
+
+    @Autowired
+    public GradeEventPipeline(SummaryRefresher summaryRefresher,
+                              @Value("${gradecalc.events.threads:2}") int threads,
+                              @Value("${gradecalc.events.max-pending-users:10000}") int maxPendingUsers,
+                              @Value("${gradecalc.events.max-attempts:3}") int maxAttempts,
+                              @Value("${gradecalc.events.retry-backoff:1s}") Duration retryBackoff) {
+        this(summaryRefresher::refresh, pool(threads), maxPendingUsers, maxAttempts, retryBackoff, System::nanoTime);
+    }
+
+    // Hands sets to the given handler on the given executor, for tests
+    GradeEventPipeline(Consumer<ChangeSet> handler, ScheduledExecutorService executor, int maxPendingUsers,
+                       int maxAttempts, Duration retryBackoff, LongSupplier nanoClock) {
+        this.handler = handler;
+        this.executor = executor;
+        this.maxPendingUsers = maxPendingUsers;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoff = retryBackoff;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Runs once the publishing transaction commits, or straight away outside a transaction.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEvent(GradeEvent event) {
+        submit(event);
+    }
+
+    /**
+     * Queue an event for its user. Returns at once.
+     */
+    public void submit(GradeEvent event) {
+        received.increment();
+        long now = nanoClock.getAsLong();
+
+        boolean[] start = {false};
+        boolean[] full = {false};
+        queues.compute(event.userId(), (userId, queue) -> {
+            if (queue == null) {
+                if (queues.size() >= maxPendingUsers) {
+                    full[0] = true;
+                    return null;
+                }
+                queue = new UserQueue();
+                start[0] = true;
+            }
+            queue.add(event, now);
+            return queue;
+        });
+
+        if (full[0]) {
+            dropped.increment();
+        } else if (start[0]) {
+            execute(event.userId());
+        }
+    }
+
+    public int getPendingUserCount() {
+        return queues.size();
+    }
+
+    public long getReceivedCount() {
+        return received.sum();
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    public long getRetryCount() {
+        return retries.sum();
+    }
+
+    public long getFailureCount() {
+        return failures.sum();
+    }
+
+    public long getHandledCount() {
+        return handledCount.sum();
+    }
+
+    /**
+     * Age of the oldest event still waiting, in seconds, or zero when nothing is waiting.
+     */
+    public double getOldestPendingSeconds() {
+        long now = nanoClock.getAsLong();
+        long oldest = 0;
+        for (UserQueue queue : queues.values()) {
+            long since = queue.oldestNanos;
+            if (since != 0) {
+                oldest = Math.max(oldest, now - since);
+            }
+        }
+        return oldest / 1e9;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("events.pending.users", this, GradeEventPipeline::getPendingUserCount)
+                .description("Users with grade events waiting to be handled")
+                .register(registry);
+        Gauge.builder("events.oldest.pending", this, GradeEventPipeline::getOldestPendingSeconds)
+                .description("Age of the oldest grade event still waiting")
+                .baseUnit("seconds")
+                .register(registry);
+        FunctionTimer.builder("events.lag", this,
+                        pipeline -> pipeline.handledCount.sum(), pipeline -> pipeline.lagNanos.sum(),
+                        TimeUnit.NANOSECONDS)
+                .description("Time from an event's commit until its change set was handled (oldest event in the set)")
+                .register(registry);
+        FunctionCounter.builder("events.received", received, LongAdder::sum)
+                .description("Grade events published after commit")
+                .register(registry);
+        FunctionCounter.builder("events.dropped", dropped, LongAdder::sum)
+                .description("Grade events dropped because too many users had events waiting")
+                .register(registry);
+        FunctionCounter.builder("events.retries", retries, LongAdder::sum)
+                .description("Change sets retried after a failure")
+                .register(registry);
+        FunctionCounter.builder("events.failures", failures, LongAdder::sum)
+                .description("Change sets given up on after the last attempt")
+                .register(registry);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private void run(Long userId) {
+        long[] oldest = {0};
+        int[] attempt = {0};
+        ChangeSet[] changes = {null};
+        queues.computeIfPresent(userId, (id, queue) -> {
+            oldest[0] = queue.oldestNanos;
+            attempt[0] = queue.attempts + 1;
+            changes[0] = queue.take(id);
+            return queue;
+        });
+        if (changes[0] == null) {
+            return;
+        }
+
+        try {
+            handler.accept(changes[0]);
+            handledCount.increment();
+            lagNanos.add(nanoClock.getAsLong() - oldest[0]);
+        } catch (RuntimeException e) {
+            if (attempt[0] < maxAttempts) {
+                queues.computeIfPresent(userId, (id, queue) -> queue.restore(changes[0], oldest[0]));
+                retries.increment();
+                schedule(userId, retryBackoff.multipliedBy(1L << (attempt[0] - 1)));
+                return;
+            }
+            failures.increment();
+            log.warn("Giving up on grade events for user {} after {} attempts", userId, attempt[0], e);
+        }
+
+        boolean[] more = {false};
+        queues.computeIfPresent(userId, (id, queue) -> {
+            queue.attempts = 0;
+            if (queue.isEmpty()) {
+                return null;
+            }
+            more[0] = true;
+            return queue;
+        });
+        // Back of the line, so one busy user can't hold a thread
+        if (more[0]) {
+            execute(userId);
+        }
+    }
+
+    private void execute(Long userId) {
+        try {
+            executor.execute(() -> run(userId));
+        } catch (RejectedExecutionException e) {
+            // Shutting down
+        }
+    }
+
+    private void schedule(Long userId, Duration delay) {
+        try {
+            executor.schedule(() -> run(userId), delay.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Shutting down
+        }
+    }
+
+    private static ScheduledExecutorService pool(int threads) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return new ScheduledThreadPoolExecutor(threads, runnable -> {
+            Thread thread = new Thread(runnable, "grade-events-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Events waiting for one user. Only read or changed inside queues.compute, which locks the entry.
+     */
+    private static final class UserQueue {
+        private Set<Long> moduleIds = new HashSet<>();
+        private boolean allModules;
+        private int events;
+        private int attempts;
+        // Read without the lock by getOldestPendingSeconds
+        private volatile long oldestNanos;
+
+        void add(GradeEvent event, long now) {
+            if (event instanceof MarkRecorded mark) {
+                moduleIds.add(mark.moduleId());
+            } else if (event instanceof MarksImported marks) {
+                moduleIds.addAll(marks.moduleIds());
+            } else if (event instanceof AssessmentChanged assessment) {
+                moduleIds.add(assessment.moduleId());
+            } else if (event instanceof ModuleChanged module) {
+                moduleIds.add(module.moduleId());
+            } else if (event instanceof PresetChanged) {
+                allModules = true;
+            }
+            if (events++ == 0) {
+                oldestNanos = now;
+            }
+        }
+
+        ChangeSet take(Long userId) {
+            ChangeSet changes = new ChangeSet(userId, Set.copyOf(moduleIds), allModules, events);
+            moduleIds = new HashSet<>();
+            allModules = false;
+            events = 0;
+            oldestNanos = 0;
+            return changes;
+        }
+
+        UserQueue restore(ChangeSet changes, long since) {
+            moduleIds.addAll(changes.moduleIds());
+            allModules |= changes.allModules();
+            events += changes.events();
+            oldestNanos = since;
+            attempts++;
+            return this;
+        }
+
+        boolean isEmpty() {
+            return events == 0;
+        }
+    }
+}
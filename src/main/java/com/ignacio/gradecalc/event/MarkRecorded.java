@@ -0,0 +1,7 @@
+package com.ignacio.gradecalc.event;
+
+/**
+ * A mark was recorded (or cleared) on an assessment.
+ */
+public record MarkRecorded(Long userId, Long moduleId, Long assessmentId) implements GradeEvent {
+}
@@ -0,0 +1,10 @@
+package com.ignacio.gradecalc.event;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * One chunk of a bulk mark import was written: one event for the whole chunk rather than one per mark.
+ */
+public record MarksImported(Long userId, Set<Long> moduleIds, List<Long> assessmentIds) implements GradeEvent {
+}
@@ -0,0 +1,7 @@
+package com.ignacio.gradecalc.event;
+
+/**
+ * A module was created, edited or deleted. A deleted module's assessments go with it.
+ */
+public record ModuleChanged(Long userId, Long moduleId, boolean deleted) implements GradeEvent {
+}
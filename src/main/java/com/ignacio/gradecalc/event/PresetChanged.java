@@ -0,0 +1,7 @@
+package com.ignacio.gradecalc.event;
+
+/**
+ * A user switched university preset, which changes the grade of every module.
+ */
+public record PresetChanged(Long userId) implements GradeEvent {
+}
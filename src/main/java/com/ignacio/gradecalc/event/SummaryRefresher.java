@@ -0,0 +1,70 @@
+package com.ignacio.gradecalc.event;
+
+import com.ignacio.gradecalc.entity.User;
+import com.ignacio.gradecalc.push.GradeDelta;
+import com.ignacio.gradecalc.push.GradeDeltaBroadcaster;
+import com.ignacio.gradecalc.repository.AssessmentRepository;
+import com.ignacio.gradecalc.repository.UserRepository;
+import com.ignacio.gradecalc.service.GradeService;
+import com.ignacio.gradecalc.service.ModuleGradeSummary;
+import com.ignacio.gradecalc.service.ModuleProgress;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * What the event pipeline does with a user's changes: recalculate every module's summary at its
+ * new revision, so the next page load is served from the grade result cache, and push the
+ * changed modules to the user's open dashboards.
+ */
+@Component
+public class SummaryRefresher {
+
+    private final UserRepository userRepository;
+    private final AssessmentRepository assessmentRepository;
+    private final GradeService gradeService;
+    private final GradeDeltaBroadcaster gradeDeltaBroadcaster;
+
+    public SummaryRefresher(UserRepository userRepository, AssessmentRepository assessmentRepository,
+                            GradeService gradeService, GradeDeltaBroadcaster gradeDeltaBroadcaster) {
+        this.userRepository = userRepository;
+        this.assessmentRepository = assessmentRepository;
+        this.gradeService = gradeService;
+        this.gradeDeltaBroadcaster = gradeDeltaBroadcaster;
+    }
+
+    public void refresh(ChangeSet changes) {
+        User user = userRepository.findById(changes.userId()).orElse(null);
+        if (user == null) {
+            return; // Deleted since
+        }
+
+        List<ModuleProgress> progress = assessmentRepository.findProgressByUserId(user.getId());
+        // Summarises every module, which is what fills the cache
+        BigDecimal overallGpa = gradeService.calculateOverallGpaFromProgress(progress, user);
+
+        if (!gradeDeltaBroadcaster.hasSubscribers(user.getId())) {
+            return;
+        }
+
+        List<GradeDelta> deltas = new ArrayList<>();
+        Set<Long> remaining = new HashSet<>(changes.moduleIds());
+        for (ModuleProgress module : progress) {
+            remaining.remove(module.moduleId());
+            if (changes.affects(module.moduleId())) {
+                ModuleGradeSummary summary = gradeService.summarise(module, user);
+                deltas.add(new GradeDelta(module.moduleId(), module.revision(), summary.bankedPercentage(),
+                        summary.gradeCode(), summary.gpaPoints(), overallGpa));
+            }
+        }
+        for (Long deletedModuleId : remaining) {
+            deltas.add(GradeDelta.deleted(deletedModuleId, overallGpa));
+        }
+
+        gradeDeltaBroadcaster.push(user.getId(), deltas);
+    }
+}
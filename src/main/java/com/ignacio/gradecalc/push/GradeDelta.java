@@ -0,0 +1,28 @@
+package com.ignacio.gradecalc.push;
+
+import java.math.BigDecimal;
+
+/**
+ * What changed on the dashboard after a mark, assessment or module was saved: one module's
+ * headline figures and the overall GPA they feed into. A delta with only the module id and
+ * the overall GPA means the module was deleted.
+ *
+ * @param moduleId         The module that changed
+ * @param revision         The module's revision these figures were calculated at (null if deleted)
+ * @param bankedPercentage Weighted score from completed assessments
+ * @param gradeCode        Projected grade, or "N/A" if nothing is completed
+ * @param gpaPoints        GPA points for the projected grade
+ * @param overallGpa       Credit-weighted GPA across all the user's modules
+ */
+public record GradeDelta(
+        Long moduleId,
+        Long revision,
+        BigDecimal bankedPercentage,
+        String gradeCode,
+        BigDecimal gpaPoints,
+        BigDecimal overallGpa) {
+
+    public static GradeDelta deleted(Long moduleId, BigDecimal overallGpa) {
+        return new GradeDelta(moduleId, null, null, null, null, overallGpa);
+    }
+}
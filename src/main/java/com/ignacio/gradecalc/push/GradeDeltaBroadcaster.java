@@ -0,0 +1,434 @@
+package com.ignacio.gradecalc.push;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Holds every open dashboard stream and writes grade deltas to them. The deltas come from
+ * SummaryRefresher, after the event pipeline has folded a user's committed changes together.
+ *
+ * Writes happen on a small pool, never on the caller's thread. Each connection keeps at most
+ * the latest delta per module while a write is in progress, so a slow client gets fewer, newer
+ * updates rather than a growing backlog, and is disconnected if even that passes the pending
+ * limit. The browser's EventSource reconnects on its own, and the dashboard reloads the full
+ * figures when it does.
+ *
+ * A write to a client that has stopped reading blocks until the socket gives up. One that takes
+ * longer than the write timeout is disconnected, and the pool gets a thread to stand in for the
+ * stuck one until that write returns, so a few stalled clients can't hold up everyone else.
+ */
+@Component
+public class GradeDeltaBroadcaster implements MeterBinder, DisposableBean {
+
+    private final ExecutorService executor;
+    private final int maxConnections;
+    private final int maxPerUser;
+    private final int maxPending;
+    private final Duration timeout;
+    private final long writeTimeoutNanos;
+
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+
+    private final AtomicInteger connections = new AtomicInteger();
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    @Autowired
+    public GradeDeltaBroadcaster(@Value("${gradecalc.push.threads:2}") int threads,
+                                 @Value("${gradecalc.push.max-connections:20000}") int maxConnections,
+                                 @Value("${gradecalc.push.max-per-user:8}") int maxPerUser,
+                                 @Value("${gradecalc.push.max-pending:32}") int maxPending,
+                                 @Value("${gradecalc.push.timeout:30m}") Duration timeout,
+                                 @Value("${gradecalc.push.write-timeout:5s}") Duration writeTimeout) {
+        this(pool(threads, maxConnections), maxConnections, maxPerUser, maxPending, timeout, writeTimeout);
+    }
+
+    // Writes on the given executor, for tests
+    GradeDeltaBroadcaster(ExecutorService executor, int maxConnections, int maxPerUser, int maxPending,
+                          Duration timeout, Duration writeTimeout) {
+        this.executor = executor;
+        this.maxConnections = maxConnections;
+        this.maxPerUser = maxPerUser;
+        this.maxPending = maxPending;
+        this.timeout = timeout;
+        this.writeTimeoutNanos = writeTimeout.toNanos();
+    }
+
+    /**
+     * Open a stream of the user's grade deltas.
+     *
+     * @return empty if the user or the server already has as many streams open as allowed
+     */
+    public Optional<SseEmitter> subscribe(Long userId) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscriber subscriber = register(userId, new EmitterSink(emitter));
+        if (subscriber == null) {
+            return Optional.empty();
+        }
+
+        // The container ended the response, so there is nothing left to complete
+        emitter.onCompletion(subscriber::release);
+        emitter.onTimeout(subscriber::release);
+        emitter.onError(e -> subscriber.release());
+        return Optional.of(emitter);
+    }
+
+    public boolean hasSubscribers(Long userId) {
+        return subscribers.containsKey(userId);
+    }
+
+    /**
+     * Queue deltas for every open stream of the user. Returns at once.
+     */
+    public void push(Long userId, List<GradeDelta> deltas) {
+        Set<Subscriber> userSubscribers = subscribers.get(userId);
+        if (userSubscribers == null || deltas.isEmpty()) {
+            return;
+        }
+        for (Subscriber subscriber : userSubscribers) {
+            subscriber.offer(deltas);
+        }
+    }
+
+    /**
+     * Send a comment on idle streams so proxies don't close them.
+     * Set gradecalc.push.heartbeat-cron=- to disable.
+     */
+    @Scheduled(cron = "${gradecalc.push.heartbeat-cron:*/30 * * * * *}")
+    public void sendHeartbeats() {
+        for (Set<Subscriber> userSubscribers : subscribers.values()) {
+            for (Subscriber subscriber : userSubscribers) {
+                subscriber.heartbeat();
+            }
+        }
+    }
+
+    /**
+     * Disconnect streams whose current write has taken longer than the write timeout.
+     */
+    @Scheduled(cron = "${gradecalc.push.stall-check-cron:* * * * * *}")
+    public void dropStalledWrites() {
+        long now = System.nanoTime();
+        for (Set<Subscriber> userSubscribers : subscribers.values()) {
+            for (Subscriber subscriber : userSubscribers) {
+                subscriber.dropIfStalled(now);
+            }
+        }
+    }
+
+    public int getConnectionCount() {
+        return connections.get();
+    }
+
+    public long getSentCount() {
+        return sent.sum();
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("push.connections", connections, AtomicInteger::get)
+                .description("Open grade delta streams")
+                .register(registry);
+        FunctionCounter.builder("push.deltas.sent", sent, LongAdder::sum)
+                .description("Grade deltas written to streams")
+                .register(registry);
+        FunctionCounter.builder("push.connections.dropped", dropped, LongAdder::sum)
+                .description("Streams closed because the client fell too far behind or stopped reading")
+                .register(registry);
+        FunctionCounter.builder("push.connections.rejected", rejected, LongAdder::sum)
+                .description("Streams refused because of the per-user or server connection limit")
+                .register(registry);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+        for (Set<Subscriber> userSubscribers : subscribers.values()) {
+            for (Subscriber subscriber : userSubscribers) {
+                subscriber.close();
+            }
+        }
+    }
+
+    // Package-private so tests can attach their own sink instead of an SseEmitter
+    Subscriber register(Long userId, Sink sink) {
+        if (connections.incrementAndGet() > maxConnections) {
+            connections.decrementAndGet();
+            rejected.increment();
+            return null;
+        }
+
+        Subscriber subscriber = new Subscriber(userId, sink);
+        boolean[] added = {false};
+        subscribers.compute(userId, (id, userSubscribers) -> {
+            if (userSubscribers == null) {
+                userSubscribers = new CopyOnWriteArraySet<>();
+            }
+            if (userSubscribers.size() < maxPerUser) {
+                added[0] = userSubscribers.add(subscriber);
+            }
+            return userSubscribers.isEmpty() ? null : userSubscribers;
+        });
+
+        if (!added[0]) {
+            connections.decrementAndGet();
+            rejected.increment();
+            return null;
+        }
+        return subscriber;
+    }
+
+    private void unregister(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.userId, (id, userSubscribers) -> {
+            userSubscribers.remove(subscriber);
+            return userSubscribers.isEmpty() ? null : userSubscribers;
+        });
+        connections.decrementAndGet();
+    }
+
+    // Lend the pool a thread while a write is stuck, and take it back once the write returns
+    private void lendThread(int change) {
+        if (executor instanceof ThreadPoolExecutor pool) {
+            synchronized (pool) {
+                pool.setCorePoolSize(pool.getCorePoolSize() + change);
+            }
+        }
+    }
+
+    // At most one write task is queued, and one write stuck, per connection
+    static ThreadPoolExecutor pool(int threads, int maxConnections) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return new ThreadPoolExecutor(threads, threads + maxConnections, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(maxConnections),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "grade-push-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Where a connection's events are written.
+     */
+    interface Sink {
+        void send(GradeDelta delta) throws IOException;
+
+        void heartbeat() throws IOException;
+
+        void close();
+    }
+
+    private interface SinkWrite {
+        void run() throws IOException;
+    }
+
+    private record EmitterSink(SseEmitter emitter) implements Sink {
+
+        @Override
+        public void send(GradeDelta delta) throws IOException {
+            emitter.send(SseEmitter.event().name("grade").data(delta, MediaType.APPLICATION_JSON));
+        }
+
+        @Override
+        public void heartbeat() throws IOException {
+            emitter.send(SseEmitter.event().comment("keep-alive"));
+        }
+
+        @Override
+        public void close() {
+            emitter.complete();
+        }
+    }
+
+    /**
+     * One open stream. Holds nothing while idle; while a write is in progress,
+     * later deltas for the same module replace earlier ones.
+     */
+    final class Subscriber {
+        private static final long IDLE = Long.MIN_VALUE;
+        private static final long STALLED = Long.MAX_VALUE;
+
+        private final Long userId;
+        private final Sink sink;
+        private final AtomicBoolean closed = new AtomicBoolean();
+        // When the write in progress started, IDLE between writes, STALLED once it overran the timeout
+        private final AtomicLong writeStartedAt = new AtomicLong(IDLE);
+
+        // Guarded by this
+        private Map<Long, GradeDelta> pending;
+        private boolean heartbeatDue;
+        private boolean writing;
+
+        private Subscriber(Long userId, Sink sink) {
+            this.userId = userId;
+            this.sink = sink;
+        }
+
+        void offer(List<GradeDelta> deltas) {
+            boolean overflowed;
+            synchronized (this) {
+                if (pending == null) {
+                    pending = new LinkedHashMap<>();
+                }
+                for (GradeDelta delta : deltas) {
+                    // Refreshes for a user run in order, so the last delta pushed is the newest
+                    pending.put(delta.moduleId(), delta);
+                }
+                overflowed = pending.size() > maxPending;
+                if (!overflowed && !startWriting()) {
+                    return;
+                }
+            }
+
+            if (overflowed) {
+                dropped.increment();
+                close();
+            } else {
+                schedule();
+            }
+        }
+
+        void heartbeat() {
+            synchronized (this) {
+                heartbeatDue = true;
+                if (!startWriting()) {
+                    return;
+                }
+            }
+            schedule();
+        }
+
+        void dropIfStalled(long now) {
+            long startedAt = writeStartedAt.get();
+            if (startedAt != IDLE && startedAt != STALLED && now - startedAt > writeTimeoutNanos
+                    && writeStartedAt.compareAndSet(startedAt, STALLED)) {
+                dropped.increment();
+                lendThread(1);
+                close();
+            }
+        }
+
+        /**
+         * End the stream from this side.
+         */
+        void close() {
+            if (closed.compareAndSet(false, true)) {
+                unregister(this);
+                sink.close();
+            }
+        }
+
+        /**
+         * Forget a stream the container has already ended.
+         */
+        void release() {
+            if (closed.compareAndSet(false, true)) {
+                unregister(this);
+            }
+        }
+
+        private boolean startWriting() {
+            if (writing || closed.get()) {
+                return false;
+            }
+            writing = true;
+            return true;
+        }
+
+        private void schedule() {
+            try {
+                executor.execute(this::write);
+            } catch (RejectedExecutionException e) {
+                // Shutting down, or more writes queued than connections while closed ones drain
+                if (!executor.isShutdown()) {
+                    dropped.increment();
+                }
+                close();
+            }
+        }
+
+        private void write() {
+            while (!closed.get()) {
+                Collection<GradeDelta> batch;
+                boolean ping;
+                synchronized (this) {
+                    if ((pending == null || pending.isEmpty()) && !heartbeatDue) {
+                        pending = null;
+                        writing = false;
+                        return;
+                    }
+                    batch = pending == null ? List.of() : pending.values();
+                    pending = null;
+                    // Any delta written already proves the connection is alive
+                    ping = heartbeatDue && batch.isEmpty();
+                    heartbeatDue = false;
+                }
+
+                try {
+                    for (GradeDelta delta : batch) {
+                        if (closed.get()) {
+                            return;
+                        }
+                        timed(() -> sink.send(delta));
+                        sent.increment();
+                    }
+                    if (ping) {
+                        timed(sink::heartbeat);
+                    }
+                } catch (IOException | RuntimeException e) {
+                    // Client went away, or the container already completed the response
+                    close();
+                }
+            }
+        }
+
+        private void timed(SinkWrite write) throws IOException {
+            writeStartedAt.set(System.nanoTime());
+            try {
+                write.run();
+            } finally {
+                if (writeStartedAt.getAndSet(IDLE) == STALLED) {
+                    lendThread(-1);
+                }
+            }
+        }
+    }
+}
@@ -1,7 +1,11 @@
 package com.ignacio.gradecalc.repository;
 
 import com.ignacio.gradecalc.entity.Assessment;
+import com.ignacio.gradecalc.service.ModuleProgress;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -14,4 +18,44 @@ public interface AssessmentRepository extends JpaRepository<Assessment, Long> {
     List<Assessment> findByModuleIdAndObtainedMarkIsNull(Long moduleId);
 
     List<Assessment> findByModuleIdAndObtainedMarkIsNotNull(Long moduleId);
-}
\ No newline at end of file
+
+    /**
+     * Delete a module's assessments in one statement, without loading them.
+     *
+     * @return The number of assessments deleted
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Assessment a where a.module.id = :moduleId")
+    int bulkDeleteByModuleId(@Param("moduleId") Long moduleId);
+
+    /**
+     * Delete the assessments of all of a user's modules in one statement, without loading them.
+     *
+     * @return The number of assessments deleted
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Assessment a where a.module.id in (select m.id from Module m where m.user.id = :userId)")
+    int bulkDeleteByUserId(@Param("userId") Long userId);
+
+    /**
+     * Per-module totals for all of a user's modules, summed in one query without loading any assessments.
+     * Modules without assessments are included with zero totals.
+     * Each contribution is rounded the same way as Assessment.getWeightedContribution.
+     */
+    @Query("""
+            select new com.ignacio.gradecalc.service.ModuleProgress(
+                m.id, m.credits, m.targetGrade, m.revision,
+                coalesce(sum(case when a.obtainedMark is not null then a.weightPercentage else 0.00bd end), 0.00bd),
+                coalesce(sum(case when a.obtainedMark is not null
+                    then round(round(a.obtainedMark / a.totalMarks, 4) * a.weightPercentage, 4)
+                    else 0.0000bd end), 0.0000bd),
+                coalesce(sum(case when a.obtainedMark is null then a.weightPercentage else 0.00bd end), 0.00bd),
+                count(a.obtainedMark),
+                count(a.id) - count(a.obtainedMark))
+            from Module m left join m.assessments a
+            where m.user.id = :userId
+            group by m.id, m.credits, m.targetGrade, m.revision
+            order by m.id
+            """)
+    List<ModuleProgress> findProgressByUserId(@Param("userId") Long userId);
+}
@@ -2,9 +2,14 @@ package com.ignacio.gradecalc.repository;
 
 import com.ignacio.gradecalc.entity.Module;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ModuleRepository extends JpaRepository<Module, Long> {
@@ -12,4 +17,63 @@ public interface ModuleRepository extends JpaRepository<Module, Long> {
     List<Module> findByUserId(Long userId);
 
     List<Module> findByUserIdAndSemester(Long userId, String semester);
+
+    /**
+     * A user's modules with their assessments already loaded, in one query.
+     */
+    @Query("select distinct m from Module m left join fetch m.assessments where m.user.id = :userId order by m.id")
+    List<Module> findWithAssessmentsByUserId(@Param("userId") Long userId);
+
+    /**
+     * A user's modules for one semester with their assessments already loaded, in one query.
+     */
+    @Query("select distinct m from Module m left join fetch m.assessments "
+            + "where m.user.id = :userId and m.semester = :semester order by m.id")
+    List<Module> findWithAssessmentsByUserIdAndSemester(@Param("userId") Long userId,
+                                                        @Param("semester") String semester);
+
+    /**
+     * Delete one module row. Its assessments must already be gone.
+     *
+     * @return The number of modules deleted (0 or 1)
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Module m where m.id = :moduleId")
+    int bulkDeleteById(@Param("moduleId") Long moduleId);
+
+    /**
+     * Delete all of a user's modules in one statement. Their assessments must already be gone.
+     *
+     * @return The number of modules deleted
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Module m where m.user.id = :userId")
+    int bulkDeleteByUserId(@Param("userId") Long userId);
+
+    /**
+     * Add a change to a module's running totals in one statement, so concurrent changes to its
+     * assessments add up instead of overwriting each other. Bumps the revision as an entity update would.
+     * Pending changes are flushed first; the loaded module is left stale, so refresh it afterwards.
+     *
+     * @return The number of modules updated (0 or 1)
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("update Module m set "
+            + "m.aggregates.completedWeight = m.aggregates.completedWeight + :completedWeight, "
+            + "m.aggregates.weightedScore = m.aggregates.weightedScore + :weightedScore, "
+            + "m.aggregates.pendingWeight = m.aggregates.pendingWeight + :pendingWeight, "
+            + "m.aggregates.completedCount = m.aggregates.completedCount + :completedCount, "
+            + "m.revision = m.revision + 1 "
+            + "where m.id = :moduleId")
+    int addToAggregates(@Param("moduleId") Long moduleId,
+                        @Param("completedWeight") BigDecimal completedWeight,
+                        @Param("weightedScore") BigDecimal weightedScore,
+                        @Param("pendingWeight") BigDecimal pendingWeight,
+                        @Param("completedCount") int completedCount);
+
+    @Query("select m.user.id from Module m where m.id = :moduleId")
+    Optional<Long> findOwnerIdById(@Param("moduleId") Long moduleId);
+
+    @Query("select m.id from Module m order by m.id")
+    List<Long> findAllIds();
 }
\ No newline at end of file
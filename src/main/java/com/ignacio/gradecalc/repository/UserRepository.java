@@ -1,7 +1,11 @@
 package com.ignacio.gradecalc.repository;
 
 import com.ignacio.gradecalc.entity.User;
+import com.ignacio.gradecalc.service.UserRevision;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -9,4 +13,29 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
 
     boolean existsByUsername(String username);
-}
\ No newline at end of file
+
+    /**
+     * The user's id and data revision, for ETags. One lookup on the unique username index.
+     */
+    @Query("select new com.ignacio.gradecalc.service.UserRevision(u.id, u.dataRevision) "
+            + "from User u where u.username = :username")
+    Optional<UserRevision> findRevisionByUsername(@Param("username") String username);
+
+    /**
+     * Mark a user's data as changed. Call in the same transaction as the change.
+     *
+     * @return The number of users updated (0 or 1)
+     */
+    @Modifying
+    @Query("update User u set u.dataRevision = u.dataRevision + 1 where u.id = :userId")
+    int bumpDataRevision(@Param("userId") Long userId);
+
+    /**
+     * Delete one user row. Their modules and assessments must already be gone.
+     *
+     * @return The number of users deleted (0 or 1)
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from User u where u.id = :userId")
+    int bulkDeleteById(@Param("userId") Long userId);
+}
@@ -0,0 +1,13 @@
+package com.ignacio.gradecalc.security;
+
+import java.time.Instant;
+
+/**
+ * The verified contents of a signed login token.
+ *
+ * @param username         The user the token was issued to
+ * @param expiresAt        When the token stops being accepted
+ * @param keyId            The signing key, so tokens from retired keys can be spotted
+ */
+public record AuthToken(String username, Instant expiresAt, String keyId) {
+}
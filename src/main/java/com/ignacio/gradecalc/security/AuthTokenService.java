@@ -0,0 +1,175 @@
+package com.ignacio.gradecalc.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Issues and verifies HMAC-SHA256 signed login tokens, so requests can be authenticated
+ * without a server-side session or a database lookup.
+ *
+ * A token is "keyId.username.expiry.signature", with the username and signature base64url encoded.
+ * Keys are configured as "id=base64secret" pairs: the first one signs new tokens and the rest are only
+ * accepted for verification. To rotate, put a new key first and drop the old one once every token it
+ * signed has expired (one TTL later).
+ * Only created when gradecalc.auth.mode=token.
+ */
+@Component
+@ConditionalOnProperty(name = "gradecalc.auth.mode", havingValue = "token")
+public class AuthTokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(AuthTokenService.class);
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int MIN_KEY_BYTES = 32;
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final Map<String, SecretKeySpec> keys;
+    private final String signingKeyId;
+    private final Duration ttl;
+    private final Clock clock;
+
+    @Autowired
+    public AuthTokenService(@Value("${gradecalc.auth.token.keys:}") String keys,
+                            @Value("${gradecalc.auth.token.ttl:8h}") Duration ttl) {
+        this(keys, ttl, Clock.systemUTC());
+    }
+
+    AuthTokenService(String keys, Duration ttl, Clock clock) {
+        this.keys = parseKeys(keys);
+        this.signingKeyId = this.keys.keySet().iterator().next();
+        this.ttl = ttl;
+        this.clock = clock;
+    }
+
+    /**
+     * Sign a new token for a user, valid for the configured TTL.
+     */
+    public String issue(String username) {
+        long expiresAt = clock.instant().plus(ttl).getEpochSecond();
+        String payload = signingKeyId
+                + '.' + ENCODER.encodeToString(username.getBytes(StandardCharsets.UTF_8))
+                + '.' + expiresAt;
+
+        return payload + '.' + ENCODER.encodeToString(sign(keys.get(signingKeyId), payload));
+    }
+
+    /**
+     * Check a token's signature and expiry.
+     *
+     * @return The token's contents, or empty if it is malformed, forged, signed by an unknown key or expired
+     */
+    public Optional<AuthToken> verify(String token) {
+        if (token == null) {
+            return Optional.empty();
+        }
+
+        String[] parts = token.split("\\.", -1);
+        if (parts.length != 4) {
+            return Optional.empty();
+        }
+
+        SecretKeySpec key = keys.get(parts[0]);
+        if (key == null) {
+            return Optional.empty();
+        }
+
+        try {
+            String payload = token.substring(0, token.lastIndexOf('.'));
+            if (!MessageDigest.isEqual(sign(key, payload), DECODER.decode(parts[3]))) {
+                return Optional.empty();
+            }
+
+            Instant expiresAt = Instant.ofEpochSecond(Long.parseLong(parts[2]));
+            if (!clock.instant().isBefore(expiresAt)) {
+                return Optional.empty();
+            }
+
+            return Optional.of(new AuthToken(
+                    new String(DECODER.decode(parts[1]), StandardCharsets.UTF_8),
+                    expiresAt,
+                    parts[0]));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty(); // Bad base64 or number
+        }
+    }
+
+    /**
+     * Whether a token is old enough to be replaced with a fresh one (less than half its life left).
+     */
+    public boolean needsRefresh(AuthToken token) {
+        return Duration.between(clock.instant(), token.expiresAt()).compareTo(ttl.dividedBy(2)) < 0
+                || !token.keyId().equals(signingKeyId);
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    private static byte[] sign(SecretKeySpec key, String payload) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(payload.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot sign token", e);
+        }
+    }
+
+    /**
+     * Parse "id=base64secret,id2=base64secret". With no keys configured, a random one is generated,
+     * so tokens stop working when the application restarts.
+     */
+    private static Map<String, SecretKeySpec> parseKeys(String value) {
+        Map<String, SecretKeySpec> parsed = new LinkedHashMap<>();
+
+        for (String entry : value.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+
+            int separator = entry.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Token key must be id=base64secret: " + entry.trim());
+            }
+
+            String id = entry.substring(0, separator).trim();
+            if (!id.matches("[A-Za-z0-9_-]+")) {
+                throw new IllegalArgumentException("Token key id may only use letters, digits, _ and -: " + id);
+            }
+
+            byte[] secret = Base64.getDecoder().decode(entry.substring(separator + 1).trim());
+            if (secret.length < MIN_KEY_BYTES) {
+                throw new IllegalArgumentException("Token key " + id + " must be at least " + MIN_KEY_BYTES + " bytes");
+            }
+            parsed.put(id, new SecretKeySpec(secret, ALGORITHM));
+        }
+
+        if (parsed.isEmpty()) {
+            log.warn("No gradecalc.auth.token.keys configured, using a random key; tokens will not survive a restart");
+            byte[] secret = new byte[MIN_KEY_BYTES];
+            new SecureRandom().nextBytes(secret);
+            parsed.put("generated", new SecretKeySpec(secret, ALGORITHM));
+        }
+
+        return parsed;
+    }
+}
@@ -0,0 +1,12 @@
+package com.ignacio.gradecalc.security;
+
+/**
+ * Thrown when the password hashing queue is full, so the request can be turned away
+ * with a 503 instead of waiting behind every other login.
+ */
+public class HashingOverloadedException extends RuntimeException {
+
+    public HashingOverloadedException() {
+        super("Too many password checks in progress, try again shortly");
+    }
+}
@@ -0,0 +1,90 @@
+package com.ignacio.gradecalc.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Admission control for the two requests that hash a password, POST /login and POST /register.
+ *
+ * Attempts over the per-user or per-address limit get 429, and attempts arriving while the hashing
+ * queue is full get 503, both with Retry-After and before any hashing starts.
+ *
+ * Not a bean, so it only runs inside the security filter chain.
+ */
+public class LoginAdmissionFilter extends OncePerRequestFilter {
+
+    private final LoginThrottle loginThrottle;
+    private final PasswordHashingExecutor hashingExecutor;
+    private final long overloadRetryAfterSeconds;
+
+    public LoginAdmissionFilter(LoginThrottle loginThrottle, PasswordHashingExecutor hashingExecutor,
+                                long overloadRetryAfterSeconds) {
+        this.loginThrottle = loginThrottle;
+        this.hashingExecutor = hashingExecutor;
+        this.overloadRetryAfterSeconds = overloadRetryAfterSeconds;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getServletPath();
+        return !"POST".equals(request.getMethod()) || !("/login".equals(path) || "/register".equals(path));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long wait = loginThrottle.tryAcquire(request.getParameter("username"), request.getRemoteAddr());
+        if (wait > 0) {
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, wait);
+            return;
+        }
+
+        if (hashingExecutor.isSaturated()) {
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, overloadRetryAfterSeconds);
+            return;
+        }
+
+        // The queue can still fill between the check above and the hash itself
+        try {
+            chain.doFilter(request, response);
+        } catch (HashingOverloadedException e) {
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, overloadRetryAfterSeconds);
+        } catch (ServletException e) {
+            if (!causedByOverload(e)) {
+                throw e;
+            }
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, overloadRetryAfterSeconds);
+        }
+    }
+
+    /** Controllers that hash (registration) reach here with the overload wrapped by the dispatcher. */
+    private static boolean causedByOverload(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof HashingOverloadedException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void reject(HttpServletResponse response, HttpStatus status, long retryAfterSeconds)
+            throws IOException {
+        if (response.isCommitted()) {
+            return;
+        }
+        response.resetBuffer();
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType("text/plain;charset=UTF-8");
+        response.getWriter().write(status == HttpStatus.TOO_MANY_REQUESTS
+                ? "Too many attempts, try again in " + retryAfterSeconds + " seconds"
+                : "The server is busy, try again in " + retryAfterSeconds + " seconds");
+    }
+}
@@ -0,0 +1,132 @@
+package com.ignacio.gradecalc.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Token-bucket limits on login and registration attempts, per username and per client address.
+ *
+ * Every username and address has its own bucket, so failing logins under made-up names never
+ * drains a real user's allowance. Buckets are kept in a bounded cache and dropped once they have
+ * been idle long enough to refill completely, when a new bucket would be no different.
+ * If more than max-keys are active at once the least recent are dropped early, which gives them
+ * a fresh burst; the per-address limit still applies to whoever is trying that many names.
+ */
+@Component
+public class LoginThrottle implements MeterBinder {
+
+    private final Limit usernames;
+    private final Limit addresses;
+    private final LongSupplier clock;
+    private final LongAdder throttled = new LongAdder();
+
+    @Autowired
+    public LoginThrottle(@Value("${gradecalc.security.throttle.username-burst:10}") int usernameBurst,
+                         @Value("${gradecalc.security.throttle.username-per-minute:10}") int usernamePerMinute,
+                         @Value("${gradecalc.security.throttle.address-burst:50}") int addressBurst,
+                         @Value("${gradecalc.security.throttle.address-per-minute:120}") int addressPerMinute,
+                         @Value("${gradecalc.security.throttle.max-keys:100000}") long maxKeys) {
+        this(usernameBurst, usernamePerMinute, addressBurst, addressPerMinute, maxKeys, System::nanoTime);
+    }
+
+    LoginThrottle(int usernameBurst, int usernamePerMinute, int addressBurst, int addressPerMinute,
+                  long maxKeys, LongSupplier clock) {
+        this.clock = clock;
+        this.usernames = new Limit(usernameBurst, usernamePerMinute, maxKeys, clock);
+        this.addresses = new Limit(addressBurst, addressPerMinute, maxKeys, clock);
+    }
+
+    /**
+     * Take one attempt from the address's bucket and then the username's.
+     *
+     * @param username The submitted username (may be null)
+     * @param address  The client address (may be null)
+     * @return 0 if the attempt may go ahead, otherwise the seconds to wait before retrying
+     */
+    public long tryAcquire(String username, String address) {
+        long now = clock.getAsLong();
+
+        long waitNanos = address == null ? 0 : addresses.tryTake(address, now);
+        if (waitNanos == 0 && username != null && !username.isBlank()) {
+            waitNanos = usernames.tryTake(username.trim().toLowerCase(Locale.ROOT), now);
+        }
+
+        if (waitNanos == 0) {
+            return 0;
+        }
+        throttled.increment();
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+    }
+
+    public long getThrottledCount() {
+        return throttled.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("login.throttled", throttled, LongAdder::sum)
+                .description("Login and registration attempts refused by the per-user or per-address limit")
+                .register(registry);
+    }
+
+    /**
+     * One kind of limit: a bucket per key, all sharing a capacity and refill rate.
+     */
+    private static final class Limit {
+        private final Cache<String, Bucket> buckets;
+        private final double capacity;
+        private final double tokensPerNano;
+
+        Limit(int burst, int perMinute, long maxKeys, LongSupplier clock) {
+            this.capacity = burst;
+            this.tokensPerNano = perMinute / (double) TimeUnit.MINUTES.toNanos(1);
+            // Idle this long, a bucket is full again and can be forgotten
+            long refillNanos = (long) Math.ceil(capacity / tokensPerNano);
+            this.buckets = Caffeine.newBuilder()
+                    .maximumSize(maxKeys)
+                    .expireAfterAccess(Duration.ofNanos(refillNanos))
+                    .ticker(clock::getAsLong)
+                    .build();
+        }
+
+        long tryTake(String key, long now) {
+            return buckets.get(key, k -> new Bucket(capacity, now)).tryTake(now, capacity, tokensPerNano);
+        }
+    }
+
+    private static final class Bucket {
+        private double tokens;
+        private long refilledAt;
+
+        Bucket(double tokens, long now) {
+            this.tokens = tokens;
+            this.refilledAt = now;
+        }
+
+        /**
+         * @return 0 if a token was taken, otherwise the nanoseconds until one will be available
+         */
+        synchronized long tryTake(long now, double capacity, double tokensPerNano) {
+            tokens = Math.min(capacity, tokens + (now - refilledAt) * tokensPerNano);
+            refilledAt = now;
+
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - tokens) / tokensPerNano);
+        }
+    }
+}
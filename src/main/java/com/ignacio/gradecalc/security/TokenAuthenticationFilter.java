@@ -0,0 +1,55 @@
+package com.ignacio.gradecalc.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Authenticates a request from its token cookie: the signature and expiry are checked,
+ * nothing is looked up. Tokens past half their life are replaced with fresh ones,
+ * which also moves them onto the current signing key.
+ *
+ * Not a bean, so it only runs inside the security filter chain.
+ */
+public class TokenAuthenticationFilter extends OncePerRequestFilter {
+
+    private final AuthTokenService authTokenService;
+
+    public TokenAuthenticationFilter(AuthTokenService authTokenService) {
+        this.authTokenService = authTokenService;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String value = TokenCookies.read(request);
+
+        if (value != null) {
+            authTokenService.verify(value).ifPresentOrElse(token -> {
+                UserDetails user = User.withUsername(token.username()).password("").roles("USER").build();
+
+                SecurityContext context = SecurityContextHolder.createEmptyContext();
+                context.setAuthentication(UsernamePasswordAuthenticationToken.authenticated(
+                        user, null, user.getAuthorities()));
+                SecurityContextHolder.setContext(context);
+
+                if (authTokenService.needsRefresh(token)) {
+                    TokenCookies.write(request, response,
+                            authTokenService.issue(token.username()),
+                            authTokenService.getTtl());
+                }
+            }, () -> TokenCookies.clear(request, response)); // Expired or forged, so stop sending it
+        }
+
+        chain.doFilter(request, response);
+    }
+}
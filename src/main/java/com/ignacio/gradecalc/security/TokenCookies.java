@@ -0,0 +1,54 @@
+package com.ignacio.gradecalc.security;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+
+import java.time.Duration;
+
+/**
+ * Reads and writes the login token cookie.
+ * HttpOnly so scripts can't read it, and SameSite=Lax on top of the CSRF token.
+ */
+public final class TokenCookies {
+
+    public static final String NAME = "GRADECALC_TOKEN";
+
+    private TokenCookies() {
+    }
+
+    public static String read(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return null;
+        }
+        for (Cookie cookie : cookies) {
+            if (NAME.equals(cookie.getName())) {
+                return cookie.getValue();
+            }
+        }
+        return null;
+    }
+
+    public static void write(HttpServletRequest request, HttpServletResponse response, String token, Duration maxAge) {
+        response.addHeader(HttpHeaders.SET_COOKIE, ResponseCookie.from(NAME, token)
+                .httpOnly(true)
+                .secure(request.isSecure())
+                .sameSite("Lax")
+                .path(contextPath(request))
+                .maxAge(maxAge)
+                .build()
+                .toString());
+    }
+
+    public static void clear(HttpServletRequest request, HttpServletResponse response) {
+        write(request, response, "", Duration.ZERO);
+    }
+
+    private static String contextPath(HttpServletRequest request) {
+        String path = request.getContextPath();
+        return path.isEmpty() ? "/" : path;
+    }
+}
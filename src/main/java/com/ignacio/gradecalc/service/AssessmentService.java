@@ -2,9 +2,15 @@ package com.ignacio.gradecalc.service;
 
 import com.ignacio.gradecalc.entity.Assessment;
 import com.ignacio.gradecalc.entity.Module;
+import com.ignacio.gradecalc.entity.ModuleAggregates;
 import com.ignacio.gradecalc.enums.AssessmentType;
+import com.ignacio.gradecalc.event.AssessmentChanged;
+import com.ignacio.gradecalc.event.MarkRecorded;
 import com.ignacio.gradecalc.repository.AssessmentRepository;
 import com.ignacio.gradecalc.repository.ModuleRepository;
+import com.ignacio.gradecalc.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -13,16 +19,30 @@ import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
+/**
+ * Assessment writes. Each one bumps the user's data revision first, so writes for one user
+ * (including a bulk mark import) take their row locks in the same order: user, then assessments,
+ * then module. The module's running totals move by a delta applied in the database
+ * (see ModuleRepository.addToAggregates), never by writing back totals read earlier.
+ */
 @Service
 @Transactional
 public class AssessmentService {
 
     private final AssessmentRepository assessmentRepository;
     private final ModuleRepository moduleRepository;
+    private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManager entityManager;
 
-    public AssessmentService(AssessmentRepository assessmentRepository, ModuleRepository moduleRepository) {
+    public AssessmentService(AssessmentRepository assessmentRepository, ModuleRepository moduleRepository,
+                             UserRepository userRepository, ApplicationEventPublisher eventPublisher,
+                             EntityManager entityManager) {
         this.assessmentRepository = assessmentRepository;
         this.moduleRepository = moduleRepository;
+        this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
+        this.entityManager = entityManager;
     }
 
     public Assessment createAssessment(Long moduleId, String name, AssessmentType type,
@@ -31,10 +51,16 @@ public class AssessmentService {
         Module module = moduleRepository.findById(moduleId)
                 .orElseThrow(() -> new IllegalArgumentException("Module not found: " + moduleId));
 
+        userRepository.bumpDataRevision(module.getUser().getId());
         Assessment assessment = new Assessment(module, name, type, weightPercentage, totalMarks);
         assessment.setDueDate(dueDate);
+        ModuleAggregates delta = new ModuleAggregates();
+        delta.add(assessment);
 
-        return assessmentRepository.save(assessment);
+        Assessment saved = assessmentRepository.save(assessment);
+        applyDelta(module, delta);
+        eventPublisher.publishEvent(new AssessmentChanged(module.getUser().getId(), moduleId, saved.getId(), false));
+        return saved;
     }
 
     public Optional<Assessment> findById(Long assessmentId) {
@@ -53,12 +79,29 @@ public class AssessmentService {
         return assessmentRepository.findByModuleIdAndObtainedMarkIsNotNull(moduleId);
     }
 
+    /**
+     * Assessment totals for each of a user's modules, summed by the database.
+     */
+    @Transactional(readOnly = true)
+    public List<ModuleProgress> findProgressByUserId(Long userId) {
+        return assessmentRepository.findProgressByUserId(userId);
+    }
+
     public Assessment recordMark(Long assessmentId, BigDecimal obtainedMark) {
         Assessment assessment = assessmentRepository.findById(assessmentId)
                 .orElseThrow(() -> new IllegalArgumentException("Assessment not found: " + assessmentId));
 
+        Module module = assessment.getModule();
+        userRepository.bumpDataRevision(module.getUser().getId());
+        ModuleAggregates delta = new ModuleAggregates();
+        delta.remove(assessment);
         assessment.setObtainedMark(obtainedMark);
-        return assessmentRepository.save(assessment);
+        delta.add(assessment);
+
+        Assessment saved = assessmentRepository.save(assessment);
+        applyDelta(module, delta);
+        eventPublisher.publishEvent(new MarkRecorded(module.getUser().getId(), module.getId(), assessmentId));
+        return saved;
     }
 
     public Assessment updateAssessment(Long assessmentId, String name, AssessmentType type,
@@ -67,16 +110,47 @@ public class AssessmentService {
         Assessment assessment = assessmentRepository.findById(assessmentId)
                 .orElseThrow(() -> new IllegalArgumentException("Assessment not found: " + assessmentId));
 
+        Module module = assessment.getModule();
+        userRepository.bumpDataRevision(module.getUser().getId());
+        ModuleAggregates delta = new ModuleAggregates();
+        delta.remove(assessment);
+
         assessment.setName(name);
         assessment.setType(type);
         assessment.setWeightPercentage(weightPercentage);
         assessment.setTotalMarks(totalMarks);
         assessment.setDueDate(dueDate);
 
-        return assessmentRepository.save(assessment);
+        delta.add(assessment);
+
+        Assessment saved = assessmentRepository.save(assessment);
+        applyDelta(module, delta);
+        eventPublisher.publishEvent(new AssessmentChanged(module.getUser().getId(), module.getId(), assessmentId, false));
+        return saved;
     }
 
     public void deleteAssessment(Long assessmentId) {
-        assessmentRepository.deleteById(assessmentId);
+        assessmentRepository.findById(assessmentId).ifPresent(assessment -> {
+            Module module = assessment.getModule();
+            userRepository.bumpDataRevision(module.getUser().getId());
+            ModuleAggregates delta = new ModuleAggregates();
+            delta.remove(assessment);
+
+            module.getAssessments().remove(assessment);
+            assessmentRepository.delete(assessment);
+            applyDelta(module, delta);
+            eventPublisher.publishEvent(new AssessmentChanged(module.getUser().getId(), module.getId(), assessmentId,
+                    true));
+        });
+    }
+
+    /**
+     * Add the change to the module's totals in the database, then reload the module so nothing later
+     * in this request sees its old totals or revision.
+     */
+    private void applyDelta(Module module, ModuleAggregates delta) {
+        moduleRepository.addToAggregates(module.getId(), delta.getCompletedWeight(), delta.getWeightedScore(),
+                delta.getPendingWeight(), delta.getCompletedCount());
+        entityManager.refresh(module);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,27 @@
+package com.ignacio.gradecalc.service;
+
+import com.ignacio.gradecalc.entity.Assessment;
+import com.ignacio.gradecalc.enums.AssessmentType;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * An assessment as the JSON API returns it. The obtained mark is null until recorded.
+ */
+public record AssessmentView(
+        Long id,
+        Long moduleId,
+        String name,
+        AssessmentType type,
+        BigDecimal weightPercentage,
+        BigDecimal totalMarks,
+        BigDecimal obtainedMark,
+        LocalDate dueDate) {
+
+    public static AssessmentView of(Assessment assessment) {
+        return new AssessmentView(assessment.getId(), assessment.getModule().getId(), assessment.getName(),
+                assessment.getType(), assessment.getWeightPercentage(), assessment.getTotalMarks(),
+                assessment.getObtainedMark(), assessment.getDueDate());
+    }
+}
@@ -0,0 +1,98 @@
+package com.ignacio.gradecalc.service;
+
+import com.ignacio.gradecalc.event.AssessmentChanged;
+import com.ignacio.gradecalc.event.GradeEvent;
+import com.ignacio.gradecalc.event.MarkRecorded;
+import com.ignacio.gradecalc.event.MarksImported;
+import com.ignacio.gradecalc.event.ModuleChanged;
+import com.ignacio.gradecalc.event.PresetChanged;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Which of a user's modules and assessments changed at which data revision, for delta sync.
+ *
+ * Each change replaces the entity's row, stamped with the user's data revision, so the log
+ * never holds more than one row per thing the user has touched. Deletions stay as tombstones.
+ * Rows are written from the grade events just before the changing transaction commits. The data
+ * revision bump earlier in that transaction holds the user's row lock until then, so two writes
+ * for one user can't interleave and the revisions in the log only go up.
+ */
+@Component
+public class ChangeLog {
+
+    public enum EntityType {
+        USER, MODULE, ASSESSMENT
+    }
+
+    /**
+     * @param type     What changed
+     * @param entityId The module or assessment id (the user id for USER)
+     * @param revision The user's data revision when it last changed
+     * @param deleted  Whether it has since been deleted
+     */
+    public record Entry(EntityType type, Long entityId, long revision, boolean deleted) {
+    }
+
+    private static final String DELETE_SQL =
+            "DELETE FROM change_log WHERE user_id = ? AND entity_type = ? AND entity_id = ?";
+
+    private static final String INSERT_SQL = """
+            INSERT INTO change_log (user_id, entity_type, entity_id, revision, deleted)
+            SELECT id, ?, ?, data_revision, ? FROM users WHERE id = ?
+            """;
+
+    private static final String CHANGES_SQL = """
+            SELECT entity_type, entity_id, revision, deleted FROM change_log
+            WHERE user_id = ? AND revision > ? AND revision <= ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ChangeLog(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onEvent(GradeEvent event) {
+        if (event instanceof MarkRecorded mark) {
+            record(mark.userId(), EntityType.ASSESSMENT, List.of(mark.assessmentId()), false);
+        } else if (event instanceof MarksImported marks) {
+            record(marks.userId(), EntityType.ASSESSMENT, marks.assessmentIds(), false);
+        } else if (event instanceof AssessmentChanged assessment) {
+            record(assessment.userId(), EntityType.ASSESSMENT, List.of(assessment.assessmentId()),
+                    assessment.deleted());
+        } else if (event instanceof ModuleChanged module) {
+            record(module.userId(), EntityType.MODULE, List.of(module.moduleId()), module.deleted());
+        } else if (event instanceof PresetChanged preset) {
+            record(preset.userId(), EntityType.USER, List.of(preset.userId()), false);
+        }
+    }
+
+    /**
+     * Changes with a revision after {@code after}, up to and including {@code upTo}.
+     */
+    public List<Entry> findChanges(Long userId, long after, long upTo) {
+        return jdbcTemplate.query(CHANGES_SQL, (rs, rowNum) -> new Entry(
+                EntityType.valueOf(rs.getString(1)), rs.getLong(2), rs.getLong(3), rs.getBoolean(4)),
+                userId, after, upTo);
+    }
+
+    // Delete then insert rather than an upsert, which H2 and PostgreSQL spell differently
+    void record(Long userId, EntityType type, Collection<Long> entityIds, boolean deleted) {
+        List<Object[]> keys = new ArrayList<>(entityIds.size());
+        List<Object[]> rows = new ArrayList<>(entityIds.size());
+        for (Long entityId : entityIds) {
+            keys.add(new Object[]{userId, type.name(), entityId});
+            rows.add(new Object[]{type.name(), entityId, deleted, userId});
+        }
+        jdbcTemplate.batchUpdate(DELETE_SQL, keys);
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+    }
+}
@@ -1,31 +1,57 @@
 package com.ignacio.gradecalc.service;
 
 import com.ignacio.gradecalc.entity.User;
-import com.ignacio.gradecalc.repository.UserRepository;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
-    private final UserRepository userRepository;
+    private final UserLookupCache userLookupCache;
+    private final UserService userService;
+    private final UsernameIndex usernameIndex;
 
     // Constructor injection
-    public CustomUserDetailsService(UserRepository userRepository) {
-        this.userRepository = userRepository;
+    public CustomUserDetailsService(UserLookupCache userLookupCache, UserService userService,
+                                    UsernameIndex usernameIndex) {
+        this.userLookupCache = userLookupCache;
+        this.userService = userService;
+        this.usernameIndex = usernameIndex;
     }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
+        // Logins with made-up names are turned away without a query
+        if (!usernameIndex.mightContain(username)) {
+            throw new UsernameNotFoundException("User not found: " + username);
+        }
 
+        UserCredentials user = userLookupCache.findByUsername(username).orElseThrow(() -> {
+            usernameIndex.recordFalsePositive();
+            return new UsernameNotFoundException("User not found: " + username);
+        });
+
+        return org.springframework.security.core.userdetails.User.builder()
+                .username(user.username())
+                .password(user.passwordHash())
+                .roles("USER")
+                .build();
+    }
+
+    /**
+     * Called after a successful login whose stored hash was made at a different BCrypt cost,
+     * so raising gradecalc.security.bcrypt-strength migrates users as they sign in.
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        User updated = userService.updatePasswordHash(user.getUsername(), newPassword);
         return org.springframework.security.core.userdetails.User.builder()
-                .username(user.getUsername())
-                .password(user.getPasswordHash())
+                .username(updated.getUsername())
+                .password(updated.getPasswordHash())
                 .roles("USER")
                 .build();
     }
-}
\ No newline at end of file
+}
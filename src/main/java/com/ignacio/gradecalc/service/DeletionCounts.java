@@ -0,0 +1,7 @@
+package com.ignacio.gradecalc.service;
+
+/**
+ * Rows removed by a cascading delete.
+ */
+public record DeletionCounts(int users, int modules, int assessments) {
+}
@@ -0,0 +1,168 @@
+package com.ignacio.gradecalc.service;
+
+import com.ignacio.gradecalc.entity.Assessment;
+import com.ignacio.gradecalc.entity.Module;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Alternative to the BigDecimal arithmetic in GradeService that works on scaled longs.
+ *
+ * Marks, weights and percentages are passed as hundredths (the scale of the
+ * precision = 5, scale = 2 columns), and weighted scores are kept in
+ * ten-thousandths, matching the scale GradeService rounds to. Every division
+ * rounds HALF_UP exactly like the BigDecimal path, so both return the same values.
+ */
+@Component
+public class FixedPointGradeCalculator {
+
+    /** Returned by {@link #requiredPercentage} when the target cannot be reached. */
+    public static final long NOT_ACHIEVABLE = Long.MIN_VALUE;
+
+    private static final long ONE_HUNDRED_PERCENT = 100_00;
+
+    /**
+     * Weighted contribution of one completed assessment, in ten-thousandths.
+     * Same as rounding (obtained / total) to 4 places, times 100, times weight / 100.
+     */
+    public long contribution(long obtainedMark, long totalMarks, long weightPercentage) {
+        long percentageScore = divideHalfUp(obtainedMark * 10_000, totalMarks) * 100;
+        return divideHalfUp(percentageScore * weightPercentage, 10_000);
+    }
+
+    /**
+     * Project a weighted score over the completed weight to the full module.
+     * @param currentScore Weighted score in ten-thousandths
+     * @param completedWeight Completed weight in hundredths
+     * @return The projected percentage in hundredths
+     */
+    public long projectToFullModule(long currentScore, long completedWeight) {
+        if (completedWeight == 0) {
+            return 0;
+        }
+        return divideHalfUp(currentScore * 100, completedWeight);
+    }
+
+    /**
+     * Minimum average needed on the pending weight to reach a target percentage.
+     * @param targetMinPercentage Target percentage in hundredths
+     * @param currentScore Weighted score in ten-thousandths
+     * @param pendingWeight Pending weight in hundredths
+     * @return The required percentage in hundredths, or NOT_ACHIEVABLE
+     */
+    public long requiredPercentage(long targetMinPercentage, long currentScore, long pendingWeight) {
+        long required = unclampedRequiredPercentage(targetMinPercentage, currentScore, pendingWeight);
+        return required == NOT_ACHIEVABLE ? NOT_ACHIEVABLE : Math.max(required, 0);
+    }
+
+    /**
+     * Same as GradeService.calculateCurrentPercentage, computed in fixed point.
+     */
+    public BigDecimal calculateCurrentPercentage(Module module) {
+        List<Assessment> assessments = module.getAssessments();
+
+        if (assessments == null || assessments.isEmpty()) {
+            return BigDecimal.ZERO;
+        }
+
+        long currentScore = 0;
+        boolean anyCompleted = false;
+
+        for (Assessment assessment : assessments) {
+            if (assessment.isCompleted()) {
+                currentScore += contribution(toHundredths(assessment.getObtainedMark()),
+                        toHundredths(assessment.getTotalMarks()),
+                        toHundredths(assessment.getWeightPercentage()));
+                anyCompleted = true;
+            }
+        }
+
+        return anyCompleted ? BigDecimal.valueOf(currentScore, 4) : BigDecimal.ZERO;
+    }
+
+    /**
+     * Same as GradeService.projectToFullModule, computed in fixed point.
+     */
+    public BigDecimal projectToFullModule(BigDecimal currentScore, BigDecimal completedWeight) {
+        if (completedWeight.signum() == 0) {
+            return BigDecimal.ZERO;
+        }
+        return BigDecimal.valueOf(projectToFullModule(toTenThousandths(currentScore), toHundredths(completedWeight)), 2);
+    }
+
+    /**
+     * Same as GradeService.calculateRequiredPercentage once the target grade
+     * has been resolved to its minimum percentage.
+     * @return The required percentage, or null if the target is impossible
+     */
+    public BigDecimal calculateRequiredPercentage(Module module, BigDecimal targetMinPercentage) {
+        if (targetMinPercentage == null) {
+            return null;
+        }
+
+        List<Assessment> assessments = module.getAssessments();
+        long currentScore = 0;
+        long pendingWeight = 0;
+
+        if (assessments != null) {
+            for (Assessment assessment : assessments) {
+                long weight = toHundredths(assessment.getWeightPercentage());
+                if (assessment.isCompleted()) {
+                    currentScore += contribution(toHundredths(assessment.getObtainedMark()),
+                            toHundredths(assessment.getTotalMarks()), weight);
+                } else {
+                    pendingWeight += weight;
+                }
+            }
+        }
+
+        long required = unclampedRequiredPercentage(toHundredths(targetMinPercentage), currentScore, pendingWeight);
+
+        if (required == NOT_ACHIEVABLE) {
+            return null;
+        }
+
+        // Target already achieved
+        return required < 0 ? BigDecimal.ZERO : BigDecimal.valueOf(required, 2);
+    }
+
+    private long unclampedRequiredPercentage(long targetMinPercentage, long currentScore, long pendingWeight) {
+        if (pendingWeight == 0) {
+            return NOT_ACHIEVABLE;
+        }
+
+        // (target - current) / (pending / 100), with current in ten-thousandths
+        long pointsNeeded = targetMinPercentage * 100 - currentScore;
+        long required = divideHalfUp(pointsNeeded * 100, pendingWeight);
+
+        return required > ONE_HUNDRED_PERCENT ? NOT_ACHIEVABLE : required;
+    }
+
+    /**
+     * Convert a column value to hundredths.
+     * @throws ArithmeticException if the value has more than two decimal places
+     */
+    public static long toHundredths(BigDecimal value) {
+        return value.movePointRight(2).longValueExact();
+    }
+
+    private static long toTenThousandths(BigDecimal value) {
+        return value.movePointRight(4).longValueExact();
+    }
+
+    /**
+     * Divide and round half away from zero, like RoundingMode.HALF_UP.
+     */
+    public static long divideHalfUp(long dividend, long divisor) {
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+
+        if (remainder != 0 && 2 * Math.abs(remainder) >= Math.abs(divisor)) {
+            quotient += (dividend < 0) == (divisor < 0) ? 1 : -1;
+        }
+
+        return quotient;
+    }
+}
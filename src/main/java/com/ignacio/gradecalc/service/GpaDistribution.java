@@ -0,0 +1,21 @@
+package com.ignacio.gradecalc.service;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * Simulated distribution of a GPA.
+ *
+ * @param mean          Average GPA over all trials
+ * @param p5            5th percentile (a bad outcome)
+ * @param median        50th percentile
+ * @param p95           95th percentile (a good outcome)
+ * @param probabilities Probability of each GPA value (to 2 places) that occurred in any trial
+ */
+public record GpaDistribution(
+        double mean,
+        BigDecimal p5,
+        BigDecimal median,
+        BigDecimal p95,
+        Map<BigDecimal, Double> probabilities) {
+}
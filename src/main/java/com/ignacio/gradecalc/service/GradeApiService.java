@@ -0,0 +1,151 @@
+package com.ignacio.gradecalc.service;
+
+import com.ignacio.gradecalc.entity.Assessment;
+import com.ignacio.gradecalc.entity.Module;
+import com.ignacio.gradecalc.entity.User;
+import com.ignacio.gradecalc.repository.AssessmentRepository;
+import com.ignacio.gradecalc.repository.ModuleRepository;
+import com.ignacio.gradecalc.repository.UserRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Reads behind the JSON API: modules with their grade summaries, assessments, and delta sync.
+ */
+@Service
+@Transactional(readOnly = true)
+public class GradeApiService {
+
+    private final UserRepository userRepository;
+    private final ModuleRepository moduleRepository;
+    private final AssessmentRepository assessmentRepository;
+    private final GradeService gradeService;
+    private final ChangeLog changeLog;
+
+    public GradeApiService(UserRepository userRepository, ModuleRepository moduleRepository,
+                           AssessmentRepository assessmentRepository, GradeService gradeService,
+                           ChangeLog changeLog) {
+        this.userRepository = userRepository;
+        this.moduleRepository = moduleRepository;
+        this.assessmentRepository = assessmentRepository;
+        this.gradeService = gradeService;
+        this.changeLog = changeLog;
+    }
+
+    /**
+     * All of a user's modules with their summaries, from the stored totals.
+     */
+    public List<ModuleView> findModules(Long userId) {
+        User user = findUser(userId);
+        List<ModuleView> views = new ArrayList<>();
+        for (Module module : moduleRepository.findByUserId(userId)) {
+            views.add(ModuleView.of(module, gradeService.summariseFromAggregates(module, user)));
+        }
+        views.sort(Comparator.comparing(ModuleView::id));
+        return views;
+    }
+
+    /**
+     * @return empty if there is no such module or it belongs to someone else
+     */
+    public Optional<List<AssessmentView>> findAssessments(Long userId, Long moduleId) {
+        return moduleRepository.findById(moduleId)
+                .filter(module -> module.getUser().getId().equals(userId))
+                .map(module -> assessmentRepository.findByModuleId(moduleId).stream()
+                        .map(AssessmentView::of)
+                        .toList());
+    }
+
+    /**
+     * Everything that changed after the client's revision, from the change log.
+     * A since of zero, or one ahead of the server (e.g. a restored database), gets the full data instead.
+     *
+     * The user's revision is read first and the log only up to it, so anything committed meanwhile
+     * is picked up by the next sync. Rows read afterwards may already be newer than the revision;
+     * the next sync sends them again.
+     */
+    public SyncDelta changesSince(Long userId, long since) {
+        User user = findUser(userId);
+        long revision = user.getDataRevision();
+
+        if (since == revision) {
+            return new SyncDelta(revision, false, user.getUniversityPreset(), null,
+                    List.of(), List.of(), List.of(), List.of());
+        }
+        if (since <= 0 || since > revision) {
+            return snapshot(user, revision);
+        }
+
+        boolean allModules = false;
+        Set<Long> changedModuleIds = new HashSet<>();
+        Set<Long> changedAssessmentIds = new HashSet<>();
+        Set<Long> deletedModuleIds = new TreeSet<>();
+        Set<Long> deletedAssessmentIds = new TreeSet<>();
+        for (ChangeLog.Entry entry : changeLog.findChanges(userId, since, revision)) {
+            switch (entry.type()) {
+                case USER -> allModules = true;
+                case MODULE -> (entry.deleted() ? deletedModuleIds : changedModuleIds).add(entry.entityId());
+                case ASSESSMENT -> (entry.deleted() ? deletedAssessmentIds : changedAssessmentIds).add(entry.entityId());
+            }
+        }
+
+        List<AssessmentView> assessments = new ArrayList<>();
+        if (!changedAssessmentIds.isEmpty()) {
+            for (Assessment assessment : assessmentRepository.findAllById(changedAssessmentIds)) {
+                assessments.add(AssessmentView.of(assessment));
+                changedAssessmentIds.remove(assessment.getId());
+                // Its module's grade changed with it
+                changedModuleIds.add(assessment.getModule().getId());
+            }
+            // Logged but gone: deleted along with their module
+            deletedAssessmentIds.addAll(changedAssessmentIds);
+            assessments.sort(Comparator.comparing(AssessmentView::id));
+        }
+
+        // Every module is needed for the overall GPA anyway
+        List<Module> modules = moduleRepository.findByUserId(userId);
+        List<ModuleView> moduleViews = new ArrayList<>();
+        for (Module module : modules) {
+            if (changedModuleIds.remove(module.getId()) || allModules) {
+                moduleViews.add(ModuleView.of(module, gradeService.summariseFromAggregates(module, user)));
+            }
+        }
+        // Logged but gone
+        deletedModuleIds.addAll(changedModuleIds);
+        moduleViews.sort(Comparator.comparing(ModuleView::id));
+
+        return new SyncDelta(revision, false, user.getUniversityPreset(),
+                gradeService.calculateOverallGpaFromAggregates(modules, user),
+                moduleViews, assessments, List.copyOf(deletedModuleIds), List.copyOf(deletedAssessmentIds));
+    }
+
+    private SyncDelta snapshot(User user, long revision) {
+        List<Module> modules = moduleRepository.findWithAssessmentsByUserId(user.getId());
+        List<ModuleView> moduleViews = new ArrayList<>();
+        List<AssessmentView> assessments = new ArrayList<>();
+        for (Module module : modules) {
+            moduleViews.add(ModuleView.of(module, gradeService.summariseFromAggregates(module, user)));
+            for (Assessment assessment : module.getAssessments()) {
+                assessments.add(AssessmentView.of(assessment));
+            }
+        }
+
+        BigDecimal overallGpa = gradeService.calculateOverallGpaFromAggregates(modules, user);
+        return new SyncDelta(revision, true, user.getUniversityPreset(), overallGpa,
+                moduleViews, assessments, List.of(), List.of());
+    }
+
+    private User findUser(Long userId) {
+        return userRepository.findById(userId)
+                .orElseThrow(() -> new IllegalArgumentException("User not found: " + userId));
+    }
+}
@@ -0,0 +1,22 @@
+package com.ignacio.gradecalc.service;
+
+import java.math.BigDecimal;
+
+/**
+ * One row of the "what do I need" table: what it takes to reach a grade band.
+ *
+ * @param gradeCode          The grade band (e.g. "A1", "II.1", "B+")
+ * @param gradeName          Full grade name for display
+ * @param minPercentage      Minimum overall percentage for the band
+ * @param requiredPercentage Average needed on pending work, or null if the band is out of reach
+ * @param achievable         Whether the band can still be reached
+ * @param secured            Whether the band is reached even with 0 on the remaining work
+ */
+public record GradeRequirement(
+        String gradeCode,
+        String gradeName,
+        BigDecimal minPercentage,
+        BigDecimal requiredPercentage,
+        boolean achievable,
+        boolean secured) {
+}
@@ -0,0 +1,126 @@
+package com.ignacio.gradecalc.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ignacio.gradecalc.enums.UniversityPreset;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Cache of results derived from a module's totals (grade summaries, per-band requirements),
+ * keyed by the module's revision along with everything else the result depends on.
+ *
+ * A changed mark bumps the revision, so the old entry is never looked up again and ages out
+ * of the size-bounded cache; nothing has to be invalidated. Results for a module that hasn't
+ * been saved (no id or revision) are calculated every time.
+ * Hits and misses are published per operation as "gradeResults" cache metrics.
+ */
+@Component
+public class GradeResultCache implements MeterBinder {
+
+    /**
+     * What was calculated, so one module's results of different kinds don't collide.
+     */
+    public enum Operation {
+        SUMMARY,
+        REQUIREMENTS
+    }
+
+    private final Cache<Key, Object> cache;
+    private final Map<Operation, LongAdder> hits = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> misses = new EnumMap<>(Operation.class);
+
+    public GradeResultCache(@Value("${gradecalc.cache.grade-results.max-size:50000}") long maxSize) {
+        this.cache = maxSize > 0
+                ? Caffeine.newBuilder().maximumSize(maxSize).recordStats().build()
+                : null;
+
+        for (Operation operation : Operation.values()) {
+            hits.put(operation, new LongAdder());
+            misses.put(operation, new LongAdder());
+        }
+    }
+
+    /**
+     * A cache that stores nothing, for callers that build GradeService by hand.
+     */
+    public static GradeResultCache disabled() {
+        return new GradeResultCache(0);
+    }
+
+    /**
+     * Return the cached result for this module revision, or calculate and cache it.
+     *
+     * @param scalesVersion Reads GradingScaleRegistry.getContentVersion(), only called when the result is cacheable
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(Operation operation, Long moduleId, Long revision, UniversityPreset preset,
+                     String targetGrade, LongSupplier scalesVersion, Supplier<T> calculation) {
+        if (cache == null || moduleId == null || revision == null) {
+            return calculation.get();
+        }
+
+        Key key = new Key(operation, moduleId, revision, preset, targetGrade, scalesVersion.getAsLong());
+        Object cached = cache.getIfPresent(key);
+        if (cached != null) {
+            hits.get(operation).increment();
+            return (T) cached;
+        }
+
+        misses.get(operation).increment();
+        T result = calculation.get();
+        cache.put(key, result);
+        return result;
+    }
+
+    public long getHitCount(Operation operation) {
+        return hits.get(operation).sum();
+    }
+
+    public long getMissCount(Operation operation) {
+        return misses.get(operation).sum();
+    }
+
+    public void invalidateAll() {
+        if (cache != null) {
+            cache.invalidateAll();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (Operation operation : Operation.values()) {
+            String name = operation.name().toLowerCase(Locale.ROOT);
+            FunctionCounter.builder("cache.gets", hits.get(operation), LongAdder::sum)
+                    .tags("cache", "gradeResults", "operation", name, "result", "hit")
+                    .register(registry);
+            FunctionCounter.builder("cache.gets", misses.get(operation), LongAdder::sum)
+                    .tags("cache", "gradeResults", "operation", name, "result", "miss")
+                    .register(registry);
+        }
+
+        if (cache != null) {
+            FunctionCounter.builder("cache.evictions", cache, c -> c.stats().evictionCount())
+                    .tags("cache", "gradeResults")
+                    .register(registry);
+            Gauge.builder("cache.size", cache, Cache::estimatedSize)
+                    .tags("cache", "gradeResults")
+                    .register(registry);
+        }
+    }
+
+    private record Key(Operation operation, Long moduleId, long revision, UniversityPreset preset,
+                       String targetGrade, long scalesVersion) {
+    }
+}
@@ -3,131 +3,163 @@ package com.ignacio.gradecalc.service;
 import com.ignacio.gradecalc.entity.Assessment;
 import com.ignacio.gradecalc.entity.GradingScale;
 import com.ignacio.gradecalc.entity.Module;
+import com.ignacio.gradecalc.entity.ModuleAggregates;
 import com.ignacio.gradecalc.entity.User;
 import com.ignacio.gradecalc.enums.UniversityPreset;
-import com.ignacio.gradecalc.repository.GradingScaleRepository;
+import com.ignacio.gradecalc.strategy.GradeBoundaryTable;
 import com.ignacio.gradecalc.strategy.GradingStrategy;
 import com.ignacio.gradecalc.strategy.GradingStrategyFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
 
 @Service
 public class GradeService {
 
+    private static final BigDecimal ONE_HUNDRED = new BigDecimal("100");
+
     private final GradingStrategyFactory strategyFactory;
-    private final GradingScaleRepository gradingScaleRepository;
+    private final GradingScaleRegistry gradingScaleRegistry;
+    private final GradeResultCache resultCache;
+
+    public GradeService(GradingStrategyFactory strategyFactory,
+                        GradingScaleRegistry gradingScaleRegistry) {
+        this(strategyFactory, gradingScaleRegistry, GradeResultCache.disabled());
+    }
 
+    @Autowired
     public GradeService(GradingStrategyFactory strategyFactory,
-                        GradingScaleRepository gradingScaleRepository) {
+                        GradingScaleRegistry gradingScaleRegistry,
+                        GradeResultCache resultCache) {
         this.strategyFactory = strategyFactory;
-        this.gradingScaleRepository = gradingScaleRepository;
+        this.gradingScaleRegistry = gradingScaleRegistry;
+        this.resultCache = resultCache;
     }
 
     /**
-     * Calculate the current weighted percentage for a module based on completed assessments.
-     * Only includes assessments that have been graded (obtainedMark is not null).
+     * Calculate everything needed to display a module in one pass over its assessments,
+     * using the module's own target grade.
      */
-    public BigDecimal calculateCurrentPercentage(Module module) {
-        List<Assessment> assessments = module.getAssessments();
+    public ModuleGradeSummary summarise(Module module, User user) {
+        return summarise(module, user, module.getTargetGrade());
+    }
 
-        if (assessments == null || assessments.isEmpty()) {
-            return BigDecimal.ZERO;
-        }
+    /**
+     * Calculate everything needed to display a module in one pass over its assessments.
+     *
+     * @param targetGradeCode The grade to calculate the required percentage for (may be null)
+     */
+    public ModuleGradeSummary summarise(Module module, User user, String targetGradeCode) {
+        return summarise(tally(module), user, targetGradeCode);
+    }
 
-        BigDecimal totalWeightedScore = BigDecimal.ZERO;
-        BigDecimal totalWeight = BigDecimal.ZERO;
+    /**
+     * Same as summarise, but reads the running totals stored on the module
+     * instead of walking its assessments, so the lazy collection is never loaded.
+     * Cached until the module's revision changes.
+     */
+    public ModuleGradeSummary summariseFromAggregates(Module module, User user) {
+        return cached(GradeResultCache.Operation.SUMMARY, module.getId(), module.getRevision(), user,
+                module.getTargetGrade(), () -> {
+                    ModuleAggregates aggregates = module.getAggregates();
+                    Tally tally = new Tally(aggregates.getWeightedScore(),
+                            aggregates.getCompletedWeight(), aggregates.getPendingWeight());
+
+                    return summarise(tally, user, module.getTargetGrade());
+                });
+    }
 
-        for (Assessment assessment : assessments) {
-            if (assessment.isCompleted()) {
-                BigDecimal percentageScore = assessment.getPercentageScore();
-                BigDecimal weight = assessment.getWeightPercentage();
+    /**
+     * Same as summarise, but from totals summed in the database,
+     * so list and dashboard views never load Assessment entities.
+     * Cached until the module's revision changes.
+     */
+    public ModuleGradeSummary summarise(ModuleProgress progress, User user) {
+        return cached(GradeResultCache.Operation.SUMMARY, progress.moduleId(), progress.revision(), user,
+                progress.targetGrade(), () -> {
+                    Tally tally = new Tally(progress.weightedScore(),
+                            progress.completedWeight(), progress.pendingWeight());
+
+                    return summarise(tally, user, progress.targetGrade());
+                });
+    }
+
+    private ModuleGradeSummary summarise(Tally tally, User user, String targetGradeCode) {
+        GradingStrategy strategy = strategyFactory.getStrategy(user.getUniversityPreset());
+        List<GradingScale> scales = getScalesForUser(user);
 
-                // Weighted contribution = (percentage score) * (weight / 100)
-                BigDecimal contribution = percentageScore
-                        .multiply(weight)
-                        .divide(new BigDecimal("100"), 4, RoundingMode.HALF_UP);
+        String gradeCode = "N/A";
+        String gradeName = "No Grade";
+        BigDecimal gpaPoints = BigDecimal.ZERO;
+        BigDecimal projectedPercentage = BigDecimal.ZERO;
 
-                totalWeightedScore = totalWeightedScore.add(contribution);
-                totalWeight = totalWeight.add(weight);
-            }
+        // If nothing completed yet, no grade to show
+        if (tally.completedWeight().compareTo(BigDecimal.ZERO) != 0) {
+            // Project current performance to full module
+            projectedPercentage = projectToFullModule(tally.currentScore(), tally.completedWeight());
+            gradeCode = strategy.getGradeCode(projectedPercentage, scales);
+            gradeName = strategy.getGradeName(projectedPercentage, scales);
+            gpaPoints = strategy.getGpaPoints(projectedPercentage, scales);
         }
 
-        return totalWeightedScore;
+        BigDecimal targetMinPercentage = strategy.getMinimumPercentageForGrade(targetGradeCode, scales);
+
+        return new ModuleGradeSummary(
+                tally.currentScore(),
+                tally.completedWeight(),
+                tally.pendingWeight(),
+                projectedPercentage,
+                gradeCode,
+                gradeName,
+                gpaPoints,
+                targetGradeCode,
+                calculateRequiredPercentage(targetMinPercentage, tally),
+                targetMinPercentage != null && tally.currentScore().compareTo(targetMinPercentage) >= 0
+        );
+    }
+
+    /**
+     * Calculate the current weighted percentage for a module based on completed assessments.
+     * Only includes assessments that have been graded (obtainedMark is not null).
+     */
+    public BigDecimal calculateCurrentPercentage(Module module) {
+        return tally(module).currentScore();
     }
 
     /**
      * Calculate what percentage of the module has been completed (by weight).
      */
     public BigDecimal calculateCompletedWeight(Module module) {
-        List<Assessment> assessments = module.getAssessments();
-
-        if (assessments == null || assessments.isEmpty()) {
-            return BigDecimal.ZERO;
-        }
-
-        return assessments.stream()
-                .filter(Assessment::isCompleted)
-                .map(Assessment::getWeightPercentage)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return tally(module).completedWeight();
     }
 
     /**
      * Calculate what percentage of the module is still pending.
      */
     public BigDecimal calculatePendingWeight(Module module) {
-        List<Assessment> assessments = module.getAssessments();
-
-        if (assessments == null || assessments.isEmpty()) {
-            return BigDecimal.ZERO;
-        }
-
-        return assessments.stream()
-                .filter(assessment -> !assessment.isCompleted())
-                .map(Assessment::getWeightPercentage)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return tally(module).pendingWeight();
     }
 
     /**
      * Get the current grade code for a module based on completed work.
      */
     public String getCurrentGradeCode(Module module, User user) {
-        BigDecimal currentPercentage = calculateCurrentPercentage(module);
-        BigDecimal completedWeight = calculateCompletedWeight(module);
-
-        // If nothing completed yet, no grade to show
-        if (completedWeight.compareTo(BigDecimal.ZERO) == 0) {
-            return "N/A";
-        }
-
-        // Project current performance to full module
-        BigDecimal projectedPercentage = projectToFullModule(currentPercentage, completedWeight);
-
-        GradingStrategy strategy = strategyFactory.getStrategy(user.getUniversityPreset());
-        List<GradingScale> scales = getScalesForUser(user);
-
-        return strategy.getGradeCode(projectedPercentage, scales);
+        return summarise(module, user).gradeCode();
     }
 
     /**
      * Get the current GPA points for a module based on completed work.
      */
     public BigDecimal getCurrentGpaPoints(Module module, User user) {
-        BigDecimal currentPercentage = calculateCurrentPercentage(module);
-        BigDecimal completedWeight = calculateCompletedWeight(module);
-
-        if (completedWeight.compareTo(BigDecimal.ZERO) == 0) {
-            return BigDecimal.ZERO;
-        }
-
-        BigDecimal projectedPercentage = projectToFullModule(currentPercentage, completedWeight);
-
-        GradingStrategy strategy = strategyFactory.getStrategy(user.getUniversityPreset());
-        List<GradingScale> scales = getScalesForUser(user);
-
-        return strategy.getGpaPoints(projectedPercentage, scales);
+        return summarise(module, user).gpaPoints();
     }
 
     /**
@@ -137,42 +169,7 @@ public class GradeService {
      * @return The required percentage, or null if the target is impossible
      */
     public BigDecimal calculateRequiredPercentage(Module module, User user, String targetGradeCode) {
-        GradingStrategy strategy = strategyFactory.getStrategy(user.getUniversityPreset());
-        List<GradingScale> scales = getScalesForUser(user);
-
-        // Get the minimum percentage needed for the target grade
-        BigDecimal targetMinPercentage = strategy.getMinimumPercentageForGrade(targetGradeCode, scales);
-
-        if (targetMinPercentage == null) {
-            return null; // Invalid target grade
-        }
-
-        BigDecimal currentScore = calculateCurrentPercentage(module);
-        BigDecimal pendingWeight = calculatePendingWeight(module);
-
-        // If no pending assessments, can't improve
-        if (pendingWeight.compareTo(BigDecimal.ZERO) == 0) {
-            return null;
-        }
-
-        // Formula: requiredAverage = (targetTotal - currentScore) / (pendingWeight / 100)
-        // Where targetTotal is the minimum overall percentage needed
-        BigDecimal pointsNeeded = targetMinPercentage.subtract(currentScore);
-        BigDecimal pendingWeightFraction = pendingWeight.divide(new BigDecimal("100"), 4, RoundingMode.HALF_UP);
-
-        BigDecimal requiredPercentage = pointsNeeded.divide(pendingWeightFraction, 2, RoundingMode.HALF_UP);
-
-        // If required percentage is over 100, target is impossible
-        if (requiredPercentage.compareTo(new BigDecimal("100")) > 0) {
-            return null;
-        }
-
-        // If required percentage is negative, target is already achieved
-        if (requiredPercentage.compareTo(BigDecimal.ZERO) < 0) {
-            return BigDecimal.ZERO;
-        }
-
-        return requiredPercentage;
+        return summarise(module, user, targetGradeCode).requiredPercentage();
     }
 
     /**
@@ -187,25 +184,89 @@ public class GradeService {
      * Check if a target grade has already been secured (even with 0 on remaining work).
      */
     public boolean isTargetSecured(Module module, User user, String targetGradeCode) {
-        GradingStrategy strategy = strategyFactory.getStrategy(user.getUniversityPreset());
-        List<GradingScale> scales = getScalesForUser(user);
+        return summarise(module, user, targetGradeCode).targetSecured();
+    }
 
-        BigDecimal targetMinPercentage = strategy.getMinimumPercentageForGrade(targetGradeCode, scales);
+    /**
+     * Calculate the required average for every grade band of the user's university.
+     */
+    public List<GradeRequirement> calculateRequirements(Module module, User user) {
+        return calculateRequirements(summarise(module, user), user);
+    }
 
-        if (targetMinPercentage == null) {
-            return false;
+    /**
+     * Calculate the required average for every grade band of the user's university
+     * from an existing summary, without walking the assessments again.
+     * The result only depends on the summary and the user's preset, so it can be
+     * cached for as long as the module's marks don't change.
+     *
+     * @return One row per band, highest band first
+     */
+    public List<GradeRequirement> calculateRequirements(ModuleGradeSummary summary, User user) {
+        Tally tally = new Tally(summary.bankedPercentage(), summary.completedWeight(), summary.pendingWeight());
+
+        List<GradingScale> scales = new ArrayList<>(getScalesForUser(user));
+        scales.sort(Comparator.comparing(GradingScale::getMinPercentage).reversed());
+
+        List<GradeRequirement> requirements = new ArrayList<>(scales.size());
+        for (GradingScale scale : scales) {
+            BigDecimal required = calculateRequiredPercentage(scale.getMinPercentage(), tally);
+
+            requirements.add(new GradeRequirement(
+                    scale.getGradeCode(),
+                    scale.getGradeName(),
+                    scale.getMinPercentage(),
+                    required,
+                    required != null,
+                    tally.currentScore().compareTo(scale.getMinPercentage()) >= 0
+            ));
         }
 
-        // Current score with 0 on all remaining work
-        BigDecimal currentScore = calculateCurrentPercentage(module);
+        return List.copyOf(requirements);
+    }
 
-        return currentScore.compareTo(targetMinPercentage) >= 0;
+    /**
+     * Calculate the required average for every grade band from summed progress.
+     * Cached until the module's revision changes.
+     */
+    public List<GradeRequirement> calculateRequirements(ModuleProgress progress, User user) {
+        return cached(GradeResultCache.Operation.REQUIREMENTS, progress.moduleId(), progress.revision(), user,
+                null, () -> calculateRequirements(summarise(progress, user), user));
     }
 
     /**
      * Calculate weighted GPA across multiple modules.
      */
     public BigDecimal calculateOverallGpa(List<Module> modules, User user) {
+        return calculateOverallGpa(modules, module -> summarise(module, user), Module::getCredits);
+    }
+
+    /**
+     * Calculate weighted GPA across multiple modules from their stored aggregates,
+     * without loading any assessments.
+     */
+    public BigDecimal calculateOverallGpaFromAggregates(List<Module> modules, User user) {
+        return calculateOverallGpa(modules, module -> summariseFromAggregates(module, user), Module::getCredits);
+    }
+
+    /**
+     * Calculate weighted GPA across multiple modules from their summed progress,
+     * without loading any modules or assessments.
+     */
+    public BigDecimal calculateOverallGpaFromProgress(List<ModuleProgress> modules, User user) {
+        return calculateOverallGpa(modules, progress -> summarise(progress, user), ModuleProgress::credits);
+    }
+
+    /**
+     * Get the compiled boundary table a preset is graded with (null means STANDARD), for
+     * bulk code that grades percentages in hundredths. It gives the same grades as this service.
+     */
+    public GradeBoundaryTable getBoundaryTable(UniversityPreset preset) {
+        return strategyFactory.getStrategy(preset).boundaryTable(gradingScaleRegistry.getScales(preset));
+    }
+
+    private <T> BigDecimal calculateOverallGpa(List<T> modules, Function<T, ModuleGradeSummary> summariser,
+                                               ToIntFunction<T> creditsOf) {
         if (modules == null || modules.isEmpty()) {
             return BigDecimal.ZERO;
         }
@@ -213,15 +274,14 @@ public class GradeService {
         BigDecimal totalWeightedGpa = BigDecimal.ZERO;
         int totalCredits = 0;
 
-        for (Module module : modules) {
-            BigDecimal completedWeight = calculateCompletedWeight(module);
+        for (T module : modules) {
+            ModuleGradeSummary summary = summariser.apply(module);
 
             // Only include modules with some completed work
-            if (completedWeight.compareTo(BigDecimal.ZERO) > 0) {
-                BigDecimal gpaPoints = getCurrentGpaPoints(module, user);
-                int credits = module.getCredits();
+            if (summary.completedWeight().compareTo(BigDecimal.ZERO) > 0) {
+                int credits = creditsOf.applyAsInt(module);
 
-                totalWeightedGpa = totalWeightedGpa.add(gpaPoints.multiply(new BigDecimal(credits)));
+                totalWeightedGpa = totalWeightedGpa.add(summary.gpaPoints().multiply(new BigDecimal(credits)));
                 totalCredits += credits;
             }
         }
@@ -233,6 +293,70 @@ public class GradeService {
         return totalWeightedGpa.divide(new BigDecimal(totalCredits), 2, RoundingMode.HALF_UP);
     }
 
+    /**
+     * Walk the assessments once, collecting the banked score and the
+     * completed and pending weights.
+     */
+    private Tally tally(Module module) {
+        List<Assessment> assessments = module.getAssessments();
+
+        BigDecimal totalWeightedScore = BigDecimal.ZERO;
+        BigDecimal completedWeight = BigDecimal.ZERO;
+        BigDecimal pendingWeight = BigDecimal.ZERO;
+
+        if (assessments == null) {
+            return new Tally(totalWeightedScore, completedWeight, pendingWeight);
+        }
+
+        for (Assessment assessment : assessments) {
+            BigDecimal weight = assessment.getWeightPercentage();
+
+            if (assessment.isCompleted()) {
+                totalWeightedScore = totalWeightedScore.add(assessment.getWeightedContribution());
+                completedWeight = completedWeight.add(weight);
+            } else {
+                pendingWeight = pendingWeight.add(weight);
+            }
+        }
+
+        return new Tally(totalWeightedScore, completedWeight, pendingWeight);
+    }
+
+    /**
+     * Minimum average needed on the pending work to reach the target minimum.
+     *
+     * @return The required percentage, or null if the target is invalid or impossible
+     */
+    private BigDecimal calculateRequiredPercentage(BigDecimal targetMinPercentage, Tally tally) {
+        if (targetMinPercentage == null) {
+            return null; // Invalid target grade
+        }
+
+        // If no pending assessments, can't improve
+        if (tally.pendingWeight().compareTo(BigDecimal.ZERO) == 0) {
+            return null;
+        }
+
+        // Formula: requiredAverage = (targetTotal - currentScore) / (pendingWeight / 100)
+        // Where targetTotal is the minimum overall percentage needed
+        BigDecimal pointsNeeded = targetMinPercentage.subtract(tally.currentScore());
+        BigDecimal pendingWeightFraction = tally.pendingWeight().divide(ONE_HUNDRED, 4, RoundingMode.HALF_UP);
+
+        BigDecimal requiredPercentage = pointsNeeded.divide(pendingWeightFraction, 2, RoundingMode.HALF_UP);
+
+        // If required percentage is over 100, target is impossible
+        if (requiredPercentage.compareTo(ONE_HUNDRED) > 0) {
+            return null;
+        }
+
+        // If required percentage is negative, target is already achieved
+        if (requiredPercentage.compareTo(BigDecimal.ZERO) < 0) {
+            return BigDecimal.ZERO;
+        }
+
+        return requiredPercentage;
+    }
+
     /**
      * Project current performance to what the grade would be if the same
      * performance continues for the rest of the module.
@@ -245,24 +369,32 @@ public class GradeService {
         // Current score is already the weighted contribution (e.g., 35% out of 50% completed)
         // To project: (currentScore / completedWeight) * 100
         return currentScore
-                .multiply(new BigDecimal("100"))
+                .multiply(ONE_HUNDRED)
                 .divide(completedWeight, 2, RoundingMode.HALF_UP);
     }
 
+    /**
+     * Look a result up by module revision. The scales version is read first, so a result
+     * calculated while the scales reload is filed under the older version and not reused.
+     * The version comes from the scales' content, so a reload that changes nothing keeps every entry.
+     */
+    private <T> T cached(GradeResultCache.Operation operation, Long moduleId, Long revision, User user,
+                         String targetGradeCode, Supplier<T> calculation) {
+        return resultCache.get(operation, moduleId, revision, user.getUniversityPreset(), targetGradeCode,
+                gradingScaleRegistry::getContentVersion, calculation);
+    }
+
     /**
      * Get the grading scales for a user's university.
+     * The registry has already resolved the STANDARD fallback.
      */
     private List<GradingScale> getScalesForUser(User user) {
-        UniversityPreset preset = user.getUniversityPreset();
-        String universityCode = preset.name();
-
-        List<GradingScale> scales = gradingScaleRepository.findByUniversity(universityCode);
-
-        // Fall back to STANDARD if no scales found for this university
-        if (scales.isEmpty()) {
-            scales = gradingScaleRepository.findByUniversity("STANDARD");
-        }
+        return gradingScaleRegistry.getScales(user.getUniversityPreset());
+    }
 
-        return scales;
+    /**
+     * Running totals from one pass over a module's assessments.
+     */
+    private record Tally(BigDecimal currentScore, BigDecimal completedWeight, BigDecimal pendingWeight) {
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,302 @@
+package com.ignacio.gradecalc.service;
+
+import com.ignacio.gradecalc.entity.GradingScale;
+import com.ignacio.gradecalc.enums.UniversityPreset;
+import com.ignacio.gradecalc.repository.GradingScaleRepository;
+import com.ignacio.gradecalc.strategy.GradingStrategyFactory;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * In-memory copy of the grading_scales table.
+ * Scales are loaded once into an immutable snapshot per university preset,
+ * with the STANDARD fallback already resolved, and swapped atomically on reload.
+ * The snapshot expires after a fixed time so rows edited outside the application are picked up.
+ * One thread reloads an expired snapshot while the others keep using it, and if the rows
+ * haven't changed the old snapshot (and its generation) is kept.
+ * Changed rows are compiled by their strategies before they are swapped in, so a duplicate grade code
+ * or overlapping alias fails startup or reload() instead of a student's request; an expired snapshot
+ * whose new rows don't compile is kept, and the conflict logged.
+ * Hit, miss and expiry counts are published as the "gradingScales" cache metrics.
+ */
+@Component
+public class GradingScaleRegistry implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(GradingScaleRegistry.class);
+    private static final String FALLBACK_UNIVERSITY = "STANDARD";
+    private static final Duration DEFAULT_TTL = Duration.ofMinutes(10);
+
+    private final GradingScaleRepository gradingScaleRepository;
+    // Null when the scales are not compiled on load (unit tests)
+    private final GradingStrategyFactory strategyFactory;
+    private final long ttlNanos;
+    private final LongSupplier clock;
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+    private final AtomicLong generations = new AtomicLong();
+    // Set while one thread reloads an expired snapshot
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    // Kept through invalidate(), so reloading unchanged rows keeps the generation. Guarded by this
+    private Snapshot lastLoaded;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    public GradingScaleRegistry(GradingScaleRepository gradingScaleRepository) {
+        this(gradingScaleRepository, DEFAULT_TTL, System::nanoTime);
+    }
+
+    @Autowired
+    public GradingScaleRegistry(GradingScaleRepository gradingScaleRepository,
+                                GradingStrategyFactory strategyFactory,
+                                @Value("${gradecalc.cache.scales.ttl:10m}") Duration ttl) {
+        this(gradingScaleRepository, strategyFactory, ttl, System::nanoTime);
+    }
+
+    GradingScaleRegistry(GradingScaleRepository gradingScaleRepository, Duration ttl, LongSupplier clock) {
+        this(gradingScaleRepository, null, ttl, clock);
+    }
+
+    GradingScaleRegistry(GradingScaleRepository gradingScaleRepository, GradingStrategyFactory strategyFactory,
+                         Duration ttl, LongSupplier clock) {
+        this.gradingScaleRepository = gradingScaleRepository;
+        this.strategyFactory = strategyFactory;
+        this.ttlNanos = ttl.toNanos();
+        this.clock = clock;
+    }
+
+    /**
+     * Get the grading scales for a university preset.
+     * Falls back to STANDARD if the preset has no scales of its own.
+     * The returned list is immutable and shared between callers.
+     */
+    public List<GradingScale> getScales(UniversityPreset preset) {
+        UniversityPreset key = preset != null ? preset : UniversityPreset.STANDARD;
+        return current().scales().get(key);
+    }
+
+    /**
+     * A number that changes whenever reloading finds different scales, so results calculated
+     * from older scales can be told apart. Expires and reloads the snapshot like getScales.
+     */
+    public long getGeneration() {
+        return current().generation();
+    }
+
+    /**
+     * A hash of the scales' content (every column but the id), so it only changes when a scale does
+     * and is the same in every process that loaded the same rows. Expires and reloads like getScales.
+     */
+    public long getContentVersion() {
+        return current().contentVersion();
+    }
+
+    /**
+     * Load and compile the scales before the first request, so a conflict in them stops startup.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void preload() {
+        reloadSnapshot();
+    }
+
+    /**
+     * Reload every preset from the database and swap the snapshot in one step.
+     * Call this after grading scales have been changed.
+     * @throws IllegalStateException if the new scales don't compile; the old ones are kept
+     */
+    public Map<UniversityPreset, List<GradingScale>> reload() {
+        return reloadSnapshot().scales();
+    }
+
+    /**
+     * Drop the current snapshot so the next lookup reloads it.
+     */
+    public void invalidate() {
+        snapshot.set(null);
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getExpirationCount() {
+        return expirations.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("cache.gets", hits, LongAdder::sum)
+                .tags("cache", "gradingScales", "result", "hit")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", misses, LongAdder::sum)
+                .tags("cache", "gradingScales", "result", "miss")
+                .register(registry);
+        FunctionCounter.builder("cache.evictions", expirations, LongAdder::sum)
+                .tags("cache", "gradingScales")
+                .register(registry);
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot.get();
+
+        if (current == null) {
+            misses.increment();
+            return loadMissing();
+        }
+        if (clock.getAsLong() - current.loadedAt() >= ttlNanos && refreshing.compareAndSet(false, true)) {
+            try {
+                misses.increment();
+                expirations.increment();
+                return reloadOrKeep();
+            } finally {
+                refreshing.set(false);
+            }
+        }
+        // Expired but another thread is reloading it: the old scales will do until then
+        hits.increment();
+        return current;
+    }
+
+    // Callers with nothing to fall back on wait for one load between them
+    private synchronized Snapshot loadMissing() {
+        Snapshot current = snapshot.get();
+        return current != null ? current : reloadOrKeep();
+    }
+
+    // A lookup keeps the last good scales when the new rows don't compile; reload() reports it instead
+    private synchronized Snapshot reloadOrKeep() {
+        try {
+            return reloadSnapshot();
+        } catch (IllegalStateException e) {
+            if (lastLoaded == null) {
+                throw e;
+            }
+            log.error("Keeping the previous grading scales: {}", e.getMessage());
+            Snapshot kept = new Snapshot(lastLoaded.scales(), clock.getAsLong(), lastLoaded.generation(),
+                    lastLoaded.content(), lastLoaded.contentVersion());
+            lastLoaded = kept;
+            snapshot.set(kept);
+            return kept;
+        }
+    }
+
+    private synchronized Snapshot reloadSnapshot() {
+        List<GradingScale> rows = gradingScaleRepository.findAll();
+        List<String> content = contentOf(rows);
+        Snapshot loaded;
+        if (lastLoaded != null && lastLoaded.content().equals(content)) {
+            loaded = new Snapshot(lastLoaded.scales(), clock.getAsLong(), lastLoaded.generation(), content,
+                    lastLoaded.contentVersion());
+        } else {
+            Map<UniversityPreset, List<GradingScale>> scales = group(rows);
+            compile(scales);
+            loaded = new Snapshot(scales, clock.getAsLong(), generations.incrementAndGet(), content, hash(content));
+        }
+        lastLoaded = loaded;
+        snapshot.set(loaded);
+        return loaded;
+    }
+
+    private void compile(Map<UniversityPreset, List<GradingScale>> scales) {
+        if (strategyFactory == null) {
+            return;
+        }
+        for (Map.Entry<UniversityPreset, List<GradingScale>> entry : scales.entrySet()) {
+            try {
+                strategyFactory.getStrategy(entry.getKey()).prepare(entry.getValue());
+            } catch (IllegalStateException e) {
+                throw new IllegalStateException("Grading scales for " + entry.getKey() + ": " + e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Every column but the id, one string per row in a fixed order, to tell whether a reload changed anything.
+     */
+    private static List<String> contentOf(List<GradingScale> rows) {
+        List<String> content = new ArrayList<>(rows.size());
+        for (GradingScale scale : rows) {
+            content.add(scale.getUniversity() + '|' + scale.getGradeCode() + '|' + scale.getGradeName()
+                    + '|' + plain(scale.getMinPercentage()) + '|' + plain(scale.getMaxPercentage())
+                    + '|' + plain(scale.getGpaPoints()));
+        }
+        Collections.sort(content);
+        return List.copyOf(content);
+    }
+
+    private static long hash(List<String> content) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e); // Every JVM has SHA-256
+        }
+        for (String row : content) {
+            digest.update(row.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+        }
+        return ByteBuffer.wrap(digest.digest()).getLong();
+    }
+
+    private static String plain(BigDecimal value) {
+        return value == null ? "null" : value.stripTrailingZeros().toPlainString();
+    }
+
+    private static Map<UniversityPreset, List<GradingScale>> group(List<GradingScale> rows) {
+        Map<String, List<GradingScale>> byUniversity = new HashMap<>();
+        for (GradingScale scale : rows) {
+            byUniversity.computeIfAbsent(scale.getUniversity(), key -> new ArrayList<>()).add(scale);
+        }
+
+        List<GradingScale> fallback = Collections.unmodifiableList(
+                byUniversity.getOrDefault(FALLBACK_UNIVERSITY, new ArrayList<>()));
+
+        // Presets without their own rows share the same fallback list instance,
+        // so strategies can reuse one compiled table for all of them
+        Map<UniversityPreset, List<GradingScale>> loaded = new EnumMap<>(UniversityPreset.class);
+        for (UniversityPreset preset : UniversityPreset.values()) {
+            List<GradingScale> scales = preset.name().equals(FALLBACK_UNIVERSITY)
+                    ? null
+                    : byUniversity.get(preset.name());
+
+            loaded.put(preset, scales == null || scales.isEmpty()
+                    ? fallback
+                    : Collections.unmodifiableList(scales));
+        }
+
+        return Collections.unmodifiableMap(loaded);
+    }
+
+    private record Snapshot(Map<UniversityPreset, List<GradingScale>> scales, long loadedAt, long generation,
+                            List<String> content, long contentVersion) {
+    }
+}
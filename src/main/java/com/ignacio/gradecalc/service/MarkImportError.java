@@ -0,0 +1,9 @@
+package com.ignacio.gradecalc.service;
+
+/**
+ * A row of a mark import that was not applied.
+ *
+ * @param line 1-based line number in the uploaded file
+ */
+public record MarkImportError(long line, String message) {
+}
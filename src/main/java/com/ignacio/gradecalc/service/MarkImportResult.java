@@ -0,0 +1,17 @@
+package com.ignacio.gradecalc.service;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk mark import.
+ *
+ * @param errors          The first rejected rows, in file order
+ * @param errorsTruncated True if more rows were rejected than are listed in errors
+ */
+public record MarkImportResult(
+        long rowsRead,
+        long rowsApplied,
+        long rowsRejected,
+        List<MarkImportError> errors,
+        boolean errorsTruncated) {
+}
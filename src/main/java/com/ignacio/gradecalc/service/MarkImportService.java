@@ -0,0 +1,360 @@
+package com.ignacio.gradecalc.service;
+
+import com.ignacio.gradecalc.event.MarksImported;
+import com.ignacio.gradecalc.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Records marks in bulk from a CSV file.
+ *
+ * Each row is either "assessment_id,obtained_mark" or
+ * "module_code,assessment_name,obtained_mark", and a header row is optional.
+ * Rows are validated against the user's own assessments, loaded once up front, and
+ * valid rows are written with batched JDBC updates, one transaction per chunk.
+ * Each chunk locks the user row first, in the same order as AssessmentService.
+ * Rejected rows are reported by line number and never stop the rest of the file.
+ * Only the current chunk is held in memory, however long the file is.
+ */
+@Service
+public class MarkImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(MarkImportService.class);
+
+    static final int CHUNK_SIZE = 1_000;
+    static final int MAX_REPORTED_ERRORS = 1_000;
+
+    private static final String TARGETS_SQL = """
+            SELECT a.id, a.module_id, m.code, a.name, a.total_marks
+            FROM assessments a
+            JOIN modules m ON m.id = a.module_id
+            WHERE m.user_id = ?
+            """;
+
+    private static final String UPDATE_SQL = "UPDATE assessments SET obtained_mark = ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final UserRepository userRepository;
+    private final ModuleAggregateService moduleAggregateService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public MarkImportService(JdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager,
+                             UserRepository userRepository,
+                             ModuleAggregateService moduleAggregateService,
+                             ApplicationEventPublisher eventPublisher) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.userRepository = userRepository;
+        this.moduleAggregateService = moduleAggregateService;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Import marks for one user's assessments.
+     * Rows naming another user's assessment are rejected as not found.
+     */
+    public MarkImportResult importMarks(Long userId, Reader csv) throws IOException {
+        Targets targets = loadTargets(userId);
+        Import state = new Import();
+
+        BufferedReader reader = csv instanceof BufferedReader buffered ? buffered : new BufferedReader(csv);
+        String line;
+        long lineNumber = 0;
+
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (lineNumber == 1 && line.startsWith("\uFEFF")) {
+                line = line.substring(1); // Byte order mark from spreadsheet exports
+            }
+            if (line.isBlank()) {
+                continue;
+            }
+
+            List<String> fields = parseLine(line);
+            if (lineNumber == 1 && isHeader(fields)) {
+                continue;
+            }
+
+            state.rowsRead++;
+            try {
+                state.add(lineNumber, resolve(targets, fields));
+            } catch (IllegalArgumentException e) {
+                state.reject(lineNumber, e.getMessage());
+            }
+
+            if (state.updates.size() == CHUNK_SIZE) {
+                flush(userId, state);
+            }
+        }
+        flush(userId, state);
+
+        log.info("Imported marks for user {}: {} rows read, {} applied, {} rejected",
+                userId, state.rowsRead, state.rowsApplied, state.rowsRejected);
+
+        return new MarkImportResult(state.rowsRead, state.rowsApplied, state.rowsRejected,
+                List.copyOf(state.errors), state.errorsTruncated);
+    }
+
+    /**
+     * Mark the user's data as changed, write the current chunk and rebuild the aggregates of
+     * the modules it touched, all in one transaction. If the chunk fails, its rows are reported
+     * and the import carries on.
+     */
+    private void flush(Long userId, Import state) {
+        if (state.updates.isEmpty()) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Set<Long> moduleIds = Set.copyOf(state.touchedModules);
+                userRepository.bumpDataRevision(userId);
+                jdbcTemplate.batchUpdate(UPDATE_SQL, state.updates);
+                moduleAggregateService.rebuildModules(moduleIds);
+                eventPublisher.publishEvent(new MarksImported(userId, moduleIds, state.assessmentIds()));
+            });
+            state.rowsApplied += state.updates.size();
+        } catch (DataAccessException e) {
+            log.warn("Mark import chunk at lines {}-{} failed", state.firstLine, state.lastLine, e);
+            state.rowsRejected += state.updates.size();
+            state.error(state.firstLine, "Lines " + state.firstLine + "-" + state.lastLine
+                    + " were not saved: " + e.getMostSpecificCause().getMessage());
+        }
+
+        state.updates.clear();
+        state.touchedModules.clear();
+    }
+
+    /**
+     * Turn one row into an (obtained mark, assessment id) update.
+     *
+     * @throws IllegalArgumentException with a message for the user if the row is invalid
+     */
+    private Update resolve(Targets targets, List<String> fields) {
+        Target target;
+        String mark;
+
+        if (fields.size() == 2) {
+            target = targets.byId(fields.get(0));
+            mark = fields.get(1);
+        } else if (fields.size() == 3) {
+            target = targets.byName(fields.get(0), fields.get(1));
+            mark = fields.get(2);
+        } else {
+            throw new IllegalArgumentException("Expected 2 or 3 columns but found " + fields.size());
+        }
+
+        return new Update(target, parseMark(mark, target.totalMarks()));
+    }
+
+    static BigDecimal parseMark(String value, BigDecimal totalMarks) {
+        if (value.isEmpty()) {
+            throw new IllegalArgumentException("Missing mark");
+        }
+
+        BigDecimal mark;
+        try {
+            mark = new BigDecimal(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid mark: " + value);
+        }
+
+        if (mark.signum() < 0) {
+            throw new IllegalArgumentException("Mark cannot be negative: " + value);
+        }
+        if (mark.stripTrailingZeros().scale() > 2) {
+            throw new IllegalArgumentException("Mark has more than 2 decimal places: " + value);
+        }
+        if (mark.compareTo(totalMarks) > 0) {
+            throw new IllegalArgumentException("Mark " + value + " is above the total of " + totalMarks);
+        }
+
+        return mark.setScale(2);
+    }
+
+    private Targets loadTargets(Long userId) {
+        List<Target> rows = jdbcTemplate.query(TARGETS_SQL, (rs, rowNum) -> new Target(
+                rs.getLong(1),
+                rs.getLong(2),
+                rs.getString(3),
+                rs.getString(4),
+                rs.getBigDecimal(5)
+        ), userId);
+
+        return new Targets(rows);
+    }
+
+    /**
+     * Treat the first row as a header if its mark column isn't a number.
+     */
+    private static boolean isHeader(List<String> fields) {
+        String last = fields.get(fields.size() - 1);
+        try {
+            new BigDecimal(last);
+            return false;
+        } catch (NumberFormatException e) {
+            return true;
+        }
+    }
+
+    /**
+     * Split a CSV line into trimmed fields. Fields may be quoted to contain commas,
+     * with "" for a literal quote.
+     */
+    static List<String> parseLine(String line) {
+        List<String> fields = new ArrayList<>(3);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString().trim());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+
+        fields.add(field.toString().trim());
+        return fields;
+    }
+
+    /**
+     * An assessment the user is allowed to mark.
+     */
+    record Target(long assessmentId, long moduleId, String moduleCode, String assessmentName, BigDecimal totalMarks) {
+    }
+
+    private record Update(Target target, BigDecimal obtainedMark) {
+    }
+
+    /**
+     * The user's assessments, by id and by module code and name (case-insensitive).
+     */
+    private static final class Targets {
+
+        // Marks a module code and name shared by more than one assessment
+        private static final Target AMBIGUOUS = new Target(-1, -1, null, null, null);
+
+        private final Map<Long, Target> byId = new HashMap<>();
+        private final Map<String, Target> byName = new HashMap<>();
+
+        Targets(List<Target> targets) {
+            for (Target target : targets) {
+                byId.put(target.assessmentId(), target);
+                if (target.moduleCode() != null) {
+                    byName.merge(key(target.moduleCode(), target.assessmentName()), target, (a, b) -> AMBIGUOUS);
+                }
+            }
+        }
+
+        Target byId(String value) {
+            long id;
+            try {
+                id = Long.parseLong(value);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid assessment id: " + value);
+            }
+
+            Target target = byId.get(id);
+            if (target == null) {
+                throw new IllegalArgumentException("Assessment not found: " + id);
+            }
+            return target;
+        }
+
+        Target byName(String moduleCode, String assessmentName) {
+            Target target = byName.get(key(moduleCode, assessmentName));
+            if (target == null) {
+                throw new IllegalArgumentException("Assessment not found: " + moduleCode + " / " + assessmentName);
+            }
+            if (target == AMBIGUOUS) {
+                throw new IllegalArgumentException("More than one assessment named '" + assessmentName
+                        + "' in module " + moduleCode + ", use the assessment id instead");
+            }
+            return target;
+        }
+
+        private static String key(String moduleCode, String assessmentName) {
+            return moduleCode.trim().toUpperCase(Locale.ROOT) + '\n' + assessmentName.trim().toUpperCase(Locale.ROOT);
+        }
+    }
+
+    /**
+     * Running state of one import: the pending chunk and the counts so far.
+     */
+    private static final class Import {
+        final List<Object[]> updates = new ArrayList<>(CHUNK_SIZE);
+        final Set<Long> touchedModules = new HashSet<>();
+        final List<MarkImportError> errors = new ArrayList<>();
+        long firstLine;
+        long lastLine;
+        long rowsRead;
+        long rowsApplied;
+        long rowsRejected;
+        boolean errorsTruncated;
+
+        void add(long lineNumber, Update update) {
+            if (updates.isEmpty()) {
+                firstLine = lineNumber;
+            }
+            lastLine = lineNumber;
+            updates.add(new Object[]{update.obtainedMark(), update.target().assessmentId()});
+            touchedModules.add(update.target().moduleId());
+        }
+
+        List<Long> assessmentIds() {
+            List<Long> ids = new ArrayList<>(updates.size());
+            for (Object[] update : updates) {
+                ids.add((Long) update[1]);
+            }
+            return ids;
+        }
+
+        void reject(long lineNumber, String message) {
+            rowsRejected++;
+            error(lineNumber, message);
+        }
+
+        void error(long lineNumber, String message) {
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new MarkImportError(lineNumber, message));
+            } else {
+                errorsTruncated = true;
+            }
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.ignacio.gradecalc.service;
+
+import com.ignacio.gradecalc.entity.Module;
+import com.ignacio.gradecalc.entity.ModuleAggregates;
+import com.ignacio.gradecalc.repository.AssessmentRepository;
+import com.ignacio.gradecalc.repository.ModuleRepository;
+import com.ignacio.gradecalc.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Verifies the running totals stored on each module against its assessment rows
+ * and rebuilds any that have drifted (e.g. after a manual database edit).
+ */
+@Service
+public class ModuleAggregateService {
+
+    private static final Logger log = LoggerFactory.getLogger(ModuleAggregateService.class);
+
+    private final ModuleRepository moduleRepository;
+    private final AssessmentRepository assessmentRepository;
+    private final UserRepository userRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+
+    public ModuleAggregateService(ModuleRepository moduleRepository,
+                                  AssessmentRepository assessmentRepository,
+                                  UserRepository userRepository,
+                                  EntityManager entityManager,
+                                  PlatformTransactionManager transactionManager) {
+        this.moduleRepository = moduleRepository;
+        this.assessmentRepository = assessmentRepository;
+        this.userRepository = userRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Rebuild one module's aggregates from its assessment rows.
+     *
+     * @return true if the stored aggregates were wrong and have been repaired
+     */
+    public boolean repairModule(Long moduleId) {
+        Boolean repaired = transactionTemplate.execute(status -> {
+            Module module = moduleRepository.findById(moduleId).orElse(null);
+            if (module == null) {
+                return false; // Deleted since the ids were listed
+            }
+
+            ModuleAggregates expected = ModuleAggregates.of(assessmentRepository.findByModuleId(moduleId));
+            if (expected.matches(module.getAggregates())) {
+                return false;
+            }
+
+            log.warn("Repairing aggregates for module {}", moduleId);
+            module.setAggregates(expected);
+            userRepository.bumpDataRevision(module.getUser().getId());
+            return true;
+        });
+
+        return Boolean.TRUE.equals(repaired);
+    }
+
+    /**
+     * Rebuild modules' aggregates from their assessment rows without comparing them first.
+     * Used after bulk writes that update assessment rows directly.
+     * Joins the caller's transaction if there is one.
+     *
+     * The persistence context is flushed and cleared first. With open-session-in-view it lasts
+     * the whole request, and would otherwise hand back assessments loaded by an earlier call
+     * with the marks they had before the direct writes.
+     */
+    public void rebuildModules(Collection<Long> moduleIds) {
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.flush();
+            entityManager.clear();
+            for (Long moduleId : moduleIds) {
+                moduleRepository.findById(moduleId).ifPresent(module ->
+                        module.setAggregates(ModuleAggregates.of(assessmentRepository.findByModuleId(moduleId))));
+            }
+        });
+    }
+
+    /**
+     * Verify every module, each in its own transaction so memory stays flat.
+     * A module that fails (e.g. edited by its owner mid-run) is logged and skipped, and the
+     * run carries on; the next run checks it again.
+     * Runs nightly; set gradecalc.aggregates.repair-cron=- to disable.
+     *
+     * @return The number of modules that were repaired
+     */
+    @Scheduled(cron = "${gradecalc.aggregates.repair-cron:0 30 3 * * *}")
+    public int repairAll() {
+        List<Long> moduleIds = moduleRepository.findAllIds();
+        int repaired = 0;
+        int failed = 0;
+
+        for (Long moduleId : moduleIds) {
+            try {
+                if (repairModule(moduleId)) {
+                    repaired++;
+                }
+            } catch (DataAccessException | TransactionException e) {
+                failed++;
+                log.warn("Could not verify aggregates for module {}", moduleId, e);
+            }
+        }
+
+        log.info("Verified aggregates for {} modules, repaired {}, failed {}", moduleIds.size(), repaired, failed);
+        return repaired;
+    }
+}
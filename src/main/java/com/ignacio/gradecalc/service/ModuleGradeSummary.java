@@ -0,0 +1,38 @@
+package com.ignacio.gradecalc.service;
+
+import java.math.BigDecimal;
+
+/**
+ * Everything needed to display one module, computed in a single pass over its assessments.
+ *
+ * @param bankedPercentage    Weighted score from completed assessments (e.g. 40 from an 80% exam worth 50%)
+ * @param completedWeight     Total weight of completed assessments
+ * @param pendingWeight       Total weight of assessments without a mark yet
+ * @param projectedPercentage Banked score projected to the full module, or zero if nothing is completed
+ * @param gradeCode           Grade for the projected percentage, or "N/A" if nothing is completed
+ * @param gradeName           Full grade name for display
+ * @param gpaPoints           GPA points for the projected percentage
+ * @param targetGrade         The target grade the required percentage was calculated for
+ * @param requiredPercentage  Average needed on pending work to reach the target, or null if impossible
+ * @param targetSecured       Whether the target is reached even with 0 on the remaining work
+ */
+public record ModuleGradeSummary(
+        BigDecimal bankedPercentage,
+        BigDecimal completedWeight,
+        BigDecimal pendingWeight,
+        BigDecimal projectedPercentage,
+        String gradeCode,
+        String gradeName,
+        BigDecimal gpaPoints,
+        String targetGrade,
+        BigDecimal requiredPercentage,
+        boolean targetSecured) {
+
+    public boolean hasCompletedWork() {
+        return completedWeight.compareTo(BigDecimal.ZERO) != 0;
+    }
+
+    public boolean isTargetAchievable() {
+        return requiredPercentage != null;
+    }
+}
@@ -0,0 +1,28 @@
+package com.ignacio.gradecalc.service;
+
+import java.math.BigDecimal;
+
+/**
+ * A module's assessment totals, summed in the database instead of from loaded assessments.
+ *
+ * @param moduleId        The module these totals are for
+ * @param credits         The module's credits, for GPA weighting
+ * @param targetGrade     The module's target grade (may be null)
+ * @param revision        The module's revision when these totals were summed
+ * @param completedWeight Total weight of completed assessments
+ * @param weightedScore   Sum of each completed assessment's weighted contribution (the banked percentage)
+ * @param pendingWeight   Total weight of assessments without a mark yet
+ * @param completedCount  Number of completed assessments
+ * @param pendingCount    Number of assessments without a mark yet
+ */
+public record ModuleProgress(
+        Long moduleId,
+        Integer credits,
+        String targetGrade,
+        Long revision,
+        BigDecimal completedWeight,
+        BigDecimal weightedScore,
+        BigDecimal pendingWeight,
+        Long completedCount,
+        Long pendingCount) {
+}
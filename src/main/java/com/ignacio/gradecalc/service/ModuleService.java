@@ -1,9 +1,14 @@
 package com.ignacio.gradecalc.service;
 
+import com.ignacio.gradecalc.entity.Assessment;
 import com.ignacio.gradecalc.entity.Module;
+import com.ignacio.gradecalc.entity.ModuleAggregates;
 import com.ignacio.gradecalc.entity.User;
+import com.ignacio.gradecalc.event.ModuleChanged;
+import com.ignacio.gradecalc.repository.AssessmentRepository;
 import com.ignacio.gradecalc.repository.ModuleRepository;
 import com.ignacio.gradecalc.repository.UserRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -16,10 +21,15 @@ public class ModuleService {
 
     private final ModuleRepository moduleRepository;
     private final UserRepository userRepository;
+    private final AssessmentRepository assessmentRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public ModuleService(ModuleRepository moduleRepository, UserRepository userRepository) {
+    public ModuleService(ModuleRepository moduleRepository, UserRepository userRepository,
+                         AssessmentRepository assessmentRepository, ApplicationEventPublisher eventPublisher) {
         this.moduleRepository = moduleRepository;
         this.userRepository = userRepository;
+        this.assessmentRepository = assessmentRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     public Module createModule(Long userId, String name, String code, Integer credits,
@@ -28,7 +38,37 @@ public class ModuleService {
                 .orElseThrow(() -> new IllegalArgumentException("User not found: " + userId));
 
         Module module = new Module(user, name, code, credits, targetGrade, semester);
-        return moduleRepository.save(module);
+        userRepository.bumpDataRevision(userId);
+
+        Module saved = moduleRepository.save(module);
+        eventPublisher.publishEvent(new ModuleChanged(userId, saved.getId(), false));
+        return saved;
+    }
+
+    /**
+     * Create a module and all of its assessments in one go.
+     * The whole graph is persisted on flush, with the assessment inserts sent as one JDBC batch.
+     */
+    public Module createModuleWithAssessments(Long userId, String name, String code, Integer credits,
+                                              String targetGrade, String semester,
+                                              List<NewAssessment> assessments) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new IllegalArgumentException("User not found: " + userId));
+
+        Module module = new Module(user, name, code, credits, targetGrade, semester);
+        for (NewAssessment draft : assessments) {
+            Assessment assessment = new Assessment(module, draft.name(), draft.type(),
+                    draft.weightPercentage(), draft.totalMarks());
+            assessment.setDueDate(draft.dueDate());
+            assessment.setObtainedMark(draft.obtainedMark());
+            module.getAssessments().add(assessment);
+        }
+        module.setAggregates(ModuleAggregates.of(module.getAssessments()));
+        userRepository.bumpDataRevision(userId);
+
+        Module saved = moduleRepository.save(module);
+        eventPublisher.publishEvent(new ModuleChanged(userId, saved.getId(), false));
+        return saved;
     }
 
     public Optional<Module> findById(Long moduleId) {
@@ -43,6 +83,20 @@ public class ModuleService {
         return moduleRepository.findByUserIdAndSemester(userId, semester);
     }
 
+    /**
+     * Modules with their assessments loaded, for transcript and GPA views.
+     * Use this instead of findByUserId when the assessments will be read.
+     */
+    @Transactional(readOnly = true)
+    public List<Module> findTranscript(Long userId) {
+        return moduleRepository.findWithAssessmentsByUserId(userId);
+    }
+
+    @Transactional(readOnly = true)
+    public List<Module> findTranscript(Long userId, String semester) {
+        return moduleRepository.findWithAssessmentsByUserIdAndSemester(userId, semester);
+    }
+
     public Module updateModule(Long moduleId, String name, String code, Integer credits,
                                String targetGrade, String semester) {
         Module module = moduleRepository.findById(moduleId)
@@ -53,11 +107,27 @@ public class ModuleService {
         module.setCredits(credits);
         module.setTargetGrade(targetGrade);
         module.setSemester(semester);
+        userRepository.bumpDataRevision(module.getUser().getId());
+        eventPublisher.publishEvent(new ModuleChanged(module.getUser().getId(), moduleId, false));
 
         return moduleRepository.save(module);
     }
 
-    public void deleteModule(Long moduleId) {
-        moduleRepository.deleteById(moduleId);
+    /**
+     * Delete a module and its assessments with two set-based statements, without loading them,
+     * after looking up the owner and marking their data as changed.
+     */
+    public DeletionCounts deleteModule(Long moduleId) {
+        Optional<Long> ownerId = moduleRepository.findOwnerIdById(moduleId);
+        if (ownerId.isEmpty()) {
+            return new DeletionCounts(0, 0, 0);
+        }
+
+        userRepository.bumpDataRevision(ownerId.get());
+        eventPublisher.publishEvent(new ModuleChanged(ownerId.get(), moduleId, true));
+        int assessments = assessmentRepository.bulkDeleteByModuleId(moduleId);
+        int modules = moduleRepository.bulkDeleteById(moduleId);
+
+        return new DeletionCounts(0, modules, assessments);
     }
 }
\ No newline at end of file
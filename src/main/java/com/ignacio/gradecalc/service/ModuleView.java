@@ -0,0 +1,21 @@
+package com.ignacio.gradecalc.service;
+
+import com.ignacio.gradecalc.entity.Module;
+
+/**
+ * A module as the JSON API returns it, with its grade summary.
+ */
+public record ModuleView(
+        Long id,
+        String name,
+        String code,
+        Integer credits,
+        String targetGrade,
+        String semester,
+        ModuleGradeSummary summary) {
+
+    public static ModuleView of(Module module, ModuleGradeSummary summary) {
+        return new ModuleView(module.getId(), module.getName(), module.getCode(), module.getCredits(),
+                module.getTargetGrade(), module.getSemester(), summary);
+    }
+}
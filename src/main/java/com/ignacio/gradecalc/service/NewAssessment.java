@@ -0,0 +1,20 @@
+package com.ignacio.gradecalc.service;
+
+import com.ignacio.gradecalc.enums.AssessmentType;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * An assessment to create together with its module.
+ *
+ * @param obtainedMark The mark if it is already known, otherwise null
+ */
+public record NewAssessment(
+        String name,
+        AssessmentType type,
+        BigDecimal weightPercentage,
+        BigDecimal totalMarks,
+        LocalDate dueDate,
+        BigDecimal obtainedMark) {
+}
@@ -0,0 +1,16 @@
+package com.ignacio.gradecalc.service;
+
+import java.util.Map;
+
+/**
+ * Simulated final outcome of one module.
+ *
+ * @param trials             Number of simulated completions
+ * @param gradeProbabilities Probability of finishing in each grade band, highest band first
+ * @param gpa                Distribution of the module's GPA points
+ */
+public record OutcomeDistribution(
+        int trials,
+        Map<String, Double> gradeProbabilities,
+        GpaDistribution gpa) {
+}
@@ -0,0 +1,377 @@
+package com.ignacio.gradecalc.service;
+
+import com.ignacio.gradecalc.entity.Assessment;
+import com.ignacio.gradecalc.entity.Module;
+import com.ignacio.gradecalc.entity.User;
+import com.ignacio.gradecalc.enums.AssessmentType;
+import com.ignacio.gradecalc.strategy.GradeBoundaryTable;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Estimates how likely each final grade is by simulating the pending assessments.
+ *
+ * Pending marks are drawn from a normal distribution per assessment type, fitted to
+ * the student's completed results in the modules being simulated. Each trial is
+ * projected to a final percentage and graded through the preset's GradingStrategy,
+ * using its compiled GradeBoundaryTable.
+ */
+@Service
+public class OutcomeSimulationService {
+
+    public static final int DEFAULT_TRIALS = 100_000;
+
+    // Trials per parallel chunk. Fixed so a seed gives the same result on any machine.
+    private static final int TRIALS_PER_CHUNK = 8_192;
+
+    // Used when the student has no completed results yet
+    private static final double PRIOR_MEAN = 60.0;
+    private static final double PRIOR_STD_DEV = 15.0;
+
+    // Floor on the spread, so a couple of identical results don't pin every sample to one mark
+    private static final double MIN_STD_DEV = 5.0;
+
+    // Resample a mark outside 0-100 this many times before clamping it
+    private static final int MAX_RESAMPLES = 8;
+
+    private final GradeService gradeService;
+
+    public OutcomeSimulationService(GradeService gradeService) {
+        this.gradeService = gradeService;
+    }
+
+    /**
+     * Simulate the rest of one module with the default number of trials.
+     */
+    public OutcomeDistribution simulateModule(Module module, User user) {
+        return simulateModule(module, user, DEFAULT_TRIALS, ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * Simulate the rest of one module. The distributions are fitted to this module's results only.
+     *
+     * @param seed The same seed and trial count always give the same result
+     */
+    public OutcomeDistribution simulateModule(Module module, User user, int trials, long seed) {
+        return simulateTranscript(List.of(module), user, trials, seed).modules().get(0);
+    }
+
+    /**
+     * Simulate the rest of every module with the default number of trials.
+     */
+    public TranscriptOutcome simulateTranscript(List<Module> modules, User user) {
+        return simulateTranscript(modules, user, DEFAULT_TRIALS, ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * Simulate the rest of every module together, giving each module's grade distribution
+     * and the distribution of the overall GPA as calculateOverallGpa would report it
+     * once everything has been marked.
+     *
+     * @param seed The same seed and trial count always give the same result
+     */
+    public TranscriptOutcome simulateTranscript(List<Module> modules, User user, int trials, long seed) {
+        if (trials <= 0) {
+            throw new IllegalArgumentException("Trials must be positive: " + trials);
+        }
+
+        GradeBoundaryTable bands = gradeService.getBoundaryTable(user.getUniversityPreset());
+        Model model = Model.of(modules, MarkDistributions.of(modules));
+
+        // Split every stream up front, so chunks get the same streams however they are scheduled
+        int chunks = (trials + TRIALS_PER_CHUNK - 1) / TRIALS_PER_CHUNK;
+        SplittableRandom root = new SplittableRandom(seed);
+        SplittableRandom[] streams = new SplittableRandom[chunks];
+        for (int i = 0; i < chunks; i++) {
+            streams[i] = root.split();
+        }
+
+        Counts counts = IntStream.range(0, chunks)
+                .parallel()
+                .mapToObj(i -> run(model, bands, streams[i],
+                        Math.min(TRIALS_PER_CHUNK, trials - i * TRIALS_PER_CHUNK)))
+                .reduce(Counts::merge)
+                .orElseThrow();
+
+        List<OutcomeDistribution> outcomes = new ArrayList<>(modules.size());
+        for (int m = 0; m < modules.size(); m++) {
+            outcomes.add(moduleOutcome(model.graded[m], counts, m, bands, trials));
+        }
+
+        return new TranscriptOutcome(trials, List.copyOf(outcomes), toGpaDistribution(counts.overallGpa, trials));
+    }
+
+    /**
+     * Run one chunk of trials. Nothing in here allocates.
+     */
+    private static Counts run(Model model, GradeBoundaryTable bands, SplittableRandom random, int trials) {
+        Counts counts = new Counts(model.moduleCount, bands);
+        int bandCount = bands.bandCount();
+
+        for (int t = 0; t < trials; t++) {
+            long weightedGpa = 0;
+
+            for (int m = 0; m < model.moduleCount; m++) {
+                if (!model.graded[m]) {
+                    continue;
+                }
+
+                double score = model.bankedScore[m];
+                for (int p = model.pendingStart[m]; p < model.pendingStart[m + 1]; p++) {
+                    score += model.pendingWeight[p] * sampleMark(random, model.mean[p], model.stdDev[p]) / 100;
+                }
+
+                int band = bands.band(score * 100 / model.totalWeight[m]);
+                counts.bands[m * bandCount + band]++;
+                weightedGpa += (long) bands.gpaHundredths(band) * model.credits[m];
+            }
+
+            long gpa = model.totalCredits == 0
+                    ? 0
+                    : FixedPointGradeCalculator.divideHalfUp(weightedGpa, model.totalCredits);
+            counts.overallGpa[(int) gpa]++;
+        }
+
+        return counts;
+    }
+
+    /**
+     * Draw a percentage from a normal distribution truncated to 0-100.
+     */
+    private static double sampleMark(SplittableRandom random, double mean, double stdDev) {
+        for (int i = 0; i < MAX_RESAMPLES; i++) {
+            double mark = mean + stdDev * random.nextGaussian();
+            if (mark >= 0 && mark <= 100) {
+                return mark;
+            }
+        }
+        return Math.max(0, Math.min(100, mean));
+    }
+
+    private static OutcomeDistribution moduleOutcome(boolean graded, Counts counts, int module,
+                                                     GradeBoundaryTable bands, int trials) {
+        int bandCount = bands.bandCount();
+        Map<String, Double> probabilities = new LinkedHashMap<>();
+        long[] gpaCounts = new long[bands.maxGpaHundredths() + 1];
+
+        if (!graded) {
+            // Nothing to grade (no weight at all), same as GradeService
+            probabilities.put(GradeBoundaryTable.NO_GRADE, 1.0);
+            gpaCounts[0] = trials;
+            return new OutcomeDistribution(trials, probabilities, toGpaDistribution(gpaCounts, trials));
+        }
+
+        for (int band = 0; band < bandCount; band++) {
+            long count = counts.bands[module * bandCount + band];
+
+            // Always list the real bands, only list N/A if a trial landed in a gap
+            if (band < bandCount - 1 || count > 0) {
+                probabilities.put(bands.code(band), (double) count / trials);
+            }
+            gpaCounts[bands.gpaHundredths(band)] += count;
+        }
+
+        return new OutcomeDistribution(trials, probabilities, toGpaDistribution(gpaCounts, trials));
+    }
+
+    private static GpaDistribution toGpaDistribution(long[] counts, int trials) {
+        Map<BigDecimal, Double> probabilities = new LinkedHashMap<>();
+        long total = 0;
+
+        for (int gpa = 0; gpa < counts.length; gpa++) {
+            if (counts[gpa] > 0) {
+                probabilities.put(BigDecimal.valueOf(gpa, 2), (double) counts[gpa] / trials);
+                total += gpa * counts[gpa];
+            }
+        }
+
+        return new GpaDistribution(
+                (double) total / trials / 100,
+                percentile(counts, trials, 0.05),
+                percentile(counts, trials, 0.50),
+                percentile(counts, trials, 0.95),
+                probabilities
+        );
+    }
+
+    private static BigDecimal percentile(long[] counts, int trials, double fraction) {
+        long rank = Math.max(1, (long) Math.ceil(fraction * trials));
+        long seen = 0;
+
+        for (int gpa = 0; gpa < counts.length; gpa++) {
+            seen += counts[gpa];
+            if (seen >= rank) {
+                return BigDecimal.valueOf(gpa, 2);
+            }
+        }
+        return BigDecimal.valueOf(counts.length - 1, 2);
+    }
+
+    /**
+     * Mean and spread of the student's completed percentages for each assessment type.
+     * Types with one result borrow the spread of all results, types with none
+     * borrow both, and with no results at all a neutral prior is used.
+     */
+    private static final class MarkDistributions {
+
+        final double[] mean = new double[AssessmentType.values().length];
+        final double[] stdDev = new double[AssessmentType.values().length];
+
+        static MarkDistributions of(List<Module> modules) {
+            int types = AssessmentType.values().length;
+            Welford all = new Welford();
+            Welford[] byType = new Welford[types];
+            for (int i = 0; i < types; i++) {
+                byType[i] = new Welford();
+            }
+
+            for (Module module : modules) {
+                if (module.getAssessments() == null) {
+                    continue;
+                }
+                for (Assessment assessment : module.getAssessments()) {
+                    if (assessment.isCompleted()) {
+                        double percentage = assessment.getPercentageScore().doubleValue();
+                        all.add(percentage);
+                        byType[typeIndex(assessment)].add(percentage);
+                    }
+                }
+            }
+
+            double allMean = all.count > 0 ? all.mean : PRIOR_MEAN;
+            double allStdDev = all.count > 1 ? all.stdDev() : PRIOR_STD_DEV;
+
+            MarkDistributions distributions = new MarkDistributions();
+            for (int i = 0; i < types; i++) {
+                Welford type = byType[i];
+                distributions.mean[i] = type.count > 0 ? type.mean : allMean;
+                distributions.stdDev[i] = Math.max(MIN_STD_DEV, type.count > 1 ? type.stdDev() : allStdDev);
+            }
+            return distributions;
+        }
+
+        static int typeIndex(Assessment assessment) {
+            AssessmentType type = assessment.getType() != null ? assessment.getType() : AssessmentType.OTHER;
+            return type.ordinal();
+        }
+    }
+
+    /**
+     * Running mean and variance in one pass.
+     */
+    private static final class Welford {
+        int count;
+        double mean;
+        double sumOfSquares;
+
+        void add(double value) {
+            count++;
+            double delta = value - mean;
+            mean += delta / count;
+            sumOfSquares += delta * (value - mean);
+        }
+
+        double stdDev() {
+            return Math.sqrt(sumOfSquares / (count - 1));
+        }
+    }
+
+    /**
+     * The modules flattened into arrays for the sampling loop.
+     * Pending assessments of module m are at indexes pendingStart[m] to pendingStart[m + 1].
+     */
+    private static final class Model {
+        int moduleCount;
+        boolean[] graded;
+        double[] bankedScore;
+        double[] totalWeight;
+        int[] credits;
+        long totalCredits;
+        int[] pendingStart;
+        double[] pendingWeight;
+        double[] mean;
+        double[] stdDev;
+
+        static Model of(List<Module> modules, MarkDistributions distributions) {
+            Model model = new Model();
+            model.moduleCount = modules.size();
+            model.graded = new boolean[model.moduleCount];
+            model.bankedScore = new double[model.moduleCount];
+            model.totalWeight = new double[model.moduleCount];
+            model.credits = new int[model.moduleCount];
+            model.pendingStart = new int[model.moduleCount + 1];
+
+            List<Assessment> pending = new ArrayList<>();
+            for (int m = 0; m < model.moduleCount; m++) {
+                Module module = modules.get(m);
+                model.pendingStart[m] = pending.size();
+
+                double banked = 0;
+                double weight = 0;
+                if (module.getAssessments() != null) {
+                    for (Assessment assessment : module.getAssessments()) {
+                        weight += assessment.getWeightPercentage().doubleValue();
+                        if (assessment.isCompleted()) {
+                            banked += assessment.getWeightedContribution().doubleValue();
+                        } else {
+                            pending.add(assessment);
+                        }
+                    }
+                }
+
+                model.bankedScore[m] = banked;
+                model.totalWeight[m] = weight;
+                model.credits[m] = module.getCredits();
+                // A module with no weight never gets a grade, so it stays out of the GPA
+                model.graded[m] = weight > 0;
+                if (model.graded[m]) {
+                    model.totalCredits += module.getCredits();
+                }
+            }
+            model.pendingStart[model.moduleCount] = pending.size();
+
+            model.pendingWeight = new double[pending.size()];
+            model.mean = new double[pending.size()];
+            model.stdDev = new double[pending.size()];
+            for (int p = 0; p < pending.size(); p++) {
+                Assessment assessment = pending.get(p);
+                int type = MarkDistributions.typeIndex(assessment);
+                model.pendingWeight[p] = assessment.getWeightPercentage().doubleValue();
+                model.mean[p] = distributions.mean[type];
+                model.stdDev[p] = distributions.stdDev[type];
+            }
+            return model;
+        }
+    }
+
+    /**
+     * Band counts per module and overall GPA counts from a chunk of trials.
+     */
+    private static final class Counts {
+        final long[] bands;
+        final long[] overallGpa;
+
+        Counts(int moduleCount, GradeBoundaryTable table) {
+            this.bands = new long[moduleCount * table.bandCount()];
+            this.overallGpa = new long[table.maxGpaHundredths() + 1];
+        }
+
+        Counts merge(Counts other) {
+            for (int i = 0; i < bands.length; i++) {
+                bands[i] += other.bands[i];
+            }
+            for (int i = 0; i < overallGpa.length; i++) {
+                overallGpa[i] += other.overallGpa[i];
+            }
+            return this;
+        }
+    }
+}
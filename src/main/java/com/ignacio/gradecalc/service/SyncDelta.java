@@ -0,0 +1,30 @@
+package com.ignacio.gradecalc.service;
+
+import com.ignacio.gradecalc.enums.UniversityPreset;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * What a client needs to bring its copy of a user's data up to {@code revision}.
+ *
+ * @param revision             The revision to send as {@code since} next time
+ * @param full                 Whether this is everything (first sync, or a revision the server doesn't know)
+ *                             rather than only what changed
+ * @param universityPreset     The user's preset
+ * @param overallGpa           The overall GPA, or null if nothing changed
+ * @param modules              Modules that changed, or whose grade did, with their summaries
+ * @param assessments          Assessments that changed
+ * @param deletedModuleIds     Modules deleted since; their assessments went with them
+ * @param deletedAssessmentIds Assessments deleted since
+ */
+public record SyncDelta(
+        long revision,
+        boolean full,
+        UniversityPreset universityPreset,
+        BigDecimal overallGpa,
+        List<ModuleView> modules,
+        List<AssessmentView> assessments,
+        List<Long> deletedModuleIds,
+        List<Long> deletedAssessmentIds) {
+}
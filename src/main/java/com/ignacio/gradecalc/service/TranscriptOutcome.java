@@ -0,0 +1,16 @@
+package com.ignacio.gradecalc.service;
+
+import java.util.List;
+
+/**
+ * Simulated final outcome of a set of modules, sampled jointly.
+ *
+ * @param trials     Number of simulated completions
+ * @param modules    Outcome of each module, in the order the modules were given
+ * @param overallGpa Distribution of the credit-weighted overall GPA
+ */
+public record TranscriptOutcome(
+        int trials,
+        List<OutcomeDistribution> modules,
+        GpaDistribution overallGpa) {
+}
@@ -0,0 +1,14 @@
+package com.ignacio.gradecalc.service;
+
+import com.ignacio.gradecalc.entity.User;
+import com.ignacio.gradecalc.enums.UniversityPreset;
+
+/**
+ * The columns of a user needed to authenticate them, detached from JPA so it can be cached.
+ */
+public record UserCredentials(Long id, String username, String passwordHash, UniversityPreset universityPreset) {
+
+    public static UserCredentials of(User user) {
+        return new UserCredentials(user.getId(), user.getUsername(), user.getPasswordHash(), user.getUniversityPreset());
+    }
+}
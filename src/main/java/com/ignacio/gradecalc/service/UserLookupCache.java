@@ -0,0 +1,109 @@
+package com.ignacio.gradecalc.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.ignacio.gradecalc.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * In-process cache of user lookups by username, in front of every authenticated request.
+ * Entries expire after a fixed time and the least used are evicted past the maximum size.
+ * Unknown usernames are not cached, so a newly registered user is found straight away.
+ * Hit, miss and eviction counts are published as the "users" cache metrics.
+ */
+@Component
+public class UserLookupCache implements MeterBinder {
+
+    private final UserRepository userRepository;
+    private final Cache<String, UserCredentials> cache;
+
+    @Autowired
+    public UserLookupCache(UserRepository userRepository,
+                           @Value("${gradecalc.cache.users.max-size:10000}") long maxSize,
+                           @Value("${gradecalc.cache.users.ttl:10m}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    // Evicts on the calling thread with a controllable clock, for tests
+    UserLookupCache(UserRepository userRepository, long maxSize, Duration ttl, Ticker ticker) {
+        this.userRepository = userRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .ticker(ticker)
+                .executor(Runnable::run)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Find a user by username, from the cache if possible.
+     */
+    public Optional<UserCredentials> findByUsername(String username) {
+        return Optional.ofNullable(cache.get(username, key -> userRepository.findByUsername(key)
+                .map(UserCredentials::of)
+                .orElse(null)));
+    }
+
+    /**
+     * Drop the cached entry for a username. Call this when changing the user.
+     */
+    public void invalidate(String username) {
+        invalidateNowAndAfterCommit(() -> cache.invalidate(username));
+    }
+
+    /**
+     * Drop the cached entry for a user id, for callers that only know the id.
+     */
+    public void invalidate(Long userId) {
+        invalidateNowAndAfterCommit(() ->
+                cache.asMap().values().removeIf(credentials -> credentials.id().equals(userId)));
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public CacheStats getStats() {
+        return cache.stats();
+    }
+
+    /**
+     * Inside a transaction another request can reload the old row before the change commits,
+     * so drop the entry again once it has.
+     */
+    private static void invalidateNowAndAfterCommit(Runnable invalidation) {
+        invalidation.run();
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidation.run();
+                }
+            });
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "users");
+    }
+}
@@ -0,0 +1,10 @@
+package com.ignacio.gradecalc.service;
+
+/**
+ * A user's current data revision, looked up on its own to validate cached pages.
+ *
+ * @param userId       The user
+ * @param dataRevision Bumped by every change to the user's modules, assessments or preset
+ */
+public record UserRevision(Long userId, Long dataRevision) {
+}
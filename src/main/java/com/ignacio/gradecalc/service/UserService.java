@@ -2,7 +2,11 @@ package com.ignacio.gradecalc.service;
 
 import com.ignacio.gradecalc.entity.User;
 import com.ignacio.gradecalc.enums.UniversityPreset;
+import com.ignacio.gradecalc.event.PresetChanged;
+import com.ignacio.gradecalc.repository.AssessmentRepository;
+import com.ignacio.gradecalc.repository.ModuleRepository;
 import com.ignacio.gradecalc.repository.UserRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -13,9 +17,47 @@ import java.util.Optional;
 public class UserService {
 
     private final UserRepository userRepository;
+    private final ModuleRepository moduleRepository;
+    private final AssessmentRepository assessmentRepository;
+    private final UserLookupCache userLookupCache;
+    private final UsernameIndex usernameIndex;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public UserService(UserRepository userRepository) {
+    public UserService(UserRepository userRepository, ModuleRepository moduleRepository,
+                       AssessmentRepository assessmentRepository, UserLookupCache userLookupCache,
+                       UsernameIndex usernameIndex, ApplicationEventPublisher eventPublisher) {
         this.userRepository = userRepository;
+        this.moduleRepository = moduleRepository;
+        this.assessmentRepository = assessmentRepository;
+        this.userLookupCache = userLookupCache;
+        this.usernameIndex = usernameIndex;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Whether a username is already registered. Most unknown names are answered from the
+     * username index without a query.
+     */
+    public boolean usernameExists(String username) {
+        if (!usernameIndex.mightContain(username)) {
+            return false;
+        }
+        boolean exists = userRepository.existsByUsername(username);
+        if (!exists) {
+            usernameIndex.recordFalsePositive();
+        }
+        return exists;
+    }
+
+    /**
+     * Create a user, flushing straight away so a username taken by a concurrent registration
+     * fails here rather than at commit.
+     *
+     * @throws org.springframework.dao.DataIntegrityViolationException if the username is taken
+     */
+    public User register(String username, String passwordHash, UniversityPreset preset) {
+        usernameIndex.add(username);
+        return userRepository.saveAndFlush(new User(username, passwordHash, preset));
     }
 
     public Optional<User> findById(Long id) {
@@ -26,15 +68,50 @@ public class UserService {
         return userRepository.findByUsername(username);
     }
 
+    /**
+     * The user's data revision on its own, to check whether a cached page is still current.
+     */
+    @Transactional(readOnly = true)
+    public Optional<UserRevision> findRevision(String username) {
+        return userRepository.findRevisionByUsername(username);
+    }
+
     public User updateUniversityPreset(Long userId, UniversityPreset preset) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new IllegalArgumentException("User not found: " + userId));
 
         user.setUniversityPreset(preset);
+        userRepository.bumpDataRevision(userId);
+        userLookupCache.invalidate(user.getUsername());
+        eventPublisher.publishEvent(new PresetChanged(userId));
         return userRepository.save(user);
     }
 
-    public void deleteUser(Long userId) {
-        userRepository.deleteById(userId);
+    /**
+     * Replace a user's stored password hash, e.g. when a login re-hashes it at the current BCrypt cost.
+     */
+    public User updatePasswordHash(String username, String passwordHash) {
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new IllegalArgumentException("User not found: " + username));
+
+        user.setPasswordHash(passwordHash);
+        userLookupCache.invalidate(username);
+        return userRepository.save(user);
+    }
+
+    /**
+     * Delete a user with all their modules and assessments.
+     * Three set-based statements, children first, so nothing is loaded however much history the user has.
+     */
+    public DeletionCounts deleteUser(Long userId) {
+        int assessments = assessmentRepository.bulkDeleteByUserId(userId);
+        int modules = moduleRepository.bulkDeleteByUserId(userId);
+        int users = userRepository.bulkDeleteById(userId);
+        userLookupCache.invalidate(userId);
+        if (users > 0) {
+            usernameIndex.recordRemoval();
+        }
+
+        return new DeletionCounts(users, modules, assessments);
     }
 }
\ No newline at end of file
@@ -0,0 +1,295 @@
+package com.ignacio.gradecalc.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Bloom filter over every username, so registration and login can tell that a name
+ * definitely does not exist without asking the database. "Might exist" still goes to the database.
+ *
+ * Names are added when registered. A plain Bloom filter can't remove, so deleted names stay
+ * as harmless false positives until the next rebuild, which runs when enough have built up
+ * or the filter has filled past its target false-positive rate.
+ * Until the first build finishes every name "might exist".
+ */
+@Component
+public class UsernameIndex implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(UsernameIndex.class);
+
+    private final Consumer<Consumer<String>> allUsernames;
+    private final int expectedCount;
+    private final double targetFalsePositiveRate;
+
+    private volatile Filter filter;
+    // Registrations during a rebuild go into the filter being built too
+    private volatile Filter building;
+
+    private final LongAdder removedSinceBuild = new LongAdder();
+    private final LongAdder definitelyAbsent = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+
+    @Autowired
+    public UsernameIndex(DataSource dataSource,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${gradecalc.usernames.expected-count:100000}") int expectedCount,
+                         @Value("${gradecalc.usernames.false-positive-rate:0.01}") double targetFalsePositiveRate) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.setFetchSize(1000);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+
+        this.allUsernames = sink -> transactionTemplate.executeWithoutResult(status ->
+                jdbcTemplate.query("SELECT username FROM users", rs -> {
+                    sink.accept(rs.getString(1));
+                }));
+        this.expectedCount = expectedCount;
+        this.targetFalsePositiveRate = targetFalsePositiveRate;
+    }
+
+    // Reads names from the given source instead of the database, for tests
+    UsernameIndex(Consumer<Consumer<String>> allUsernames, int expectedCount, double targetFalsePositiveRate) {
+        this.allUsernames = allUsernames;
+        this.expectedCount = expectedCount;
+        this.targetFalsePositiveRate = targetFalsePositiveRate;
+    }
+
+    /**
+     * @return false only if the username is certainly not registered
+     */
+    public boolean mightContain(String username) {
+        Filter current = filter;
+        if (current == null || current.mightContain(username)) {
+            return true;
+        }
+        definitelyAbsent.increment();
+        return false;
+    }
+
+    /**
+     * Add a username that is about to be saved. Call inside the saving transaction:
+     * the name is added again once it commits, in case a rebuild read the table in between.
+     */
+    public void add(String username) {
+        addNow(username);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    addNow(username);
+                }
+            });
+        }
+    }
+
+    /**
+     * Note that a user was deleted. The name stays in the filter until the next rebuild.
+     */
+    public void recordRemoval() {
+        removedSinceBuild.increment();
+    }
+
+    /**
+     * Note that mightContain said yes but the database had no such user.
+     */
+    public void recordFalsePositive() {
+        falsePositives.increment();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void build() {
+        Filter next = Filter.sized(Math.max(expectedCount, 2 * currentCount()), targetFalsePositiveRate);
+        building = next;
+        try {
+            long before = System.nanoTime();
+            allUsernames.accept(next::add);
+            removedSinceBuild.reset();
+            filter = next;
+
+            log.info("Username index built: {} names, {} KiB, estimated false-positive rate {} in {} ms",
+                    next.getCount(), next.getMemoryBytes() / 1024,
+                    String.format("%.4f", next.getEstimatedFalsePositiveRate()),
+                    (System.nanoTime() - before) / 1_000_000);
+        } finally {
+            building = null;
+        }
+    }
+
+    /**
+     * Rebuild once deleted names make up a tenth of the filter, or it has filled past twice the
+     * target rate. Set gradecalc.usernames.rebuild-cron=- to disable.
+     */
+    @Scheduled(cron = "${gradecalc.usernames.rebuild-cron:0 */15 * * * *}")
+    public void rebuildIfStale() {
+        Filter current = filter;
+        if (current != null
+                && removedSinceBuild.sum() * 10 < current.getCount()
+                && current.getEstimatedFalsePositiveRate() < 2 * targetFalsePositiveRate) {
+            return;
+        }
+        build();
+    }
+
+    public double getEstimatedFalsePositiveRate() {
+        Filter current = filter;
+        return current == null ? 1.0 : current.getEstimatedFalsePositiveRate();
+    }
+
+    public long getMemoryBytes() {
+        Filter current = filter;
+        return current == null ? 0 : current.getMemoryBytes();
+    }
+
+    public long getDefinitelyAbsentCount() {
+        return definitelyAbsent.sum();
+    }
+
+    public long getFalsePositiveCount() {
+        return falsePositives.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("usernames.filter.false.positive.rate", this, UsernameIndex::getEstimatedFalsePositiveRate)
+                .description("Estimated chance that an unknown username is reported as possibly registered")
+                .register(registry);
+        Gauge.builder("usernames.filter.memory", this, UsernameIndex::getMemoryBytes)
+                .description("Size of the username Bloom filter")
+                .baseUnit("bytes")
+                .register(registry);
+        FunctionCounter.builder("usernames.filter.checks", definitelyAbsent, LongAdder::sum)
+                .description("Username checks answered without the database")
+                .tags("result", "absent")
+                .register(registry);
+        FunctionCounter.builder("usernames.filter.checks", falsePositives, LongAdder::sum)
+                .description("Username checks that went to the database and found nothing")
+                .tags("result", "false_positive")
+                .register(registry);
+    }
+
+    private void addNow(String username) {
+        // Read building first: build() publishes the new filter before clearing building, so a rebuild
+        // either is seen here or has already made its filter current, and can't be missed in between
+        Filter next = building;
+        Filter current = filter;
+        if (next != null) {
+            next.add(username);
+        }
+        if (current != null && current != next) {
+            current.add(username);
+        }
+    }
+
+    private long currentCount() {
+        Filter current = filter;
+        return current == null ? 0 : current.getCount() - removedSinceBuild.sum();
+    }
+
+    /**
+     * The bits themselves. Positions come from two 64-bit hashes of the name's UTF-8 bytes,
+     * combined as h1 + i * h2 for each of the k positions.
+     */
+    static final class Filter {
+        private final AtomicLongArray words;
+        private final long bits;
+        private final int hashes;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder setBits = new LongAdder();
+
+        private Filter(long bits, int hashes) {
+            this.words = new AtomicLongArray((int) ((bits + 63) / 64));
+            this.bits = words.length() * 64L;
+            this.hashes = hashes;
+        }
+
+        /**
+         * Optimal size for n names at false-positive rate p: m = -n ln p / (ln 2)^2 bits and k = m/n ln 2 hashes.
+         */
+        static Filter sized(long expectedCount, double falsePositiveRate) {
+            long n = Math.max(1, expectedCount);
+            long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            int k = Math.max(1, (int) Math.round((double) m / n * Math.log(2)));
+            return new Filter(m, k);
+        }
+
+        void add(String username) {
+            long h1 = hash(username);
+            long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+            for (int i = 0; i < hashes; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bits);
+                long mask = 1L << bit;
+                int word = (int) (bit >>> 6);
+                long previous = words.getAndAccumulate(word, mask, (a, b) -> a | b);
+                if ((previous & mask) == 0) {
+                    setBits.increment();
+                }
+            }
+            count.increment();
+        }
+
+        boolean mightContain(String username) {
+            long h1 = hash(username);
+            long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+            for (int i = 0; i < hashes; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bits);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        long getCount() {
+            return count.sum();
+        }
+
+        long getMemoryBytes() {
+            return words.length() * 8L;
+        }
+
+        /**
+         * (fraction of bits set)^k, from the bits actually set rather than the planned count.
+         */
+        double getEstimatedFalsePositiveRate() {
+            return Math.pow((double) setBits.sum() / bits, hashes);
+        }
+
+        // FNV-1a over the UTF-8 bytes, finished with the MurmurHash3 mixer to spread the bits
+        private static long hash(String username) {
+            long hash = 0xCBF29CE484222325L;
+            for (byte b : username.getBytes(StandardCharsets.UTF_8)) {
+                hash ^= b & 0xFF;
+                hash *= 0x100000001B3L;
+            }
+            return mix(hash);
+        }
+
+        private static long mix(long z) {
+            z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+            z = (z ^ (z >>> 33)) * 0xC4CEB9FE1A85EC53L;
+            return z ^ (z >>> 33);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.ignacio.gradecalc.strategy;
+
+import com.ignacio.gradecalc.entity.GradingScale;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The boundary tables and alias indexes a strategy has compiled, one of each per university.
+ * A strategy can be handed more than one university's scales (StandardStrategy grades every
+ * preset without a strategy of its own), so each university keeps its own compiled copy
+ * instead of them replacing one another on every switch.
+ * A university's copy is recompiled when it is handed a different list, as after a reload.
+ */
+final class CompiledScales {
+
+    private final GradeAliases aliases;
+    private final Map<String, GradeBoundaryTable> boundaryTables = new ConcurrentHashMap<>();
+    private final Map<String, GradeAliasIndex> aliasIndexes = new ConcurrentHashMap<>();
+
+    CompiledScales(GradeAliases aliases) {
+        this.aliases = aliases;
+    }
+
+    /**
+     * Get the compiled boundary table for these scales, compiling it on first use.
+     */
+    GradeBoundaryTable boundaryTable(List<GradingScale> scales) {
+        String university = universityOf(scales);
+        GradeBoundaryTable table = boundaryTables.get(university);
+        if (table == null || !table.isCompiledFrom(scales)) {
+            table = GradeBoundaryTable.compile(scales);
+            boundaryTables.put(university, table);
+        }
+        return table;
+    }
+
+    /**
+     * Get the compiled alias index for these scales, compiling it on first use.
+     */
+    GradeAliasIndex aliasIndex(List<GradingScale> scales) {
+        String university = universityOf(scales);
+        GradeAliasIndex index = aliasIndexes.get(university);
+        if (index == null || !index.isCompiledFrom(scales)) {
+            index = GradeAliasIndex.compile(scales, aliases);
+            aliasIndexes.put(university, index);
+        }
+        return index;
+    }
+
+    // Every list the registry hands out holds one university's rows
+    private static String universityOf(List<GradingScale> scales) {
+        return scales.isEmpty() ? "" : String.valueOf(scales.get(0).getUniversity());
+    }
+}
@@ -0,0 +1,77 @@
+package com.ignacio.gradecalc.strategy;
+
+import com.ignacio.gradecalc.entity.GradingScale;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable index from every accepted spelling of a grade to its scale row,
+ * compiled once from a university's grading scales and a strategy's aliases.
+ * Resolving a target grade is then a single hash lookup.
+ */
+final class GradeAliasIndex {
+
+    private final List<GradingScale> source;
+    private final Map<String, GradingScale> scalesByKey;
+
+    private GradeAliasIndex(List<GradingScale> source, Map<String, GradingScale> scalesByKey) {
+        this.source = source;
+        this.scalesByKey = scalesByKey;
+    }
+
+    /**
+     * Compile the index for the given scales.
+     * Aliases for grades that are not in the scales are ignored.
+     * @throws IllegalStateException if two scale rows share a code, or an alias
+     *                               collides with the code of a different grade
+     */
+    static GradeAliasIndex compile(List<GradingScale> scales, GradeAliases aliases) {
+        Map<String, GradingScale> scalesByKey = new HashMap<>();
+
+        for (GradingScale scale : scales) {
+            GradingScale existing = scalesByKey.putIfAbsent(GradeAliases.key(scale.getGradeCode()), scale);
+            if (existing != null) {
+                throw new IllegalStateException("Duplicate grade code '" + scale.getGradeCode()
+                        + "' for " + scale.getUniversity());
+            }
+        }
+
+        Map<String, GradingScale> codes = new HashMap<>(scalesByKey);
+
+        for (Map.Entry<String, String> alias : aliases.asMap().entrySet()) {
+            GradingScale target = codes.get(alias.getValue());
+            if (target == null) {
+                continue;
+            }
+
+            GradingScale existing = scalesByKey.putIfAbsent(alias.getKey(), target);
+            if (existing != null && existing != target) {
+                throw new IllegalStateException("Grade alias '" + alias.getKey() + "' for "
+                        + target.getGradeCode() + " overlaps grade " + existing.getGradeCode());
+            }
+        }
+
+        return new GradeAliasIndex(scales, Collections.unmodifiableMap(scalesByKey));
+    }
+
+    /**
+     * Check whether this index was compiled from exactly this list of scales.
+     */
+    boolean isCompiledFrom(List<GradingScale> scales) {
+        return source == scales;
+    }
+
+    /**
+     * Find the scale row for a grade code or any of its aliases.
+     * @return The matching scale, or null if the input is not a known grade
+     */
+    GradingScale find(String gradeCode) {
+        if (gradeCode == null) {
+            return null;
+        }
+        return scalesByKey.get(GradeAliases.key(gradeCode));
+    }
+}
@@ -0,0 +1,73 @@
+package com.ignacio.gradecalc.strategy;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The alternative spellings a strategy accepts for each of its grade codes.
+ * Users might type "2:1", "II-1" or "21" for the TCD grade "II.1".
+ * Definitions are checked when they are built, so an alias that points at
+ * two different grades fails at startup instead of depending on lookup order.
+ */
+final class GradeAliases {
+
+    private static final GradeAliases NONE = new GradeAliases(Collections.emptyMap());
+
+    private final Map<String, String> canonicalByAlias;
+
+    private GradeAliases(Map<String, String> canonicalByAlias) {
+        this.canonicalByAlias = canonicalByAlias;
+    }
+
+    static GradeAliases none() {
+        return NONE;
+    }
+
+    static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Normalise raw user input into the form used as an index key.
+     */
+    static String key(String gradeCode) {
+        return gradeCode.trim().toUpperCase(Locale.ROOT);
+    }
+
+    Map<String, String> asMap() {
+        return canonicalByAlias;
+    }
+
+    static final class Builder {
+
+        private final Map<String, String> canonicalByAlias = new HashMap<>();
+
+        private Builder() {}
+
+        /**
+         * Register alternative spellings for a canonical grade code.
+         * @throws IllegalStateException if an alias is already registered for another grade
+         */
+        Builder alias(String canonicalCode, String... aliases) {
+            String canonical = key(canonicalCode);
+
+            for (String alias : aliases) {
+                String aliasKey = key(alias);
+                String existing = canonicalByAlias.putIfAbsent(aliasKey, canonical);
+
+                if (existing != null && !existing.equals(canonical)) {
+                    throw new IllegalStateException("Ambiguous grade alias '" + alias
+                            + "' maps to both " + existing + " and " + canonical);
+                }
+            }
+
+            return this;
+        }
+
+        GradeAliases build() {
+            return new GradeAliases(Collections.unmodifiableMap(new HashMap<>(canonicalByAlias)));
+        }
+    }
+}
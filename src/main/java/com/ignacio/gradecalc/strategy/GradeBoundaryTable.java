@@ -0,0 +1,186 @@
+package com.ignacio.gradecalc.strategy;
+
+import com.ignacio.gradecalc.entity.GradingScale;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable lookup table compiled once from a university's grading scales.
+ * Bands are sorted by their lower boundary so a percentage can be resolved
+ * with a binary search instead of a scan over every scale row.
+ *
+ * For bulk grading, the grade for every percentage from 0.00 to 100.00 is also compiled
+ * into an array, so a percentage in hundredths is graded with one array read. Bands are
+ * numbered highest first for this, with one extra band at the end for "N/A".
+ */
+public final class GradeBoundaryTable {
+
+    public static final String NO_GRADE = "N/A";
+    public static final String NO_GRADE_NAME = "No Grade";
+
+    private static final int MAX_HUNDREDTHS = 100_00;
+
+    private final List<GradingScale> source;
+    private final GradingScale[] bands;
+    private final BigDecimal[] minimums;
+    private final BigDecimal[] maximums;
+    private final boolean overlapping;
+
+    // Highest band first; the number after the last band is "N/A"
+    private final GradingScale[] ranked;
+    private final int[] gpaHundredths;
+    private final int maxGpaHundredths;
+    private final int[] bandByHundredths;
+
+    private GradeBoundaryTable(List<GradingScale> source) {
+        this.source = source;
+        this.bands = source.toArray(new GradingScale[0]);
+        Arrays.sort(bands, Comparator.comparing(GradingScale::getMinPercentage));
+
+        this.minimums = new BigDecimal[bands.length];
+        this.maximums = new BigDecimal[bands.length];
+        boolean overlaps = false;
+
+        for (int i = 0; i < bands.length; i++) {
+            minimums[i] = bands[i].getMinPercentage();
+            maximums[i] = bands[i].getMaxPercentage();
+            if (i > 0 && minimums[i].compareTo(maximums[i - 1]) <= 0) {
+                overlaps = true;
+            }
+        }
+
+        this.overlapping = overlaps;
+
+        this.ranked = new GradingScale[bands.length];
+        this.gpaHundredths = new int[bands.length + 1];
+        int maxGpa = 0;
+        for (int i = 0; i < bands.length; i++) {
+            ranked[i] = bands[bands.length - 1 - i];
+            gpaHundredths[i] = toHundredths(ranked[i].getGpaPoints());
+            maxGpa = Math.max(maxGpa, gpaHundredths[i]);
+        }
+        this.maxGpaHundredths = maxGpa;
+
+        this.bandByHundredths = new int[MAX_HUNDREDTHS + 1];
+        for (int hundredths = 0; hundredths <= MAX_HUNDREDTHS; hundredths++) {
+            bandByHundredths[hundredths] = bandNumber(find(BigDecimal.valueOf(hundredths, 2)));
+        }
+    }
+
+    /**
+     * Compile the given scales into a lookup table.
+     */
+    static GradeBoundaryTable compile(List<GradingScale> scales) {
+        return new GradeBoundaryTable(scales);
+    }
+
+    /**
+     * Check whether this table was compiled from exactly this list of scales.
+     * Scale lists are treated as immutable snapshots, so identity is enough.
+     */
+    boolean isCompiledFrom(List<GradingScale> scales) {
+        return source == scales;
+    }
+
+    /**
+     * Find the band whose [min, max] range contains the percentage.
+     * @return The matching scale, or null if the percentage falls outside every band
+     */
+    GradingScale find(BigDecimal percentage) {
+        if (overlapping) {
+            // Overlapping bands are resolved by the original row order, as before
+            for (GradingScale scale : source) {
+                if (percentage.compareTo(scale.getMinPercentage()) >= 0
+                        && percentage.compareTo(scale.getMaxPercentage()) <= 0) {
+                    return scale;
+                }
+            }
+            return null;
+        }
+
+        // Binary search for the highest band whose minimum is <= percentage
+        int low = 0;
+        int high = minimums.length - 1;
+        int candidate = -1;
+
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (minimums[mid].compareTo(percentage) <= 0) {
+                candidate = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+
+        if (candidate < 0 || percentage.compareTo(maximums[candidate]) > 0) {
+            return null;
+        }
+
+        return bands[candidate];
+    }
+
+    /**
+     * Band number of a percentage given in hundredths (e.g. 6667 for 66.67%).
+     * Percentages outside 0-100 are rare and fall back to a search.
+     */
+    public int band(long percentageHundredths) {
+        if (percentageHundredths >= 0 && percentageHundredths <= MAX_HUNDREDTHS) {
+            return bandByHundredths[(int) percentageHundredths];
+        }
+        return bandNumber(find(BigDecimal.valueOf(percentageHundredths, 2)));
+    }
+
+    /**
+     * Band number of a percentage between 0 and 100, rounded to 2 places HALF_UP like GradeService.
+     */
+    public int band(double percentage) {
+        long hundredths = (long) Math.floor(percentage * 100 + 0.5);
+        return bandByHundredths[(int) Math.max(0, Math.min(MAX_HUNDREDTHS, hundredths))];
+    }
+
+    public int bandCount() {
+        return ranked.length + 1;
+    }
+
+    public int noGradeBand() {
+        return ranked.length;
+    }
+
+    public String code(int band) {
+        return band == ranked.length ? NO_GRADE : ranked[band].getGradeCode();
+    }
+
+    public String name(int band) {
+        return band == ranked.length ? NO_GRADE_NAME : ranked[band].getGradeName();
+    }
+
+    public int gpaHundredths(int band) {
+        return gpaHundredths[band];
+    }
+
+    public int maxGpaHundredths() {
+        return maxGpaHundredths;
+    }
+
+    private int bandNumber(GradingScale scale) {
+        for (int i = 0; i < ranked.length; i++) {
+            if (ranked[i] == scale) {
+                return i;
+            }
+        }
+        return ranked.length;
+    }
+
+    // The strategies give no GPA points as zero
+    private static int toHundredths(BigDecimal gpaPoints) {
+        if (gpaPoints == null) {
+            return 0;
+        }
+        return gpaPoints.setScale(2, RoundingMode.HALF_UP).unscaledValue().intValueExact();
+    }
+}
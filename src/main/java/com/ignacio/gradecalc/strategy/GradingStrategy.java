@@ -39,6 +39,23 @@ public interface GradingStrategy {
      */
     BigDecimal getMinimumPercentageForGrade(String targetGradeCode, List<GradingScale> scales);
 
+    /**
+     * Get the compiled boundary table this strategy grades with, for code that grades many
+     * percentages at once without a BigDecimal per percentage.
+     * @param scales The grading scales for this university
+     * @return The table, compiled on first use and kept until the scales are reloaded
+     */
+    GradeBoundaryTable boundaryTable(List<GradingScale> scales);
+
+    /**
+     * Compile everything this strategy derives from the scales (the boundary table and the grade
+     * alias index) now, so a conflict is reported when the scales are loaded rather than on a
+     * student's request.
+     * @param scales The grading scales for this university
+     * @throws IllegalStateException if two scale rows share a code, or an alias overlaps another grade
+     */
+    void prepare(List<GradingScale> scales);
+
     /**
      * Get the university code this strategy handles.
      * @return The university preset code (e.g., "UCD", "TCD", "TUD")
@@ -9,6 +9,20 @@ import java.util.List;
 @Component
 public class StandardStrategy implements GradingStrategy {
 
+    /**
+     * Common variations of the letter grades.
+     * Users might type "first", "1st", "1", or "A" for the same grade.
+     */
+    private static final GradeAliases ALIASES = GradeAliases.builder()
+            .alias("A", "FIRST", "1ST", "1")
+            .alias("B", "SECOND", "2ND", "2")
+            .alias("C", "THIRD", "3RD", "3")
+            .alias("D", "PASS", "4")
+            .alias("F", "FAIL")
+            .build();
+
+    private final CompiledScales compiled = new CompiledScales(ALIASES);
+
     @Override
     public String getGradeCode(BigDecimal percentage, List<GradingScale> scales) {
         GradingScale scale = findScaleForPercentage(percentage, scales);
@@ -29,13 +43,19 @@ public class StandardStrategy implements GradingStrategy {
 
     @Override
     public BigDecimal getMinimumPercentageForGrade(String targetGradeCode, List<GradingScale> scales) {
-        String normalised = normaliseGradeCode(targetGradeCode);
+        GradingScale scale = compiled.aliasIndex(scales).find(targetGradeCode);
+        return scale != null ? scale.getMinPercentage() : null;
+    }
 
-        return scales.stream()
-                .filter(scale -> normaliseGradeCode(scale.getGradeCode()).equalsIgnoreCase(normalised))
-                .map(GradingScale::getMinPercentage)
-                .findFirst()
-                .orElse(null);
+    @Override
+    public GradeBoundaryTable boundaryTable(List<GradingScale> scales) {
+        return compiled.boundaryTable(scales);
+    }
+
+    @Override
+    public void prepare(List<GradingScale> scales) {
+        compiled.boundaryTable(scales);
+        compiled.aliasIndex(scales);
     }
 
     @Override
@@ -48,46 +68,6 @@ public class StandardStrategy implements GradingStrategy {
             return null;
         }
 
-        return scales.stream()
-                .filter(scale -> percentage.compareTo(scale.getMinPercentage()) >= 0
-                        && percentage.compareTo(scale.getMaxPercentage()) <= 0)
-                .findFirst()
-                .orElse(null);
-    }
-
-    /**
-     * Normalise grade code input to handle common variations.
-     * Users might type "first", "1st", "1", or "A" for the same grade.
-     */
-    private String normaliseGradeCode(String gradeCode) {
-        if (gradeCode == null) {
-            return "";
-        }
-
-        String normalised = gradeCode.toUpperCase().trim();
-
-        // Convert descriptive names to letter grades
-        normalised = normalised
-                .replace("FIRST", "A")
-                .replace("1ST", "A")
-                .replace("SECOND", "B")
-                .replace("2ND", "B")
-                .replace("THIRD", "C")
-                .replace("3RD", "C")
-                .replace("PASS", "D")
-                .replace("FAIL", "F");
-
-        // Handle numeric inputs
-        if (normalised.equals("1")) {
-            normalised = "A";
-        } else if (normalised.equals("2")) {
-            normalised = "B";
-        } else if (normalised.equals("3")) {
-            normalised = "C";
-        } else if (normalised.equals("4")) {
-            normalised = "D";
-        }
-
-        return normalised;
+        return compiled.boundaryTable(scales).find(percentage);
     }
 }
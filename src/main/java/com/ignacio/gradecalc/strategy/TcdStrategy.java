@@ -9,6 +9,19 @@ import java.util.List;
 @Component
 public class TcdStrategy implements GradingStrategy {
 
+    /**
+     * Common variations in how users type TCD grades.
+     * Users might type "2.1", "2:1", "II1", "II.1", or "II-1" for the same grade.
+     */
+    private static final GradeAliases ALIASES = GradeAliases.builder()
+            .alias("I", "1ST")
+            .alias("II.1", "2.1", "2:1", "2-1", "21", "II1", "II-1", "II:1")
+            .alias("II.2", "2.2", "2:2", "2-2", "22", "II2", "II-2", "II:2")
+            .alias("III", "3RD")
+            .build();
+
+    private final CompiledScales compiled = new CompiledScales(ALIASES);
+
     @Override
     public String getGradeCode(BigDecimal percentage, List<GradingScale> scales) {
         GradingScale scale = findScaleForPercentage(percentage, scales);
@@ -30,14 +43,19 @@ public class TcdStrategy implements GradingStrategy {
 
     @Override
     public BigDecimal getMinimumPercentageForGrade(String targetGradeCode, List<GradingScale> scales) {
-        // Handle common variations in how users might type Roman numerals
-        String normalised = normaliseGradeCode(targetGradeCode);
+        GradingScale scale = compiled.aliasIndex(scales).find(targetGradeCode);
+        return scale != null ? scale.getMinPercentage() : null;
+    }
 
-        return scales.stream()
-                .filter(scale -> normaliseGradeCode(scale.getGradeCode()).equalsIgnoreCase(normalised))
-                .map(GradingScale::getMinPercentage)
-                .findFirst()
-                .orElse(null);
+    @Override
+    public GradeBoundaryTable boundaryTable(List<GradingScale> scales) {
+        return compiled.boundaryTable(scales);
+    }
+
+    @Override
+    public void prepare(List<GradingScale> scales) {
+        compiled.boundaryTable(scales);
+        compiled.aliasIndex(scales);
     }
 
     @Override
@@ -50,46 +68,6 @@ public class TcdStrategy implements GradingStrategy {
             return null;
         }
 
-        return scales.stream()
-                .filter(scale -> percentage.compareTo(scale.getMinPercentage()) >= 0
-                        && percentage.compareTo(scale.getMaxPercentage()) <= 0)
-                .findFirst()
-                .orElse(null);
-    }
-
-    /**
-     * Normalise grade code input to handle common variations.
-     * Users might type "2.1", "2:1", "II1", "II.1", or "II-1" for the same grade.
-     */
-    private String normaliseGradeCode(String gradeCode) {
-        if (gradeCode == null) {
-            return "";
-        }
-
-        String normalised = gradeCode.toUpperCase().trim();
-
-        // Convert common numeric representations to Roman numerals
-        normalised = normalised
-                .replace("2.1", "II.1")
-                .replace("2:1", "II.1")
-                .replace("2-1", "II.1")
-                .replace("21", "II.1")
-                .replace("2.2", "II.2")
-                .replace("2:2", "II.2")
-                .replace("2-2", "II.2")
-                .replace("22", "II.2")
-                .replace("1ST", "I")
-                .replace("3RD", "III");
-
-        // Normalise separators within Roman numerals
-        normalised = normalised
-                .replace("II1", "II.1")
-                .replace("II-1", "II.1")
-                .replace("II:1", "II.1")
-                .replace("II2", "II.2")
-                .replace("II-2", "II.2")
-                .replace("II:2", "II.2");
-
-        return normalised;
+        return compiled.boundaryTable(scales).find(percentage);
     }
-}
\ No newline at end of file
+}
@@ -9,6 +9,10 @@ import java.util.List;
 @Component
 public class UcdStrategy implements GradingStrategy {
 
+    private static final GradeAliases ALIASES = GradeAliases.none();
+
+    private final CompiledScales compiled = new CompiledScales(ALIASES);
+
     @Override
     public String getGradeCode(BigDecimal percentage, List<GradingScale> scales) {
         GradingScale scale = findScaleForPercentage(percentage, scales);
@@ -29,11 +33,19 @@ public class UcdStrategy implements GradingStrategy {
 
     @Override
     public BigDecimal getMinimumPercentageForGrade(String targetGradeCode, List<GradingScale> scales) {
-        return scales.stream()
-                .filter(scale -> scale.getGradeCode().equalsIgnoreCase(targetGradeCode))
-                .map(GradingScale::getMinPercentage)
-                .findFirst()
-                .orElse(null);
+        GradingScale scale = compiled.aliasIndex(scales).find(targetGradeCode);
+        return scale != null ? scale.getMinPercentage() : null;
+    }
+
+    @Override
+    public GradeBoundaryTable boundaryTable(List<GradingScale> scales) {
+        return compiled.boundaryTable(scales);
+    }
+
+    @Override
+    public void prepare(List<GradingScale> scales) {
+        compiled.boundaryTable(scales);
+        compiled.aliasIndex(scales);
     }
 
     @Override
@@ -46,10 +58,6 @@ public class UcdStrategy implements GradingStrategy {
             return null;
         }
 
-        return scales.stream()
-                .filter(scale -> percentage.compareTo(scale.getMinPercentage()) >= 0
-                        && percentage.compareTo(scale.getMaxPercentage()) <= 0)
-                .findFirst()
-                .orElse(null);
+        return compiled.boundaryTable(scales).find(percentage);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,64 @@
+-- =============================================
+-- BASELINE SCHEMA
+-- =============================================
+-- The tables Hibernate used to create with ddl-auto, written out so the schema is versioned.
+-- Kept to SQL that runs unchanged on H2 and PostgreSQL.
+
+-- Ids are handed out by Hibernate in blocks of 50 (allocationSize on each entity)
+CREATE SEQUENCE users_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE modules_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE assessments_seq START WITH 1 INCREMENT BY 50;
+-- Starts above the seeded rows in V2
+CREATE SEQUENCE grading_scales_seq START WITH 1001 INCREMENT BY 50;
+
+CREATE TABLE users (
+    id                BIGINT       NOT NULL,
+    username          VARCHAR(50)  NOT NULL,
+    password_hash     VARCHAR(255) NOT NULL,
+    university_preset VARCHAR(20)  NOT NULL,
+    created_at        TIMESTAMP    NOT NULL,
+    CONSTRAINT pk_users PRIMARY KEY (id),
+    CONSTRAINT uk_users_username UNIQUE (username)
+);
+
+CREATE TABLE modules (
+    id               BIGINT        NOT NULL,
+    user_id          BIGINT        NOT NULL,
+    name             VARCHAR(100)  NOT NULL,
+    code             VARCHAR(20),
+    credits          INTEGER       NOT NULL,
+    target_grade     VARCHAR(10),
+    semester         VARCHAR(20),
+    created_at       TIMESTAMP     NOT NULL,
+    completed_weight NUMERIC(7, 2) NOT NULL DEFAULT 0,
+    weighted_score   NUMERIC(9, 4) NOT NULL DEFAULT 0,
+    pending_weight   NUMERIC(7, 2) NOT NULL DEFAULT 0,
+    completed_count  INTEGER       NOT NULL DEFAULT 0,
+    CONSTRAINT pk_modules PRIMARY KEY (id),
+    CONSTRAINT fk_modules_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE TABLE assessments (
+    id                BIGINT        NOT NULL,
+    module_id         BIGINT        NOT NULL,
+    name              VARCHAR(100)  NOT NULL,
+    type              VARCHAR(50)   NOT NULL,
+    weight_percentage NUMERIC(5, 2) NOT NULL,
+    obtained_mark     NUMERIC(5, 2),
+    total_marks       NUMERIC(5, 2) NOT NULL,
+    due_date          DATE,
+    created_at        TIMESTAMP     NOT NULL,
+    CONSTRAINT pk_assessments PRIMARY KEY (id),
+    CONSTRAINT fk_assessments_module FOREIGN KEY (module_id) REFERENCES modules (id)
+);
+
+CREATE TABLE grading_scales (
+    id             BIGINT        NOT NULL,
+    university     VARCHAR(20)   NOT NULL,
+    grade_code     VARCHAR(10)   NOT NULL,
+    grade_name     VARCHAR(50)   NOT NULL,
+    min_percentage NUMERIC(5, 2) NOT NULL,
+    max_percentage NUMERIC(5, 2) NOT NULL,
+    gpa_points     NUMERIC(3, 2),
+    CONSTRAINT pk_grading_scales PRIMARY KEY (id)
+);
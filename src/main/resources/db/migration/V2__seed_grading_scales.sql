@@ -0,0 +1,55 @@
+-- =============================================
+-- GRADING SCALES SEED DATA
+-- =============================================
+-- Explicit ids; grading_scales_seq starts at 1001 so Hibernate's ids never collide with these
+
+-- TUD (Technological University Dublin)
+-- Granulated 4.0 GPA Scale (effective September 2025)
+INSERT INTO grading_scales (id, university, grade_code, grade_name, min_percentage, max_percentage, gpa_points) VALUES
+(1, 'TUD', 'A1', 'First Class Honours', 80.00, 100.00, 4.00),
+(2, 'TUD', 'A2', 'First Class Honours', 75.00, 79.99, 3.80),
+(3, 'TUD', 'A3', 'First Class Honours', 70.00, 74.99, 3.60),
+(4, 'TUD', 'B1', 'Second Class Honours I', 65.00, 69.99, 3.20),
+(5, 'TUD', 'B2', 'Second Class Honours I', 60.00, 64.99, 3.00),
+(6, 'TUD', 'B3', 'Second Class Honours II', 55.00, 59.99, 2.80),
+(7, 'TUD', 'C1', 'Second Class Honours II', 50.00, 54.99, 2.60),
+(8, 'TUD', 'C2', 'Pass', 45.00, 49.99, 2.40),
+(9, 'TUD', 'C3', 'Pass', 40.00, 44.99, 2.00),
+(10, 'TUD', 'D1', 'Compensating Fail', 35.00, 39.99, 1.60),
+(11, 'TUD', 'F', 'Fail', 0.00, 34.99, 0.00);
+
+-- UCD (University College Dublin)
+-- 4.2 GPA Scale with letter grades
+INSERT INTO grading_scales (id, university, grade_code, grade_name, min_percentage, max_percentage, gpa_points) VALUES
+(12, 'UCD', 'A+', 'Excellent', 90.00, 100.00, 4.20),
+(13, 'UCD', 'A', 'Excellent', 80.00, 89.99, 4.00),
+(14, 'UCD', 'A-', 'Excellent', 70.00, 79.99, 3.80),
+(15, 'UCD', 'B+', 'Very Good', 66.67, 69.99, 3.60),
+(16, 'UCD', 'B', 'Very Good', 63.33, 66.66, 3.40),
+(17, 'UCD', 'B-', 'Very Good', 60.00, 63.32, 3.20),
+(18, 'UCD', 'C+', 'Good', 56.67, 59.99, 3.00),
+(19, 'UCD', 'C', 'Good', 53.33, 56.66, 2.80),
+(20, 'UCD', 'C-', 'Good', 50.00, 53.32, 2.60),
+(21, 'UCD', 'D+', 'Acceptable', 46.67, 49.99, 2.40),
+(22, 'UCD', 'D', 'Acceptable', 43.33, 46.66, 2.20),
+(23, 'UCD', 'D-', 'Acceptable', 40.00, 43.32, 2.00),
+(24, 'UCD', 'FM', 'Fail', 0.00, 39.99, 0.00);
+
+-- TCD (Trinity College Dublin)
+-- Roman numeral grades with proxy GPA for cross-system comparison
+INSERT INTO grading_scales (id, university, grade_code, grade_name, min_percentage, max_percentage, gpa_points) VALUES
+(25, 'TCD', 'I', 'First Class Honours', 70.00, 100.00, 4.00),
+(26, 'TCD', 'II.1', 'Second Class Honours I', 60.00, 69.99, 3.00),
+(27, 'TCD', 'II.2', 'Second Class Honours II', 50.00, 59.99, 2.00),
+(28, 'TCD', 'III', 'Third Class Honours', 40.00, 49.99, 1.00),
+(29, 'TCD', 'F1', 'Fail', 30.00, 39.99, 0.00),
+(30, 'TCD', 'F2', 'Fail', 0.00, 29.99, 0.00);
+
+-- STANDARD (Irish System Fallback)
+-- Simple letter grades for universities not yet configured
+INSERT INTO grading_scales (id, university, grade_code, grade_name, min_percentage, max_percentage, gpa_points) VALUES
+(31, 'STANDARD', 'A', 'First Class Honours', 70.00, 100.00, 4.00),
+(32, 'STANDARD', 'B', 'Second Class Honours I', 60.00, 69.99, 3.00),
+(33, 'STANDARD', 'C', 'Second Class Honours II', 50.00, 59.99, 2.00),
+(34, 'STANDARD', 'D', 'Pass', 40.00, 49.99, 1.00),
+(35, 'STANDARD', 'F', 'Fail', 0.00, 39.99, 0.00);
\ No newline at end of file
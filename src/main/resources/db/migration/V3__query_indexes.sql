@@ -0,0 +1,14 @@
+-- =============================================
+-- INDEXES FOR THE REPOSITORY QUERIES
+-- =============================================
+-- PostgreSQL does not index foreign keys on its own, so each lookup below
+-- would otherwise scan the whole table.
+
+-- AssessmentRepository.findByModuleId, findByModuleIdAndObtainedMarkIsNull / IsNotNull
+CREATE INDEX idx_assessments_module_mark ON assessments (module_id, obtained_mark);
+
+-- ModuleRepository.findByUserId, findByUserIdAndSemester and the transcript queries
+CREATE INDEX idx_modules_user_semester ON modules (user_id, semester);
+
+-- GradingScaleRepository.findByUniversity
+CREATE INDEX idx_grading_scales_university ON grading_scales (university, min_percentage);
@@ -0,0 +1,7 @@
+-- =============================================
+-- MODULE REVISION
+-- =============================================
+-- Optimistic-lock version of each module row, bumped whenever the module or its
+-- running totals change. Derived grade results are cached by (module id, revision).
+
+ALTER TABLE modules ADD COLUMN revision BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,7 @@
+-- =============================================
+-- USER DATA REVISION
+-- =============================================
+-- Bumped by every write to a user's modules, assessments or preset, so a page built
+-- from the user's data can be revalidated with one lookup (the ETag).
+
+ALTER TABLE users ADD COLUMN data_revision BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,20 @@
+-- =============================================
+-- CHANGE LOG FOR DELTA SYNC
+-- =============================================
+-- One row per module, assessment or user setting a user has changed, stamped with the user's
+-- data revision when it was last changed. Deleted entities stay as tombstones (deleted = TRUE),
+-- so a client that syncs rarely still hears about them. GET /api/sync?since=R reads the rows
+-- with revision > R.
+
+CREATE TABLE change_log (
+    user_id     BIGINT      NOT NULL,
+    entity_type VARCHAR(20) NOT NULL,
+    entity_id   BIGINT      NOT NULL,
+    revision    BIGINT      NOT NULL,
+    deleted     BOOLEAN     NOT NULL,
+    CONSTRAINT pk_change_log PRIMARY KEY (user_id, entity_type, entity_id),
+    -- Bookkeeping only, so it goes with the user rather than adding a statement to deleteUser
+    CONSTRAINT fk_change_log_user FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_change_log_user_revision ON change_log (user_id, revision);
@@ -0,0 +1,70 @@
+-- =============================================
+-- BRING A PRE-FLYWAY DATABASE UP TO VERSION 2
+-- =============================================
+-- Run once against an existing PostgreSQL database (one Hibernate created with ddl-auto),
+-- with the application stopped. Afterwards let Flyway take over with a baseline at
+-- version 2 (see README). Flyway then skips V1 and V2, so everything they add that
+-- ddl-auto may not have is done here: the pooled id sequences and the running totals
+-- on modules. The grading scales V2 would seed are already in the table.
+-- Runs in one transaction, and is safe to run again.
+
+BEGIN;
+
+-- Hibernate reserves ids in blocks of 50: each nextval() returns the top of the
+-- next block. Every sequence is started at max(id) + 50 so the first block
+-- begins above every existing row.
+--
+-- The old identity defaults are dropped so nothing else hands out ids from them.
+
+CREATE SEQUENCE IF NOT EXISTS users_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS modules_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS assessments_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS grading_scales_seq INCREMENT BY 50;
+
+SELECT setval('users_seq', COALESCE((SELECT MAX(id) FROM users), 0) + 50, false);
+SELECT setval('modules_seq', COALESCE((SELECT MAX(id) FROM modules), 0) + 50, false);
+SELECT setval('assessments_seq', COALESCE((SELECT MAX(id) FROM assessments), 0) + 50, false);
+SELECT setval('grading_scales_seq', COALESCE((SELECT MAX(id) FROM grading_scales), 0) + 50, false);
+
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE modules ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE assessments ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE grading_scales ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+-- Running grade totals on each module, as V1 creates them. ddl-auto may have added them
+-- as nullable columns or not at all, so they are (re)computed from the assessment rows
+-- with the same rounding as ModuleAggregates: the percentage score to 4 places, then
+-- its weighted contribution to 4 places.
+ALTER TABLE modules ADD COLUMN IF NOT EXISTS completed_weight NUMERIC(7, 2);
+ALTER TABLE modules ADD COLUMN IF NOT EXISTS weighted_score NUMERIC(9, 4);
+ALTER TABLE modules ADD COLUMN IF NOT EXISTS pending_weight NUMERIC(7, 2);
+ALTER TABLE modules ADD COLUMN IF NOT EXISTS completed_count INTEGER;
+
+UPDATE modules m SET
+    completed_weight = COALESCE(t.completed_weight, 0),
+    weighted_score   = COALESCE(t.weighted_score, 0),
+    pending_weight   = COALESCE(t.pending_weight, 0),
+    completed_count  = COALESCE(t.completed_count, 0)
+FROM modules m2
+LEFT JOIN (
+    SELECT module_id,
+           SUM(weight_percentage) FILTER (WHERE obtained_mark IS NOT NULL) AS completed_weight,
+           SUM(ROUND(ROUND(obtained_mark / total_marks, 4) * 100 * weight_percentage / 100, 4))
+               FILTER (WHERE obtained_mark IS NOT NULL) AS weighted_score,
+           SUM(weight_percentage) FILTER (WHERE obtained_mark IS NULL) AS pending_weight,
+           COUNT(*) FILTER (WHERE obtained_mark IS NOT NULL) AS completed_count
+    FROM assessments
+    GROUP BY module_id
+) t ON t.module_id = m2.id
+WHERE m2.id = m.id;
+
+ALTER TABLE modules ALTER COLUMN completed_weight SET DEFAULT 0;
+ALTER TABLE modules ALTER COLUMN completed_weight SET NOT NULL;
+ALTER TABLE modules ALTER COLUMN weighted_score SET DEFAULT 0;
+ALTER TABLE modules ALTER COLUMN weighted_score SET NOT NULL;
+ALTER TABLE modules ALTER COLUMN pending_weight SET DEFAULT 0;
+ALTER TABLE modules ALTER COLUMN pending_weight SET NOT NULL;
+ALTER TABLE modules ALTER COLUMN completed_count SET DEFAULT 0;
+ALTER TABLE modules ALTER COLUMN completed_count SET NOT NULL;
+
+COMMIT;
@@ -0,0 +1,234 @@
+package com.ignacio.gradecalc.batch;
+
+import com.ignacio.gradecalc.entity.Assessment;
+import com.ignacio.gradecalc.entity.GradingScale;
+import com.ignacio.gradecalc.entity.Module;
+import com.ignacio.gradecalc.entity.User;
+import com.ignacio.gradecalc.enums.AssessmentType;
+import com.ignacio.gradecalc.enums.UniversityPreset;
+import com.ignacio.gradecalc.repository.GradingScaleRepository;
+import com.ignacio.gradecalc.service.FixedPointGradeCalculator;
+import com.ignacio.gradecalc.service.GradeService;
+import com.ignacio.gradecalc.service.GradingScaleRegistry;
+import com.ignacio.gradecalc.service.ModuleGradeSummary;
+import com.ignacio.gradecalc.strategy.GradingStrategyFactory;
+import com.ignacio.gradecalc.strategy.StandardStrategy;
+import com.ignacio.gradecalc.strategy.TudStrategy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Differential test: the batch accumulator must give the same module and user
+ * results as GradeService does for the same data.
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class CohortAccumulatorTest {
+
+    @Mock
+    private GradingScaleRepository gradingScaleRepository;
+
+    private GradeService gradeService;
+    private CohortAccumulator accumulator;
+    private List<CohortModuleResult> moduleResults;
+    private List<CohortUserResult> userResults;
+
+    @BeforeEach
+    void setUp() {
+        List strategies = Arrays.asList(new TudStrategy(), new StandardStrategy());
+        GradingStrategyFactory strategyFactory = new GradingStrategyFactory(strategies);
+        GradingScaleRegistry registry = new GradingScaleRegistry(gradingScaleRepository);
+
+        gradeService = new GradeService(strategyFactory, registry);
+
+        moduleResults = new ArrayList<>();
+        userResults = new ArrayList<>();
+        accumulator = new CohortAccumulator(gradeService, new FixedPointGradeCalculator(), new CohortResultSink() {
+            @Override
+            public void module(CohortModuleResult result) {
+                moduleResults.add(result);
+            }
+
+            @Override
+            public void user(CohortUserResult result) {
+                userResults.add(result);
+            }
+        });
+
+        when(gradingScaleRepository.findAll()).thenReturn(Arrays.asList(
+                createScale("TUD", "A1", 80.00, 100.00, 4.00),
+                createScale("TUD", "A2", 75.00, 79.99, 3.80),
+                createScale("TUD", "A3", 70.00, 74.99, 3.60),
+                createScale("TUD", "B1", 65.00, 69.99, 3.20),
+                createScale("TUD", "B2", 60.00, 64.99, 3.00),
+                createScale("TUD", "B3", 55.00, 59.99, 2.80),
+                createScale("TUD", "C1", 50.00, 54.99, 2.60),
+                createScale("TUD", "C2", 45.00, 49.99, 2.40),
+                createScale("TUD", "C3", 40.00, 44.99, 2.00),
+                createScale("TUD", "D1", 35.00, 39.99, 1.60),
+                createScale("TUD", "F", 0.00, 34.99, 0.00),
+                createScale("STANDARD", "A", 70.00, 100.00, 4.00),
+                createScale("STANDARD", "B", 60.00, 69.99, 3.00),
+                createScale("STANDARD", "C", 50.00, 59.99, 2.00),
+                createScale("STANDARD", "D", 40.00, 49.99, 1.00),
+                createScale("STANDARD", "F", 0.00, 39.99, 0.00)
+        ));
+    }
+
+    @Test
+    @DisplayName("Should match GradeService for every module and user")
+    void row_MatchesGradeService() throws Exception {
+        Random random = new Random(99);
+        List<User> users = new ArrayList<>();
+
+        for (long userId = 1; userId <= 200; userId++) {
+            User user = new User();
+            user.setId(userId);
+            user.setUniversityPreset(random.nextBoolean() ? UniversityPreset.TUD : UniversityPreset.DCU);
+            int moduleCount = random.nextInt(6); // Some users have no modules
+            for (int i = 0; i < moduleCount; i++) {
+                Module module = createRandomModule(random);
+                module.setId(userId * 100 + i);
+                user.getModules().add(module);
+            }
+            users.add(user);
+            feed(user);
+        }
+        accumulator.finish();
+
+        assertEquals(users.size(), userResults.size());
+        int moduleIndex = 0;
+
+        for (int u = 0; u < users.size(); u++) {
+            User user = users.get(u);
+
+            for (Module module : user.getModules()) {
+                ModuleGradeSummary expected = gradeService.summarise(module, user);
+                CohortModuleResult actual = moduleResults.get(moduleIndex++);
+
+                assertEquals(module.getId().longValue(), actual.moduleId());
+                assertBigDecimalEquals(expected.bankedPercentage(), actual.bankedPercentage());
+                assertBigDecimalEquals(expected.completedWeight(), actual.completedWeight());
+                assertBigDecimalEquals(expected.pendingWeight(), actual.pendingWeight());
+                assertBigDecimalEquals(expected.projectedPercentage(), actual.projectedPercentage());
+                assertEquals(expected.gradeCode(), actual.gradeCode());
+                assertBigDecimalEquals(expected.gpaPoints(), actual.gpaPoints());
+            }
+
+            CohortUserResult userResult = userResults.get(u);
+            assertEquals(user.getId().longValue(), userResult.userId());
+            assertEquals(user.getModules().size(), userResult.modules());
+            assertBigDecimalEquals(gradeService.calculateOverallGpa(user.getModules(), user), userResult.overallGpa());
+        }
+
+        assertEquals(moduleResults.size(), accumulator.getModules());
+    }
+
+    @Test
+    @DisplayName("Should give no grade to a module without assessments")
+    void row_ModuleWithoutAssessments() throws Exception {
+        accumulator.row(1, UniversityPreset.TUD, 10, 5, null, null, null);
+        accumulator.finish();
+
+        assertEquals(1, moduleResults.size());
+        assertEquals("N/A", moduleResults.get(0).gradeCode());
+        assertBigDecimalEquals(BigDecimal.ZERO, userResults.get(0).overallGpa());
+        assertEquals(0, userResults.get(0).gradedCredits());
+    }
+
+    @Test
+    @DisplayName("Should emit a user without modules with no credits and a GPA of 0")
+    void user_WithoutModules() throws Exception {
+        accumulator.row(1, UniversityPreset.TUD, 10, 5, new BigDecimal("100.00"), new BigDecimal("90.00"),
+                new BigDecimal("100.00"));
+        accumulator.user(2, UniversityPreset.TUD);
+        accumulator.row(3, UniversityPreset.DCU, 30, 5, null, null, null);
+        accumulator.finish();
+
+        assertEquals(2, moduleResults.size());
+        assertEquals(3, userResults.size());
+        CohortUserResult empty = userResults.get(1);
+        assertEquals(2, empty.userId());
+        assertEquals(0, empty.modules());
+        assertEquals(0, empty.gradedCredits());
+        assertBigDecimalEquals(BigDecimal.ZERO, empty.overallGpa());
+        assertEquals(3, accumulator.getUsers());
+    }
+
+    @Test
+    @DisplayName("Should emit nothing for an empty range")
+    void finish_NoRows() throws Exception {
+        accumulator.finish();
+
+        assertTrue(moduleResults.isEmpty());
+        assertTrue(userResults.isEmpty());
+    }
+
+    // Helper methods
+
+    private void feed(User user) throws Exception {
+        if (user.getModules().isEmpty()) {
+            accumulator.user(user.getId(), user.getUniversityPreset());
+        }
+        for (Module module : user.getModules()) {
+            if (module.getAssessments().isEmpty()) {
+                accumulator.row(user.getId(), user.getUniversityPreset(), module.getId(), module.getCredits(),
+                        null, null, null);
+            }
+            for (Assessment assessment : module.getAssessments()) {
+                accumulator.row(user.getId(), user.getUniversityPreset(), module.getId(), module.getCredits(),
+                        assessment.getWeightPercentage(), assessment.getObtainedMark(), assessment.getTotalMarks());
+            }
+        }
+    }
+
+    private Module createRandomModule(Random random) {
+        Module module = new Module();
+        module.setCredits(5 * (1 + random.nextInt(3)));
+
+        List<Assessment> assessments = new ArrayList<>();
+        for (int i = 0; i < random.nextInt(7); i++) {
+            Assessment assessment = new Assessment();
+            assessment.setType(AssessmentType.EXAM);
+            assessment.setWeightPercentage(BigDecimal.valueOf(100 + random.nextInt(4_000), 2));
+            assessment.setTotalMarks(BigDecimal.valueOf(1_000 + random.nextInt(9_000), 2));
+            if (random.nextInt(3) > 0) {
+                assessment.setObtainedMark(BigDecimal.valueOf(random.nextInt(10_000), 2));
+            }
+            assessments.add(assessment);
+        }
+
+        module.setAssessments(assessments);
+        return module;
+    }
+
+    private GradingScale createScale(String university, String code, double min, double max, double gpa) {
+        GradingScale scale = new GradingScale();
+        scale.setUniversity(university);
+        scale.setGradeCode(code);
+        scale.setMinPercentage(new BigDecimal(String.valueOf(min)));
+        scale.setMaxPercentage(new BigDecimal(String.valueOf(max)));
+        scale.setGpaPoints(new BigDecimal(String.valueOf(gpa)));
+        return scale;
+    }
+
+    private void assertBigDecimalEquals(BigDecimal expected, BigDecimal actual) {
+        assertEquals(0, expected.compareTo(actual),
+                "Expected " + expected + " but got " + actual);
+    }
+}
@@ -0,0 +1,171 @@
+package com.ignacio.gradecalc.controller;
+
+import com.ignacio.gradecalc.entity.GradingScale;
+import com.ignacio.gradecalc.repository.GradingScaleRepository;
+import com.ignacio.gradecalc.service.GradingScaleRegistry;
+import com.ignacio.gradecalc.service.UserRevision;
+import com.ignacio.gradecalc.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.web.csrf.CsrfToken;
+import org.springframework.security.web.csrf.DefaultCsrfToken;
+import org.springframework.security.web.csrf.DeferredCsrfToken;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class UserDataETagsTest {
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private GradingScaleRepository gradingScaleRepository;
+
+    private UserDataETags userDataETags;
+
+    @BeforeEach
+    void setUp() {
+        when(gradingScaleRepository.findAll()).thenReturn(List.of());
+        userDataETags = new UserDataETags(userService, new GradingScaleRegistry(gradingScaleRepository));
+    }
+
+    @Test
+    @DisplayName("Should send the ETag with a full response the first time")
+    void checkNotModified_FirstRequest() {
+        when(userService.findRevision("alice")).thenReturn(Optional.of(new UserRevision(1L, 7L)));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertFalse(userDataETags.checkNotModified("alice", request(null, response)));
+
+        assertEquals(200, response.getStatus());
+        assertNotNull(response.getHeader("ETag"));
+        assertEquals("no-cache, private", response.getHeader("Cache-Control"));
+    }
+
+    @Test
+    @DisplayName("Should answer 304 while the user's data revision is unchanged")
+    void checkNotModified_Unchanged() {
+        when(userService.findRevision("alice")).thenReturn(Optional.of(new UserRevision(1L, 7L)));
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        userDataETags.checkNotModified("alice", request(null, first));
+
+        MockHttpServletResponse second = new MockHttpServletResponse();
+        assertTrue(userDataETags.checkNotModified("alice", request(first.getHeader("ETag"), second)));
+
+        assertEquals(304, second.getStatus());
+        verify(userService, times(2)).findRevision("alice");
+        verifyNoMoreInteractions(userService);
+    }
+
+    @Test
+    @DisplayName("Should send the full response again once the revision changes")
+    void checkNotModified_Changed() {
+        when(userService.findRevision("alice")).thenReturn(Optional.of(new UserRevision(1L, 7L)));
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        userDataETags.checkNotModified("alice", request(null, first));
+
+        when(userService.findRevision("alice")).thenReturn(Optional.of(new UserRevision(1L, 8L)));
+        MockHttpServletResponse second = new MockHttpServletResponse();
+
+        assertFalse(userDataETags.checkNotModified("alice", request(first.getHeader("ETag"), second)));
+        assertEquals(200, second.getStatus());
+        assertNotEquals(first.getHeader("ETag"), second.getHeader("ETag"));
+    }
+
+    @Test
+    @DisplayName("Should not match another user's ETag at the same revision")
+    void checkNotModified_OtherUser() {
+        when(userService.findRevision("alice")).thenReturn(Optional.of(new UserRevision(1L, 7L)));
+        when(userService.findRevision("bob")).thenReturn(Optional.of(new UserRevision(2L, 7L)));
+        MockHttpServletResponse alice = new MockHttpServletResponse();
+        userDataETags.checkNotModified("alice", request(null, alice));
+
+        assertFalse(userDataETags.checkNotModified("bob",
+                request(alice.getHeader("ETag"), new MockHttpServletResponse())));
+    }
+
+    @Test
+    @DisplayName("Should keep the ETag when the scales are re-read unchanged, and change it when they change")
+    void checkNotModified_ScalesReloaded() {
+        GradingScaleRegistry registry = new GradingScaleRegistry(gradingScaleRepository);
+        userDataETags = new UserDataETags(userService, registry);
+        when(userService.findRevision("alice")).thenReturn(Optional.of(new UserRevision(1L, 7L)));
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        userDataETags.checkNotModified("alice", request(null, first));
+
+        registry.reload();
+        assertTrue(userDataETags.checkNotModified("alice",
+                request(first.getHeader("ETag"), new MockHttpServletResponse())));
+
+        GradingScale scale = new GradingScale();
+        scale.setUniversity("TUD");
+        scale.setGradeCode("A1");
+        scale.setMinPercentage(new BigDecimal("80.00"));
+        when(gradingScaleRepository.findAll()).thenReturn(List.of(scale));
+        registry.reload();
+        assertFalse(userDataETags.checkNotModified("alice",
+                request(first.getHeader("ETag"), new MockHttpServletResponse())));
+    }
+
+    @Test
+    @DisplayName("Should send a fresh page after logging out and in again, as the old one's CSRF token is dead")
+    void checkNotModified_ReLogin() {
+        when(userService.findRevision("alice")).thenReturn(Optional.of(new UserRevision(1L, 7L)));
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        userDataETags.checkNotModified("alice", request(null, "token-before-logout", first));
+
+        // Same login, so the same raw token
+        assertTrue(userDataETags.checkNotModified("alice",
+                request(first.getHeader("ETag"), "token-before-logout", new MockHttpServletResponse())));
+
+        MockHttpServletResponse afterLogin = new MockHttpServletResponse();
+        assertFalse(userDataETags.checkNotModified("alice",
+                request(first.getHeader("ETag"), "token-after-login", afterLogin)));
+        assertEquals(200, afterLogin.getStatus());
+        assertFalse(afterLogin.getHeader("ETag").contains("token-after-login"));
+    }
+
+    // Helper methods
+
+    private ServletWebRequest request(String ifNoneMatch, MockHttpServletResponse response) {
+        return request(ifNoneMatch, null, response);
+    }
+
+    private ServletWebRequest request(String ifNoneMatch, String csrfToken, MockHttpServletResponse response) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/dashboard");
+        if (ifNoneMatch != null) {
+            request.addHeader("If-None-Match", ifNoneMatch);
+        }
+        if (csrfToken != null) {
+            CsrfToken token = new DefaultCsrfToken("X-CSRF-TOKEN", "_csrf", csrfToken);
+            request.setAttribute(DeferredCsrfToken.class.getName(), new DeferredCsrfToken() {
+                @Override
+                public CsrfToken get() {
+                    return token;
+                }
+
+                @Override
+                public boolean isGenerated() {
+                    return false;
+                }
+            });
+        }
+        return new ServletWebRequest(request, response);
+    }
+}
@@ -0,0 +1,90 @@
+package com.ignacio.gradecalc.entity;
+
+import com.ignacio.gradecalc.enums.AssessmentType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ModuleAggregatesTest {
+
+    @Test
+    @DisplayName("Should total completed and pending assessments")
+    void of_TotalsAssessments() {
+        ModuleAggregates aggregates = ModuleAggregates.of(List.of(
+                createAssessment(50, 80.00),   // 40 points
+                createAssessment(30, 70.00),   // 21 points
+                createAssessment(20, null)
+        ));
+
+        assertBigDecimalEquals(new BigDecimal("80"), aggregates.getCompletedWeight());
+        assertBigDecimalEquals(new BigDecimal("61"), aggregates.getWeightedScore());
+        assertBigDecimalEquals(new BigDecimal("20"), aggregates.getPendingWeight());
+        assertEquals(2, aggregates.getCompletedCount());
+    }
+
+    @Test
+    @DisplayName("Should match a full rebuild after any sequence of deltas")
+    void deltas_MatchRebuild() {
+        Random random = new Random(11);
+        List<Assessment> assessments = new ArrayList<>();
+        ModuleAggregates running = new ModuleAggregates();
+
+        for (int step = 0; step < 2_000; step++) {
+            int action = assessments.isEmpty() ? 0 : random.nextInt(4);
+
+            if (action == 0) {
+                // Create
+                Assessment assessment = createAssessment(random.nextInt(50), null);
+                assessments.add(assessment);
+                running.add(assessment);
+            } else if (action == 1 || action == 2) {
+                // Record a mark or edit the weight
+                Assessment assessment = assessments.get(random.nextInt(assessments.size()));
+                running.remove(assessment);
+                if (action == 1) {
+                    assessment.setObtainedMark(BigDecimal.valueOf(random.nextInt(10_001), 2));
+                } else {
+                    assessment.setWeightPercentage(BigDecimal.valueOf(random.nextInt(5_001), 2));
+                }
+                running.add(assessment);
+            } else {
+                // Delete
+                Assessment assessment = assessments.remove(random.nextInt(assessments.size()));
+                running.remove(assessment);
+            }
+
+            assertTrue(running.matches(ModuleAggregates.of(assessments)), "Drifted at step " + step);
+        }
+    }
+
+    @Test
+    @DisplayName("Should detect aggregates that do not match")
+    void matches_DetectsDrift() {
+        ModuleAggregates stored = ModuleAggregates.of(List.of(createAssessment(50, 80.00)));
+        ModuleAggregates expected = ModuleAggregates.of(List.of(createAssessment(50, 81.00)));
+
+        assertFalse(stored.matches(expected));
+    }
+
+    private void assertBigDecimalEquals(BigDecimal expected, BigDecimal actual) {
+        assertTrue(expected.compareTo(actual) == 0,
+                "Expected " + expected + " but got " + actual);
+    }
+
+    private Assessment createAssessment(double weight, Double obtained) {
+        Assessment assessment = new Assessment();
+        assessment.setType(AssessmentType.EXAM);
+        assessment.setWeightPercentage(new BigDecimal(String.valueOf(weight)));
+        assessment.setTotalMarks(new BigDecimal("100"));
+        if (obtained != null) {
+            assessment.setObtainedMark(new BigDecimal(String.valueOf(obtained)));
+        }
+        return assessment;
+    }
+}
@@ -0,0 +1,219 @@
+package com.ignacio.gradecalc.event;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GradeEventPipelineTest {
+
+    private final ManualScheduler scheduler = new ManualScheduler();
+    private final AtomicLong now = new AtomicLong(1);
+    private final List<ChangeSet> handled = new ArrayList<>();
+    private Consumer<ChangeSet> handler = handled::add;
+    private GradeEventPipeline pipeline;
+
+    @BeforeEach
+    void setUp() {
+        pipeline = new GradeEventPipeline(changes -> handler.accept(changes), scheduler, 2, 3,
+                Duration.ofSeconds(1), now::get);
+    }
+
+    @Test
+    @DisplayName("Should fold a burst of events into one change set per user")
+    void submit_CoalescesBurst() {
+        pipeline.submit(new MarkRecorded(1L, 10L, 100L));
+        pipeline.submit(new MarkRecorded(1L, 10L, 101L));
+        pipeline.submit(new AssessmentChanged(1L, 11L, 110L, false));
+        pipeline.submit(new ModuleChanged(2L, 20L, false));
+        scheduler.runAll();
+
+        assertEquals(List.of(
+                new ChangeSet(1L, Set.of(10L, 11L), false, 3),
+                new ChangeSet(2L, Set.of(20L), false, 1)), handled);
+        assertEquals(0, pipeline.getPendingUserCount());
+    }
+
+    @Test
+    @DisplayName("Should hand events that arrive during handling to the next set, after the current one")
+    void submit_DuringHandling_NextSetInOrder() {
+        handler = changes -> {
+            if (handled.isEmpty()) {
+                pipeline.submit(new MarkRecorded(1L, 11L, 110L));
+            }
+            handled.add(changes);
+        };
+
+        pipeline.submit(new MarkRecorded(1L, 10L, 100L));
+        scheduler.runAll();
+
+        assertEquals(2, handled.size());
+        assertEquals(Set.of(10L), handled.get(0).moduleIds());
+        assertEquals(Set.of(11L), handled.get(1).moduleIds());
+    }
+
+    @Test
+    @DisplayName("Should mark every module as affected when the preset changes")
+    void submit_PresetChanged_AllModules() {
+        pipeline.submit(new MarkRecorded(1L, 10L, 100L));
+        pipeline.submit(new PresetChanged(1L));
+        scheduler.runAll();
+
+        assertTrue(handled.get(0).allModules());
+        assertTrue(handled.get(0).affects(99L));
+    }
+
+    @Test
+    @DisplayName("Should retry a failed set after the backoff, together with events that arrived meanwhile")
+    void run_Failure_RetriesWithNewEvents() {
+        handler = changes -> {
+            if (pipeline.getRetryCount() == 0) {
+                throw new IllegalStateException("Database unavailable");
+            }
+            handled.add(changes);
+        };
+
+        pipeline.submit(new MarkRecorded(1L, 10L, 100L));
+        scheduler.runAll();
+        pipeline.submit(new MarkRecorded(1L, 11L, 110L));
+        scheduler.runAll();
+
+        assertTrue(handled.isEmpty());
+        assertEquals(List.of(1000L), scheduler.delaysMillis);
+
+        scheduler.runDelayed();
+
+        assertEquals(List.of(new ChangeSet(1L, Set.of(10L, 11L), false, 2)), handled);
+        assertEquals(0, pipeline.getPendingUserCount());
+    }
+
+    @Test
+    @DisplayName("Should back off exponentially and give up after the last attempt")
+    void run_RepeatedFailure_GivesUp() {
+        handler = changes -> {
+            throw new IllegalStateException("Database unavailable");
+        };
+
+        pipeline.submit(new MarkRecorded(1L, 10L, 100L));
+        scheduler.runAll();
+        scheduler.runDelayed();
+        scheduler.runDelayed();
+
+        assertEquals(List.of(1000L, 2000L), scheduler.delaysMillis);
+        assertEquals(2, pipeline.getRetryCount());
+        assertEquals(1, pipeline.getFailureCount());
+        assertEquals(0, pipeline.getPendingUserCount());
+    }
+
+    @Test
+    @DisplayName("Should drop events for new users once the pending limit is reached, and report the lag")
+    void submit_PendingLimit_DropsAndMeasuresLag() {
+        pipeline.submit(new MarkRecorded(1L, 10L, 100L));
+        pipeline.submit(new MarkRecorded(2L, 20L, 200L));
+        pipeline.submit(new MarkRecorded(3L, 30L, 300L));
+        // Users already waiting can still add to their set
+        pipeline.submit(new MarkRecorded(1L, 11L, 110L));
+
+        now.addAndGet(2_000_000_000L);
+        assertEquals(2.0, pipeline.getOldestPendingSeconds(), 0.0001);
+
+        scheduler.runAll();
+
+        assertEquals(1, pipeline.getDroppedCount());
+        assertEquals(4, pipeline.getReceivedCount());
+        assertEquals(2, pipeline.getHandledCount());
+        assertEquals(0.0, pipeline.getOldestPendingSeconds());
+    }
+
+    /**
+     * Runs tasks only when asked, and records delayed tasks instead of waiting for them.
+     */
+    private static class ManualScheduler extends AbstractExecutorService implements ScheduledExecutorService {
+        private final Queue<Runnable> tasks = new ArrayDeque<>();
+        private final Queue<Runnable> delayed = new ArrayDeque<>();
+        final List<Long> delaysMillis = new ArrayList<>();
+
+        @Override
+        public void execute(Runnable command) {
+            tasks.add(command);
+        }
+
+        @Override
+        public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+            delaysMillis.add(unit.toMillis(delay));
+            delayed.add(command);
+            return null;
+        }
+
+        void runAll() {
+            Runnable task;
+            while ((task = tasks.poll()) != null) {
+                task.run();
+            }
+        }
+
+        void runDelayed() {
+            Runnable task = delayed.poll();
+            if (task != null) {
+                task.run();
+            }
+            runAll();
+        }
+
+        @Override
+        public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period,
+                                                      TimeUnit unit) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay,
+                                                         TimeUnit unit) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void shutdown() {
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return List.of();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return false;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return false;
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) {
+            return true;
+        }
+    }
+}
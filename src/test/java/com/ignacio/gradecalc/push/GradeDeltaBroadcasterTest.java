@@ -0,0 +1,255 @@
+package com.ignacio.gradecalc.push;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GradeDeltaBroadcasterTest {
+
+    private final QueuedExecutor executor = new QueuedExecutor();
+    private GradeDeltaBroadcaster broadcaster;
+
+    @BeforeEach
+    void setUp() {
+        broadcaster = new GradeDeltaBroadcaster(executor, 100, 2, 3, Duration.ofMinutes(30), Duration.ofSeconds(5));
+    }
+
+    @Test
+    @DisplayName("Should push a delta to every stream of the user and none of anyone else's")
+    void push_FansOutToUsersStreams() {
+        RecordingSink first = new RecordingSink();
+        RecordingSink second = new RecordingSink();
+        RecordingSink otherUser = new RecordingSink();
+        broadcaster.register(1L, first);
+        broadcaster.register(1L, second);
+        broadcaster.register(2L, otherUser);
+
+        broadcaster.push(1L, List.of(delta(10L, 1)));
+        executor.runAll();
+
+        assertEquals(List.of(10L), first.moduleIds());
+        assertEquals(List.of(10L), second.moduleIds());
+        assertTrue(otherUser.sent.isEmpty());
+        assertEquals(2, broadcaster.getSentCount());
+    }
+
+    @Test
+    @DisplayName("Should keep only the newest delta per module while a client's write is waiting")
+    void offer_SlowClient_KeepsLatestPerModule() {
+        RecordingSink sink = new RecordingSink();
+        broadcaster.register(1L, sink);
+
+        for (long revision = 1; revision <= 5; revision++) {
+            broadcaster.push(1L, List.of(delta(10L, revision)));
+        }
+        executor.runAll();
+
+        assertEquals(1, sink.sent.size());
+        assertEquals(5L, sink.sent.get(0).revision().longValue());
+    }
+
+    @Test
+    @DisplayName("Should disconnect a client with more modules waiting than the pending limit")
+    void offer_PendingLimitExceeded_Disconnects() {
+        RecordingSink sink = new RecordingSink();
+        broadcaster.register(1L, sink);
+
+        for (long moduleId = 1; moduleId <= 4; moduleId++) {
+            broadcaster.push(1L, List.of(delta(moduleId, 1)));
+        }
+        executor.runAll();
+
+        assertTrue(sink.closed);
+        assertTrue(sink.sent.isEmpty());
+        assertEquals(1, broadcaster.getDroppedCount());
+        assertEquals(0, broadcaster.getConnectionCount());
+    }
+
+    @Test
+    @DisplayName("Should refuse streams beyond the per-user limit and free the slot when one closes")
+    void register_PerUserLimit() {
+        GradeDeltaBroadcaster.Subscriber first = broadcaster.register(1L, new RecordingSink());
+        assertNotNull(broadcaster.register(1L, new RecordingSink()));
+        assertNull(broadcaster.register(1L, new RecordingSink()));
+        assertEquals(1, broadcaster.getRejectedCount());
+
+        first.release();
+
+        assertNotNull(broadcaster.register(1L, new RecordingSink()));
+        assertEquals(2, broadcaster.getConnectionCount());
+    }
+
+    @Test
+    @DisplayName("Should drop a stream whose write fails")
+    void write_Failure_Unregisters() {
+        RecordingSink sink = new RecordingSink();
+        sink.failing = true;
+        broadcaster.register(1L, sink);
+
+        broadcaster.push(1L, List.of(delta(10L, 1)));
+        executor.runAll();
+
+        assertTrue(sink.closed);
+        assertEquals(0, broadcaster.getConnectionCount());
+    }
+
+    @Test
+    @DisplayName("Should disconnect a client whose write stalls and keep writing to everyone else")
+    void dropStalledWrites_BlockedSend() throws InterruptedException {
+        ThreadPoolExecutor pool = GradeDeltaBroadcaster.pool(1, 100);
+        GradeDeltaBroadcaster pooled = new GradeDeltaBroadcaster(pool, 100, 2, 3, Duration.ofMinutes(30),
+                Duration.ofMillis(50));
+        BlockingSink stalled = new BlockingSink();
+        BlockingSink other = new BlockingSink();
+        other.release.countDown();
+        pooled.register(1L, stalled);
+        pooled.register(2L, other);
+
+        try {
+            pooled.push(1L, List.of(delta(10L, 1)));
+            assertTrue(stalled.entered.await(5, TimeUnit.SECONDS));
+            // The only pool thread is stuck in the first client's send
+            pooled.push(2L, List.of(delta(20L, 1)));
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (pooled.getDroppedCount() == 0 && System.nanoTime() < deadline) {
+                Thread.sleep(20);
+                pooled.dropStalledWrites();
+            }
+
+            assertEquals(1, pooled.getDroppedCount());
+            assertTrue(stalled.closed);
+            assertTrue(other.entered.await(5, TimeUnit.SECONDS));
+            assertEquals(1, pooled.getConnectionCount());
+            assertEquals(2, pool.getCorePoolSize());
+        } finally {
+            stalled.release.countDown();
+        }
+
+        // The stuck write returned, so the stand-in thread goes back
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (pool.getCorePoolSize() != 1 && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(1, pool.getCorePoolSize());
+        pooled.destroy();
+    }
+
+    private static GradeDelta delta(Long moduleId, long revision) {
+        return new GradeDelta(moduleId, revision, new BigDecimal("40.00"), "A",
+                new BigDecimal("4.0"), new BigDecimal("3.5"));
+    }
+
+    private static class RecordingSink implements GradeDeltaBroadcaster.Sink {
+        final List<GradeDelta> sent = new ArrayList<>();
+        boolean failing;
+        boolean closed;
+
+        @Override
+        public void send(GradeDelta delta) throws IOException {
+            if (failing) {
+                throw new IOException("Broken pipe");
+            }
+            sent.add(delta);
+        }
+
+        @Override
+        public void heartbeat() {
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+
+        List<Long> moduleIds() {
+            return sent.stream().map(GradeDelta::moduleId).toList();
+        }
+    }
+
+    /**
+     * Blocks in send until released, like a client that has stopped reading.
+     */
+    private static class BlockingSink implements GradeDeltaBroadcaster.Sink {
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        volatile boolean closed;
+
+        @Override
+        public void send(GradeDelta delta) throws IOException {
+            entered.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+        }
+
+        @Override
+        public void heartbeat() {
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+
+    /**
+     * Holds writes until asked, so a test can push several times while the first write waits.
+     */
+    private static class QueuedExecutor extends AbstractExecutorService {
+        private final Queue<Runnable> tasks = new ArrayDeque<>();
+
+        @Override
+        public void execute(Runnable command) {
+            tasks.add(command);
+        }
+
+        void runAll() {
+            Runnable task;
+            while ((task = tasks.poll()) != null) {
+                task.run();
+            }
+        }
+
+        @Override
+        public void shutdown() {
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return List.of();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return false;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return false;
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.ignacio.gradecalc.repository;
+
+import com.ignacio.gradecalc.entity.Assessment;
+import com.ignacio.gradecalc.entity.Module;
+import com.ignacio.gradecalc.entity.ModuleAggregates;
+import com.ignacio.gradecalc.entity.User;
+import com.ignacio.gradecalc.enums.AssessmentType;
+import com.ignacio.gradecalc.enums.UniversityPreset;
+import com.ignacio.gradecalc.service.ModuleProgress;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class AssessmentRepositoryTest {
+
+    @Autowired
+    private AssessmentRepository assessmentRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    @DisplayName("Should sum the same totals in SQL as the entities give")
+    void findProgressByUserId_MatchesEntities() {
+        Random random = new Random(7);
+        User user = entityManager.persist(new User("student", "hash", UniversityPreset.TUD));
+
+        List<Module> modules = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            Module module = new Module(user, "Module " + i, "MOD" + i, 5 * (1 + random.nextInt(3)), "B1", "S1");
+            for (int j = 0; j < random.nextInt(7); j++) {
+                Assessment assessment = new Assessment(module, "Assessment " + j, AssessmentType.EXAM,
+                        BigDecimal.valueOf(100 + random.nextInt(4_000), 2),
+                        BigDecimal.valueOf(1_000 + random.nextInt(9_000), 2));
+                if (random.nextInt(3) > 0) {
+                    assessment.setObtainedMark(BigDecimal.valueOf(random.nextInt(10_000), 2));
+                }
+                module.getAssessments().add(assessment);
+            }
+            modules.add(entityManager.persist(module));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        List<ModuleProgress> progress = assessmentRepository.findProgressByUserId(user.getId());
+
+        assertEquals(modules.size(), progress.size());
+        for (int i = 0; i < modules.size(); i++) {
+            Module module = modules.get(i);
+            ModuleProgress row = progress.get(i);
+            ModuleAggregates expected = ModuleAggregates.of(module.getAssessments());
+
+            assertEquals(module.getId(), row.moduleId());
+            assertEquals(module.getCredits(), row.credits());
+            assertEquals("B1", row.targetGrade());
+            assertBigDecimalEquals(expected.getCompletedWeight(), row.completedWeight());
+            assertBigDecimalEquals(expected.getWeightedScore(), row.weightedScore());
+            assertBigDecimalEquals(expected.getPendingWeight(), row.pendingWeight());
+            assertEquals(expected.getCompletedCount().longValue(), row.completedCount().longValue());
+            assertEquals(module.getAssessments().size() - expected.getCompletedCount(), row.pendingCount().longValue());
+        }
+    }
+
+    @Test
+    @DisplayName("Should only return the user's own modules")
+    void findProgressByUserId_OnlyOwnModules() {
+        User user = entityManager.persist(new User("student", "hash", UniversityPreset.TUD));
+        User other = entityManager.persist(new User("other", "hash", UniversityPreset.TUD));
+        entityManager.persist(new Module(user, "Mine", "MOD1", 5, null, "S1"));
+        entityManager.persist(new Module(other, "Theirs", "MOD2", 5, null, "S1"));
+        entityManager.flush();
+
+        List<ModuleProgress> progress = assessmentRepository.findProgressByUserId(user.getId());
+
+        assertEquals(1, progress.size());
+        assertBigDecimalEquals(BigDecimal.ZERO, progress.get(0).completedWeight());
+        assertEquals(0, progress.get(0).pendingCount().longValue());
+    }
+
+    // Helper method for BigDecimal comparison (ignores scale)
+    private void assertBigDecimalEquals(BigDecimal expected, BigDecimal actual) {
+        assertEquals(0, expected.compareTo(actual), "Expected " + expected + " but got " + actual);
+    }
+}
@@ -0,0 +1,131 @@
+package com.ignacio.gradecalc.repository;
+
+import com.ignacio.gradecalc.entity.Assessment;
+import com.ignacio.gradecalc.entity.Module;
+import com.ignacio.gradecalc.entity.User;
+import com.ignacio.gradecalc.enums.AssessmentType;
+import com.ignacio.gradecalc.enums.UniversityPreset;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class ModuleRepositoryTest {
+
+    @Autowired
+    private ModuleRepository moduleRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    @DisplayName("Should load modules and assessments in one query however many modules there are")
+    void findWithAssessmentsByUserId_ConstantQueries() {
+        Long small = createUser("small", 1, 3);
+        Long large = createUser("large", 25, 3);
+
+        assertEquals(1, countQueries(() -> readAll(moduleRepository.findWithAssessmentsByUserId(small))));
+        assertEquals(1, countQueries(() -> readAll(moduleRepository.findWithAssessmentsByUserId(large))));
+
+        // The lazy query needs one more SELECT per module
+        assertEquals(26, countQueries(() -> readAll(moduleRepository.findByUserId(large))));
+    }
+
+    @Test
+    @DisplayName("Should return each module once with all of its assessments")
+    void findWithAssessmentsByUserId_DeduplicatesModules() {
+        Long userId = createUser("student", 4, 5);
+        entityManager.clear();
+
+        List<Module> modules = moduleRepository.findWithAssessmentsByUserId(userId);
+
+        assertEquals(4, modules.size());
+        assertEquals(4, modules.stream().map(Module::getId).distinct().count());
+        for (Module module : modules) {
+            assertEquals(5, module.getAssessments().size());
+        }
+    }
+
+    @Test
+    @DisplayName("Should include modules with no assessments")
+    void findWithAssessmentsByUserId_EmptyModule() {
+        Long userId = createUser("student", 2, 0);
+        entityManager.clear();
+
+        List<Module> modules = moduleRepository.findWithAssessmentsByUserId(userId);
+
+        assertEquals(2, modules.size());
+        assertTrue(modules.get(0).getAssessments().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should filter by semester in one query")
+    void findWithAssessmentsByUserIdAndSemester_FiltersSemester() {
+        Long userId = createUser("student", 6, 2);
+
+        long queries = countQueries(() -> {
+            List<Module> modules = moduleRepository.findWithAssessmentsByUserIdAndSemester(userId, "S2");
+            assertEquals(3, modules.size());
+            modules.forEach(module -> assertEquals("S2", module.getSemester()));
+            readAll(modules);
+        });
+
+        assertEquals(1, queries);
+    }
+
+    // Helper methods
+
+    /**
+     * Persist a user whose modules alternate between semesters S1 and S2.
+     */
+    private Long createUser(String username, int modules, int assessmentsPerModule) {
+        User user = entityManager.persist(new User(username, "hash", UniversityPreset.TUD));
+
+        for (int i = 0; i < modules; i++) {
+            Module module = new Module(user, "Module " + i, "MOD" + i, 5, null, i % 2 == 0 ? "S1" : "S2");
+            for (int j = 0; j < assessmentsPerModule; j++) {
+                Assessment assessment = new Assessment(module, "Assessment " + j, AssessmentType.EXAM,
+                        new BigDecimal("20.00"), new BigDecimal("100.00"));
+                assessment.setObtainedMark(new BigDecimal("65.00"));
+                module.getAssessments().add(assessment);
+            }
+            entityManager.persist(module);
+        }
+
+        entityManager.flush();
+        return user.getId();
+    }
+
+    private long countQueries(Runnable work) {
+        entityManager.clear();
+        statistics.clear();
+        work.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void readAll(List<Module> modules) {
+        for (Module module : modules) {
+            for (Assessment assessment : module.getAssessments()) {
+                assessment.getObtainedMark();
+            }
+        }
+    }
+}
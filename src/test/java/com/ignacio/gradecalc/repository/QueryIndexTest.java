@@ -0,0 +1,82 @@
+package com.ignacio.gradecalc.repository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks with H2's EXPLAIN that the hot repository queries use the indexes
+ * from the migrations rather than scanning the table.
+ */
+@DataJpaTest
+class QueryIndexTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    @DisplayName("findByModuleId should use the assessments module index")
+    void findByModuleId_UsesIndex() throws SQLException {
+        assertUsesIndex("SELECT * FROM assessments WHERE module_id = 1", null);
+    }
+
+    @Test
+    @DisplayName("findByModuleIdAndObtainedMarkIsNull should use the composite index")
+    void findByModuleIdAndObtainedMarkIsNull_UsesIndex() throws SQLException {
+        assertUsesIndex("SELECT * FROM assessments WHERE module_id = 1 AND obtained_mark IS NULL",
+                "IDX_ASSESSMENTS_MODULE_MARK");
+    }
+
+    @Test
+    @DisplayName("findByUserId should use the modules user index")
+    void findByUserId_UsesIndex() throws SQLException {
+        assertUsesIndex("SELECT * FROM modules WHERE user_id = 1", null);
+    }
+
+    @Test
+    @DisplayName("findByUserIdAndSemester should use the composite index")
+    void findByUserIdAndSemester_UsesIndex() throws SQLException {
+        assertUsesIndex("SELECT * FROM modules WHERE user_id = 1 AND semester = 'S1'",
+                "IDX_MODULES_USER_SEMESTER");
+    }
+
+    @Test
+    @DisplayName("findByUniversity should use the grading scales index")
+    void findByUniversity_UsesIndex() throws SQLException {
+        assertUsesIndex("SELECT * FROM grading_scales WHERE university = 'TUD'",
+                "IDX_GRADING_SCALES_UNIVERSITY");
+    }
+
+    // Helper methods
+
+    /**
+     * @param expectedIndex The index the plan must name, or null if any index will do
+     *                      (H2 may pick the foreign key's own index for a single column)
+     */
+    private void assertUsesIndex(String sql, String expectedIndex) throws SQLException {
+        String plan = explain(sql);
+
+        assertFalse(plan.contains("tableScan"), "Expected an index but got:\n" + plan);
+        if (expectedIndex != null) {
+            assertTrue(plan.toUpperCase().contains(expectedIndex), "Expected " + expectedIndex + " in:\n" + plan);
+        }
+    }
+
+    private String explain(String sql) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("EXPLAIN " + sql)) {
+            rs.next();
+            return rs.getString(1);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.ignacio.gradecalc.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuthTokenServiceTest {
+
+    private static final String OLD_KEY = "k1=" + key('a');
+    private static final String NEW_KEY = "k2=" + key('b');
+    private static final Instant NOW = Instant.parse("2026-06-01T09:00:00Z");
+
+    @Test
+    @DisplayName("Should verify a token it issued and return its contents")
+    void verify_RoundTrip() {
+        AuthTokenService service = createService(OLD_KEY, NOW);
+
+        AuthToken token = service.verify(service.issue("séan.o'brien")).orElseThrow();
+
+        assertEquals("séan.o'brien", token.username());
+        assertEquals(NOW.plus(Duration.ofHours(8)), token.expiresAt());
+        assertEquals("k1", token.keyId());
+    }
+
+    @Test
+    @DisplayName("Should reject a token whose contents were changed")
+    void verify_RejectsTampering() {
+        AuthTokenService service = createService(OLD_KEY, NOW);
+        String token = service.issue("alice");
+
+        String otherUser = token.replace(encode("alice"), encode("mallory"));
+        long expiresAt = NOW.plus(Duration.ofHours(8)).getEpochSecond();
+        String longerLived = token.replace("." + expiresAt + ".", "." + (expiresAt + 3600) + ".");
+
+        assertTrue(service.verify(otherUser).isEmpty());
+        assertNotEquals(token, longerLived);
+        assertTrue(service.verify(longerLived).isEmpty());
+        assertTrue(service.verify("not a token").isEmpty());
+        assertTrue(service.verify(null).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should reject a token once it has expired")
+    void verify_RejectsExpired() {
+        String token = createService(OLD_KEY, NOW).issue("alice");
+
+        assertTrue(createService(OLD_KEY, NOW.plus(Duration.ofHours(7))).verify(token).isPresent());
+        assertTrue(createService(OLD_KEY, NOW.plus(Duration.ofHours(8))).verify(token).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should keep accepting tokens from the previous key after rotation")
+    void verify_KeyRotation() {
+        String oldToken = createService(OLD_KEY, NOW).issue("alice");
+
+        AuthTokenService rotated = createService(NEW_KEY + "," + OLD_KEY, NOW);
+        AuthToken verified = rotated.verify(oldToken).orElseThrow();
+        assertEquals("k1", verified.keyId());
+        assertTrue(rotated.needsRefresh(verified));
+        assertEquals("k2", rotated.verify(rotated.issue("alice")).orElseThrow().keyId());
+
+        AuthTokenService retired = createService(NEW_KEY, NOW);
+        assertTrue(retired.verify(oldToken).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should refresh tokens with less than half their life left")
+    void needsRefresh_AfterHalfLife() {
+        AuthToken token = createService(OLD_KEY, NOW)
+                .verify(createService(OLD_KEY, NOW).issue("alice")).orElseThrow();
+
+        assertFalse(createService(OLD_KEY, NOW.plus(Duration.ofHours(3))).needsRefresh(token));
+        assertTrue(createService(OLD_KEY, NOW.plus(Duration.ofHours(5))).needsRefresh(token));
+    }
+
+    @Test
+    @DisplayName("Should refuse keys that are too short or badly formatted")
+    void constructor_ValidatesKeys() {
+        String shortKey = "k1=" + Base64.getEncoder().encodeToString(new byte[16]);
+
+        assertThrows(IllegalArgumentException.class, () -> createService(shortKey, NOW));
+        assertThrows(IllegalArgumentException.class, () -> createService(key('a'), NOW));
+        assertThrows(IllegalArgumentException.class, () -> createService("k.1=" + key('a'), NOW));
+    }
+
+    // Helper methods
+
+    private AuthTokenService createService(String keys, Instant now) {
+        return new AuthTokenService(keys, Duration.ofHours(8), Clock.fixed(now, ZoneOffset.UTC));
+    }
+
+    private static String key(char fill) {
+        return Base64.getEncoder().encodeToString(String.valueOf(fill).repeat(32).getBytes());
+    }
+
+    private static String encode(String username) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(username.getBytes());
+    }
+}
@@ -0,0 +1,87 @@
+package com.ignacio.gradecalc.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoginThrottleTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    @DisplayName("Should allow a username's burst, then ask it to wait for the next token")
+    void tryAcquire_UsernameBurst() {
+        LoginThrottle throttle = new LoginThrottle(3, 6, 1000, 1000, 10_000, now::get);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, throttle.tryAcquire("alice", "10.0.0." + i));
+        }
+
+        // 6 per minute is one token every 10 seconds
+        assertEquals(10, throttle.tryAcquire("ALICE ", "10.0.0.9"));
+        assertEquals(0, throttle.tryAcquire("bob", "10.0.0.9"));
+        assertEquals(1, throttle.getThrottledCount());
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        assertEquals(0, throttle.tryAcquire("alice", "10.0.0.9"));
+    }
+
+    @Test
+    @DisplayName("Should limit one address however many usernames it tries")
+    void tryAcquire_AddressLimit() {
+        LoginThrottle throttle = new LoginThrottle(1000, 1000, 5, 60, 10_000, now::get);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, throttle.tryAcquire("user" + i, "203.0.113.7"));
+        }
+
+        assertEquals(1, throttle.tryAcquire("user5", "203.0.113.7"));
+        assertEquals(0, throttle.tryAcquire("user5", "203.0.113.8"));
+    }
+
+    @Test
+    @DisplayName("Should not refill a bucket beyond its burst")
+    void tryAcquire_RefillCapped() {
+        LoginThrottle throttle = new LoginThrottle(2, 60, 1000, 1000, 10_000, now::get);
+
+        now.addAndGet(TimeUnit.HOURS.toNanos(1));
+
+        assertEquals(0, throttle.tryAcquire("alice", "10.0.0.1"));
+        assertEquals(0, throttle.tryAcquire("alice", "10.0.0.1"));
+        assertTrue(throttle.tryAcquire("alice", "10.0.0.1") > 0);
+    }
+
+    @Test
+    @DisplayName("Should keep each username's allowance to itself however many other names are tried")
+    void tryAcquire_OwnBucketPerUsername() {
+        LoginThrottle throttle = new LoginThrottle(1, 1, 1_000_000, 1000, 100_000, now::get);
+
+        // Enough made-up names to have drained every one of the old shared buckets
+        for (int i = 0; i < 20_000; i++) {
+            throttle.tryAcquire("made-up-" + i, "203.0.113.7");
+            throttle.tryAcquire("made-up-" + i, "203.0.113.7");
+        }
+
+        assertEquals(0, throttle.tryAcquire("alice", "10.0.0.1"));
+        assertEquals(20_000, throttle.getThrottledCount());
+    }
+
+    @Test
+    @DisplayName("Should start an idle key afresh once its bucket would have refilled")
+    void tryAcquire_IdleBucketExpires() {
+        LoginThrottle throttle = new LoginThrottle(2, 60, 1000, 1000, 10_000, now::get);
+
+        throttle.tryAcquire("alice", "10.0.0.1");
+        throttle.tryAcquire("alice", "10.0.0.1");
+        assertTrue(throttle.tryAcquire("alice", "10.0.0.1") > 0);
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(3));
+        assertEquals(0, throttle.tryAcquire("alice", "10.0.0.1"));
+        assertEquals(0, throttle.tryAcquire("alice", "10.0.0.1"));
+        assertTrue(throttle.tryAcquire("alice", "10.0.0.1") > 0);
+    }
+}
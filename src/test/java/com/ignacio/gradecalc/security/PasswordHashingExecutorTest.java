@@ -0,0 +1,77 @@
+package com.ignacio.gradecalc.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHashingExecutorTest {
+
+    private final PasswordHashingExecutor executor = new PasswordHashingExecutor(1, 1);
+
+    @AfterEach
+    void tearDown() {
+        executor.destroy();
+    }
+
+    @Test
+    @DisplayName("Should refuse work straight away once the thread is busy and the queue is full")
+    void execute_RejectsWhenQueueFull() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> executor.execute(() -> {
+            started.countDown();
+            await(release);
+            return "first";
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> executor.execute(() -> "second"));
+        while (!executor.isSaturated()) {
+            Thread.onSpinWait();
+        }
+
+        assertThrows(HashingOverloadedException.class, () -> executor.execute(() -> "third"));
+        assertEquals(1, executor.getRejectionCount());
+
+        release.countDown();
+        assertEquals("first", running.get(5, TimeUnit.SECONDS));
+        assertEquals("second", queued.get(5, TimeUnit.SECONDS));
+        assertFalse(executor.isSaturated());
+    }
+
+    @Test
+    @DisplayName("Should rethrow an exception from the hash itself")
+    void execute_PropagatesFailure() {
+        IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class,
+                () -> executor.execute(() -> {
+                    throw new IllegalArgumentException("bad salt");
+                }));
+
+        assertEquals("bad salt", thrown.getMessage());
+    }
+
+    @Test
+    @DisplayName("Should ask for a re-hash only when the stored cost differs from the configured strength")
+    void upgradeEncoding_ComparesCost() {
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(12, executor);
+
+        assertTrue(encoder.upgradeEncoding("$2a$10$N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy"));
+        assertFalse(encoder.upgradeEncoding("$2a$12$N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy"));
+        assertFalse(encoder.upgradeEncoding(null));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.ignacio.gradecalc.service;
+
+import com.ignacio.gradecalc.entity.Assessment;
+import com.ignacio.gradecalc.entity.Module;
+import com.ignacio.gradecalc.entity.User;
+import com.ignacio.gradecalc.enums.AssessmentType;
+import com.ignacio.gradecalc.enums.UniversityPreset;
+import com.ignacio.gradecalc.repository.AssessmentRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The running module totals as the service maintains them, read back from the database.
+ */
+@DataJpaTest
+@Import(AssessmentService.class)
+class AssessmentServiceTest {
+
+    @Autowired
+    private AssessmentService assessmentService;
+
+    @Autowired
+    private AssessmentRepository assessmentRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    @DisplayName("Should keep the module totals right through marking, editing and deleting assessments")
+    void writes_KeepModuleTotals() {
+        Module module = createModule("student");
+        Long exam = assessmentService.createAssessment(module.getId(), "Exam", AssessmentType.EXAM,
+                new BigDecimal("50.00"), new BigDecimal("100.00"), null).getId();
+        assessmentService.createAssessment(module.getId(), "Lab", AssessmentType.EXAM,
+                new BigDecimal("30.00"), new BigDecimal("100.00"), null);
+        Long essay = assessmentService.createAssessment(module.getId(), "Essay", AssessmentType.EXAM,
+                new BigDecimal("20.00"), new BigDecimal("50.00"), null).getId();
+        long revision = revision(module);
+        assertTotals(module, "0", "0", "100", 0);
+
+        assessmentService.recordMark(exam, new BigDecimal("80.00"));
+        assertTotals(module, "50", "40", "50", 1);
+
+        assessmentService.recordMark(essay, new BigDecimal("25.00"));
+        assertTotals(module, "70", "50", "30", 2);
+
+        // 80% on a 40% weight
+        assessmentService.updateAssessment(exam, "Exam", AssessmentType.EXAM,
+                new BigDecimal("40.00"), new BigDecimal("100.00"), null);
+        assertTotals(module, "60", "42", "30", 2);
+
+        assessmentService.deleteAssessment(essay);
+        assertTotals(module, "40", "32", "30", 1);
+
+        assertEquals(revision + 4, revision(module));
+        // The loaded module was brought up to date too
+        assertEquals(0, new BigDecimal("32").compareTo(
+                entityManager.find(Module.class, module.getId()).getAggregates().getWeightedScore()));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("Should count a mark another request committed after this one loaded the module")
+    void recordMark_ConcurrentMarksAddUp() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        Module module = transaction.execute(status -> createModule("concurrent"));
+        Long[] ids = transaction.execute(status -> new Long[]{
+                assessmentService.createAssessment(module.getId(), "Exam", AssessmentType.EXAM,
+                        new BigDecimal("50.00"), new BigDecimal("100.00"), null).getId(),
+                assessmentService.createAssessment(module.getId(), "Lab", AssessmentType.EXAM,
+                        new BigDecimal("50.00"), new BigDecimal("100.00"), null).getId()
+        });
+
+        try {
+            TransactionTemplate other = new TransactionTemplate(transactionManager);
+            other.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+            transaction.executeWithoutResult(status -> {
+                Assessment exam = assessmentRepository.findById(ids[0]).orElseThrow();
+                exam.getModule().getAggregates().getCompletedWeight(); // Loaded before the other mark
+
+                other.executeWithoutResult(inner -> assessmentService.recordMark(ids[1], new BigDecimal("60.00")));
+                assessmentService.recordMark(ids[0], new BigDecimal("80.00"));
+            });
+
+            assertTotals(module, "100", "70", "0", 2);
+        } finally {
+            jdbcTemplate.update("DELETE FROM assessments WHERE module_id = ?", module.getId());
+            jdbcTemplate.update("DELETE FROM modules WHERE id = ?", module.getId());
+            jdbcTemplate.update("DELETE FROM users WHERE username = 'concurrent'");
+        }
+    }
+
+    // Helper methods
+
+    private Module createModule(String username) {
+        User user = entityManager.persist(new User(username, "hash", UniversityPreset.TUD));
+        Module module = entityManager.persist(new Module(user, "Databases", "COMP2001", 5, null, "S1"));
+        entityManager.flush();
+        return module;
+    }
+
+    private void assertTotals(Module module, String completedWeight, String weightedScore, String pendingWeight,
+                              int completedCount) {
+        Map<String, Object> totals = jdbcTemplate.queryForMap(
+                "SELECT completed_weight, weighted_score, pending_weight, completed_count FROM modules WHERE id = ?",
+                module.getId());
+        assertEquals(0, new BigDecimal(completedWeight).compareTo((BigDecimal) totals.get("COMPLETED_WEIGHT")));
+        assertEquals(0, new BigDecimal(weightedScore).compareTo((BigDecimal) totals.get("WEIGHTED_SCORE")));
+        assertEquals(0, new BigDecimal(pendingWeight).compareTo((BigDecimal) totals.get("PENDING_WEIGHT")));
+        assertEquals(completedCount, ((Number) totals.get("COMPLETED_COUNT")).intValue());
+    }
+
+    private long revision(Module module) {
+        return jdbcTemplate.queryForObject("SELECT revision FROM modules WHERE id = ?", Long.class, module.getId());
+    }
+}
@@ -0,0 +1,138 @@
+package com.ignacio.gradecalc.service;
+
+import com.ignacio.gradecalc.entity.Assessment;
+import com.ignacio.gradecalc.entity.Module;
+import com.ignacio.gradecalc.entity.User;
+import com.ignacio.gradecalc.enums.AssessmentType;
+import com.ignacio.gradecalc.enums.UniversityPreset;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({UserService.class, ModuleService.class, UserLookupCache.class, UsernameIndex.class})
+class CascadingDeleteTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ModuleService moduleService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    @DisplayName("Should delete a user's whole history in three statements")
+    void deleteUser_DeletesEverything() {
+        User user = createUser("student", 40, 8);
+        User other = createUser("other", 3, 2);
+
+        statistics.clear();
+        DeletionCounts counts = userService.deleteUser(user.getId());
+
+        assertEquals(new DeletionCounts(1, 40, 320), counts);
+        assertEquals(3, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+
+        // The other user is untouched
+        assertEquals(1, countRows("users"));
+        assertEquals(3, countRows("modules"));
+        assertEquals(6, countRows("assessments"));
+        assertNotNull(entityManager.find(User.class, other.getId()));
+    }
+
+    @Test
+    @DisplayName("Should use the same number of statements however much history there is")
+    void deleteUser_ConstantStatements() {
+        User small = createUser("small", 1, 1);
+        User large = createUser("large", 60, 10);
+
+        statistics.clear();
+        userService.deleteUser(small.getId());
+        long smallStatements = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        userService.deleteUser(large.getId());
+
+        assertEquals(smallStatements, statistics.getPrepareStatementCount());
+        assertEquals(0, countRows("assessments"));
+    }
+
+    @Test
+    @DisplayName("Should delete one module and only its assessments")
+    void deleteModule_DeletesAssessments() {
+        User user = createUser("student", 3, 4);
+        Long moduleId = user.getModules().get(1).getId();
+
+        statistics.clear();
+        DeletionCounts counts = moduleService.deleteModule(moduleId);
+
+        assertEquals(new DeletionCounts(0, 1, 4), counts);
+        // The two deletes, plus looking up the owner and marking their data as changed
+        assertEquals(4, statistics.getPrepareStatementCount());
+        assertEquals(1L, dataRevision(user));
+        assertEquals(2, countRows("modules"));
+        assertEquals(8, countRows("assessments"));
+        assertNull(entityManager.find(Module.class, moduleId));
+    }
+
+    @Test
+    @DisplayName("Should delete nothing for an unknown user")
+    void deleteUser_UnknownUser() {
+        createUser("student", 2, 2);
+
+        assertEquals(new DeletionCounts(0, 0, 0), userService.deleteUser(999_999L));
+        assertEquals(4, countRows("assessments"));
+    }
+
+    // Helper methods
+
+    private User createUser(String username, int modules, int assessmentsPerModule) {
+        User user = entityManager.persist(new User(username, "hash", UniversityPreset.TUD));
+
+        for (int i = 0; i < modules; i++) {
+            Module module = new Module(user, "Module " + i, "MOD" + i, 5, null, "S1");
+            for (int j = 0; j < assessmentsPerModule; j++) {
+                Assessment assessment = new Assessment(module, "Assessment " + j, AssessmentType.EXAM,
+                        new BigDecimal("10.00"), new BigDecimal("100.00"));
+                assessment.setObtainedMark(new BigDecimal("50.00"));
+                module.getAssessments().add(assessment);
+            }
+            user.getModules().add(entityManager.persist(module));
+        }
+
+        entityManager.flush();
+        return user;
+    }
+
+    private long dataRevision(User user) {
+        return ((Number) entityManager.getEntityManager()
+                .createNativeQuery("SELECT data_revision FROM users WHERE id = " + user.getId())
+                .getSingleResult()).longValue();
+    }
+
+    private long countRows(String table) {
+        return ((Number) entityManager.getEntityManager()
+                .createNativeQuery("SELECT COUNT(*) FROM " + table)
+                .getSingleResult()).longValue();
+    }
+}
@@ -0,0 +1,235 @@
+package com.ignacio.gradecalc.service;
+
+import com.ignacio.gradecalc.entity.Assessment;
+import com.ignacio.gradecalc.entity.GradingScale;
+import com.ignacio.gradecalc.entity.Module;
+import com.ignacio.gradecalc.entity.User;
+import com.ignacio.gradecalc.enums.AssessmentType;
+import com.ignacio.gradecalc.enums.UniversityPreset;
+import com.ignacio.gradecalc.repository.GradingScaleRepository;
+import com.ignacio.gradecalc.strategy.GradingStrategyFactory;
+import com.ignacio.gradecalc.strategy.StandardStrategy;
+import com.ignacio.gradecalc.strategy.TudStrategy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Differential test: the fixed-point calculator must return exactly what the
+ * BigDecimal path in GradeService returns for any value a
+ * precision = 5, scale = 2 column can hold.
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class FixedPointGradeCalculatorTest {
+
+    private static final long COLUMN_MAX = 999_99;
+
+    // Values at the edges of the column range and of the rounding boundaries
+    private static final long[] EDGE_VALUES = {
+            0, 1, -1, 50, -50, 99_99, 100_00, 100_01, 333_33, 666_67, COLUMN_MAX, -COLUMN_MAX
+    };
+
+    @Mock
+    private GradingScaleRepository gradingScaleRepository;
+
+    private GradeService gradeService;
+    private FixedPointGradeCalculator calculator;
+    private List<GradingScale> tudScales;
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        List strategies = Arrays.asList(new TudStrategy(), new StandardStrategy());
+        gradeService = new GradeService(new GradingStrategyFactory(strategies),
+                new GradingScaleRegistry(gradingScaleRepository));
+        calculator = new FixedPointGradeCalculator();
+
+        tudScales = Arrays.asList(
+                createScale("A1", 80.00, 100.00),
+                createScale("A2", 75.00, 79.99),
+                createScale("A3", 70.00, 74.99),
+                createScale("B1", 65.00, 69.99),
+                createScale("B2", 60.00, 64.99),
+                createScale("B3", 55.00, 59.99),
+                createScale("C1", 50.00, 54.99),
+                createScale("C2", 45.00, 49.99),
+                createScale("C3", 40.00, 44.99),
+                createScale("D1", 35.00, 39.99),
+                createScale("F", 0.00, 34.99)
+        );
+
+        testUser = new User();
+        testUser.setUniversityPreset(UniversityPreset.TUD);
+
+        when(gradingScaleRepository.findAll()).thenReturn(tudScales);
+    }
+
+    @Test
+    @DisplayName("Should match BigDecimal contribution at the edges of the column range")
+    void calculateCurrentPercentage_EdgeValues() {
+        for (long obtained : EDGE_VALUES) {
+            for (long total : EDGE_VALUES) {
+                if (total == 0) {
+                    continue;
+                }
+                for (long weight : EDGE_VALUES) {
+                    Module module = createModule(createAssessment(weight, obtained, total));
+
+                    assertEquals(gradeService.calculateCurrentPercentage(module),
+                            calculator.calculateCurrentPercentage(module),
+                            "obtained=" + obtained + " total=" + total + " weight=" + weight);
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should match BigDecimal current percentage for random modules")
+    void calculateCurrentPercentage_RandomModules() {
+        Random random = new Random(42);
+
+        for (int i = 0; i < 50_000; i++) {
+            Module module = createRandomModule(random);
+
+            assertEquals(gradeService.calculateCurrentPercentage(module),
+                    calculator.calculateCurrentPercentage(module));
+        }
+    }
+
+    @Test
+    @DisplayName("Should match BigDecimal projection to the full module")
+    void projectToFullModule_RandomValues() {
+        Random random = new Random(7);
+
+        for (int i = 0; i < 50_000; i++) {
+            Module module = createRandomModule(random);
+            BigDecimal currentScore = gradeService.calculateCurrentPercentage(module);
+            BigDecimal completedWeight = gradeService.calculateCompletedWeight(module);
+
+            if (completedWeight.signum() == 0) {
+                continue;
+            }
+
+            BigDecimal expected = currentScore
+                    .multiply(new BigDecimal("100"))
+                    .divide(completedWeight, 2, RoundingMode.HALF_UP);
+
+            assertEquals(expected, calculator.projectToFullModule(currentScore, completedWeight));
+        }
+    }
+
+    @Test
+    @DisplayName("Should match BigDecimal required percentage for every target grade")
+    void calculateRequiredPercentage_RandomModules() {
+        Random random = new Random(2024);
+
+        for (int i = 0; i < 20_000; i++) {
+            Module module = createRandomModule(random);
+
+            for (GradingScale scale : tudScales) {
+                assertEquals(gradeService.calculateRequiredPercentage(module, testUser, scale.getGradeCode()),
+                        calculator.calculateRequiredPercentage(module, scale.getMinPercentage()),
+                        "target " + scale.getGradeCode());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should round halves away from zero like RoundingMode.HALF_UP")
+    void divideHalfUp_MatchesBigDecimal() {
+        for (long dividend = -50; dividend <= 50; dividend++) {
+            for (long divisor : new long[]{-7, -4, -2, -1, 1, 2, 4, 7}) {
+                long expected = BigDecimal.valueOf(dividend)
+                        .divide(BigDecimal.valueOf(divisor), 0, RoundingMode.HALF_UP)
+                        .longValueExact();
+
+                assertEquals(expected, FixedPointGradeCalculator.divideHalfUp(dividend, divisor));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject values with more than two decimal places")
+    void toHundredths_RejectsExtraScale() {
+        assertEquals(6667, FixedPointGradeCalculator.toHundredths(new BigDecimal("66.67")));
+        assertEquals(8000, FixedPointGradeCalculator.toHundredths(new BigDecimal("80.0")));
+        assertThrows(ArithmeticException.class,
+                () -> FixedPointGradeCalculator.toHundredths(new BigDecimal("66.665")));
+    }
+
+    // Helper methods for creating test data
+
+    private Module createRandomModule(Random random) {
+        int count = 1 + random.nextInt(8);
+        Assessment[] assessments = new Assessment[count];
+
+        for (int i = 0; i < count; i++) {
+            long weight = randomColumnValue(random);
+            if (random.nextInt(3) == 0) {
+                assessments[i] = createPendingAssessment(weight);
+            } else {
+                long total = randomColumnValue(random);
+                if (total == 0) {
+                    total = 100_00;
+                }
+                assessments[i] = createAssessment(weight, randomColumnValue(random), total);
+            }
+        }
+
+        return createModule(assessments);
+    }
+
+    private long randomColumnValue(Random random) {
+        // Mostly realistic marks and weights, sometimes anywhere in the column range
+        if (random.nextInt(4) == 0) {
+            return random.nextLong() % (COLUMN_MAX + 1);
+        }
+        return random.nextInt(100_01);
+    }
+
+    private Module createModule(Assessment... assessments) {
+        Module module = new Module();
+        module.setAssessments(new ArrayList<>(Arrays.asList(assessments)));
+        return module;
+    }
+
+    private Assessment createAssessment(long weight, long obtained, long total) {
+        Assessment assessment = createPendingAssessment(weight);
+        assessment.setObtainedMark(BigDecimal.valueOf(obtained, 2));
+        assessment.setTotalMarks(BigDecimal.valueOf(total, 2));
+        return assessment;
+    }
+
+    private Assessment createPendingAssessment(long weight) {
+        Assessment assessment = new Assessment();
+        assessment.setType(AssessmentType.EXAM);
+        assessment.setWeightPercentage(BigDecimal.valueOf(weight, 2));
+        assessment.setTotalMarks(new BigDecimal("100.00"));
+        return assessment;
+    }
+
+    private GradingScale createScale(String code, double min, double max) {
+        GradingScale scale = new GradingScale();
+        scale.setUniversity("TUD");
+        scale.setGradeCode(code);
+        scale.setMinPercentage(new BigDecimal(String.valueOf(min)));
+        scale.setMaxPercentage(new BigDecimal(String.valueOf(max)));
+        return scale;
+    }
+}
@@ -0,0 +1,163 @@
+package com.ignacio.gradecalc.service;
+
+import com.ignacio.gradecalc.entity.Assessment;
+import com.ignacio.gradecalc.entity.Module;
+import com.ignacio.gradecalc.entity.User;
+import com.ignacio.gradecalc.enums.UniversityPreset;
+import com.ignacio.gradecalc.repository.AssessmentRepository;
+import com.ignacio.gradecalc.repository.ModuleRepository;
+import com.ignacio.gradecalc.repository.UserRepository;
+import com.ignacio.gradecalc.service.ChangeLog.EntityType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class GradeApiServiceTest {
+
+    private static final Long USER_ID = 1L;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private ModuleRepository moduleRepository;
+
+    @Mock
+    private AssessmentRepository assessmentRepository;
+
+    @Mock
+    private GradeService gradeService;
+
+    @Mock
+    private ChangeLog changeLog;
+
+    @Mock
+    private User user;
+
+    private GradeApiService gradeApiService;
+    private Module databases;
+    private Module networks;
+
+    @BeforeEach
+    void setUp() {
+        gradeApiService = new GradeApiService(userRepository, moduleRepository, assessmentRepository,
+                gradeService, changeLog);
+
+        when(user.getId()).thenReturn(USER_ID);
+        when(user.getDataRevision()).thenReturn(10L);
+        when(user.getUniversityPreset()).thenReturn(UniversityPreset.TUD);
+        when(userRepository.findById(USER_ID)).thenReturn(Optional.of(user));
+
+        databases = module(10L);
+        networks = module(20L);
+        when(moduleRepository.findByUserId(USER_ID)).thenReturn(List.of(networks, databases));
+        when(gradeService.calculateOverallGpaFromAggregates(anyList(), eq(user))).thenReturn(new BigDecimal("3.50"));
+    }
+
+    @Test
+    @DisplayName("Should return only changed entities, with the parent module of a changed assessment")
+    void changesSince_ReturnsChangedEntities() {
+        Assessment exam = assessment(101L, databases);
+        when(changeLog.findChanges(USER_ID, 7L, 10L)).thenReturn(List.of(
+                new ChangeLog.Entry(EntityType.ASSESSMENT, 101L, 8L, false)));
+        when(assessmentRepository.findAllById(anyCollection())).thenReturn(List.of(exam));
+
+        SyncDelta delta = gradeApiService.changesSince(USER_ID, 7L);
+
+        assertFalse(delta.full());
+        assertEquals(10L, delta.revision());
+        assertEquals(List.of(101L), delta.assessments().stream().map(AssessmentView::id).toList());
+        assertEquals(List.of(10L), delta.modules().stream().map(ModuleView::id).toList());
+        assertEquals(new BigDecimal("3.50"), delta.overallGpa());
+        assertTrue(delta.deletedModuleIds().isEmpty());
+        assertTrue(delta.deletedAssessmentIds().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should report tombstones, and logged entities that no longer exist, as deleted")
+    void changesSince_ReportsDeletions() {
+        when(changeLog.findChanges(USER_ID, 7L, 10L)).thenReturn(List.of(
+                new ChangeLog.Entry(EntityType.MODULE, 30L, 9L, true),
+                new ChangeLog.Entry(EntityType.MODULE, 40L, 8L, false),
+                new ChangeLog.Entry(EntityType.ASSESSMENT, 301L, 9L, true),
+                new ChangeLog.Entry(EntityType.ASSESSMENT, 401L, 8L, false)));
+        when(assessmentRepository.findAllById(anyCollection())).thenReturn(List.of());
+
+        SyncDelta delta = gradeApiService.changesSince(USER_ID, 7L);
+
+        assertTrue(delta.modules().isEmpty());
+        assertTrue(delta.assessments().isEmpty());
+        assertEquals(List.of(30L, 40L), delta.deletedModuleIds());
+        assertEquals(List.of(301L, 401L), delta.deletedAssessmentIds());
+    }
+
+    @Test
+    @DisplayName("Should resend every module when the preset changed")
+    void changesSince_PresetChanged_AllModules() {
+        when(changeLog.findChanges(USER_ID, 7L, 10L)).thenReturn(List.of(
+                new ChangeLog.Entry(EntityType.USER, USER_ID, 9L, false)));
+
+        SyncDelta delta = gradeApiService.changesSince(USER_ID, 7L);
+
+        assertEquals(List.of(10L, 20L), delta.modules().stream().map(ModuleView::id).toList());
+        verify(assessmentRepository, never()).findAllById(any());
+    }
+
+    @Test
+    @DisplayName("Should return an empty delta without reading the log when the client is current")
+    void changesSince_Current_Empty() {
+        SyncDelta delta = gradeApiService.changesSince(USER_ID, 10L);
+
+        assertFalse(delta.full());
+        assertTrue(delta.modules().isEmpty());
+        assertTrue(delta.assessments().isEmpty());
+        verifyNoInteractions(changeLog);
+    }
+
+    @Test
+    @DisplayName("Should return everything for a first sync or a revision ahead of the server")
+    void changesSince_FirstOrAhead_Full() {
+        databases.getAssessments().add(assessment(101L, databases));
+        when(moduleRepository.findWithAssessmentsByUserId(USER_ID)).thenReturn(List.of(databases, networks));
+
+        for (long since : new long[]{0L, 11L}) {
+            SyncDelta delta = gradeApiService.changesSince(USER_ID, since);
+
+            assertTrue(delta.full());
+            assertEquals(List.of(10L, 20L), delta.modules().stream().map(ModuleView::id).toList());
+            assertEquals(List.of(101L), delta.assessments().stream().map(AssessmentView::id).toList());
+        }
+        verifyNoInteractions(changeLog);
+    }
+
+    private Module module(Long id) {
+        Module module = new Module();
+        module.setId(id);
+        module.setName("Module " + id);
+        module.setCredits(5);
+        return module;
+    }
+
+    private Assessment assessment(Long id, Module module) {
+        Assessment assessment = new Assessment();
+        assessment.setId(id);
+        assessment.setName("Assessment " + id);
+        assessment.setModule(module);
+        return assessment;
+    }
+}
@@ -0,0 +1,233 @@
+package com.ignacio.gradecalc.service;
+
+import com.ignacio.gradecalc.entity.GradingScale;
+import com.ignacio.gradecalc.enums.UniversityPreset;
+import com.ignacio.gradecalc.repository.GradingScaleRepository;
+import com.ignacio.gradecalc.strategy.GradingStrategyFactory;
+import com.ignacio.gradecalc.strategy.StandardStrategy;
+import com.ignacio.gradecalc.strategy.TcdStrategy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GradingScaleRegistryTest {
+
+    @Mock
+    private GradingScaleRepository gradingScaleRepository;
+
+    private GradingScaleRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new GradingScaleRegistry(gradingScaleRepository);
+    }
+
+    @Test
+    @DisplayName("Should load scales once and serve later lookups from memory")
+    void getScales_LoadsOnce() {
+        when(gradingScaleRepository.findAll()).thenReturn(Arrays.asList(
+                createScale("TUD", "A1", 80.00, 100.00),
+                createScale("STANDARD", "A", 70.00, 100.00)
+        ));
+
+        for (int i = 0; i < 12; i++) {
+            registry.getScales(UniversityPreset.TUD);
+        }
+
+        verify(gradingScaleRepository, times(1)).findAll();
+        assertEquals(1, registry.getMissCount());
+        assertEquals(11, registry.getHitCount());
+    }
+
+    @Test
+    @DisplayName("Should resolve presets without scales to the shared STANDARD list")
+    void getScales_FallsBackToStandard() {
+        when(gradingScaleRepository.findAll()).thenReturn(Arrays.asList(
+                createScale("TUD", "A1", 80.00, 100.00),
+                createScale("STANDARD", "A", 70.00, 100.00)
+        ));
+
+        List<GradingScale> standard = registry.getScales(UniversityPreset.STANDARD);
+
+        assertEquals("A", standard.get(0).getGradeCode());
+        assertSame(standard, registry.getScales(UniversityPreset.DCU));
+        assertSame(standard, registry.getScales(UniversityPreset.MU));
+        assertEquals("A1", registry.getScales(UniversityPreset.TUD).get(0).getGradeCode());
+    }
+
+    @Test
+    @DisplayName("Should swap in new scales on reload")
+    void reload_SwapsSnapshot() {
+        when(gradingScaleRepository.findAll())
+                .thenReturn(List.of(createScale("TCD", "I", 70.00, 100.00)))
+                .thenReturn(List.of(createScale("TCD", "I", 75.00, 100.00)));
+
+        List<GradingScale> before = registry.getScales(UniversityPreset.TCD);
+        registry.reload();
+        List<GradingScale> after = registry.getScales(UniversityPreset.TCD);
+
+        assertNotSame(before, after);
+        assertEquals(0, new BigDecimal("75.00").compareTo(after.get(0).getMinPercentage()));
+    }
+
+    @Test
+    @DisplayName("Should reload the scales once the snapshot has expired")
+    void getScales_ExpiresAfterTtl() {
+        AtomicLong now = new AtomicLong();
+        registry = new GradingScaleRegistry(gradingScaleRepository, Duration.ofMinutes(10), now::get);
+        when(gradingScaleRepository.findAll()).thenReturn(List.of(createScale("TCD", "I", 70.00, 100.00)));
+
+        registry.getScales(UniversityPreset.TCD);
+        now.addAndGet(Duration.ofMinutes(9).toNanos());
+        registry.getScales(UniversityPreset.TCD);
+        verify(gradingScaleRepository, times(1)).findAll();
+
+        now.addAndGet(Duration.ofMinutes(2).toNanos());
+        registry.getScales(UniversityPreset.TCD);
+        verify(gradingScaleRepository, times(2)).findAll();
+        assertEquals(1, registry.getExpirationCount());
+        assertEquals(2, registry.getMissCount());
+    }
+
+    @Test
+    @DisplayName("Should keep the snapshot and generation when an expired reload finds the same scales")
+    void getScales_UnchangedReloadKeepsGeneration() {
+        AtomicLong now = new AtomicLong();
+        registry = new GradingScaleRegistry(gradingScaleRepository, Duration.ofMinutes(10), now::get);
+        when(gradingScaleRepository.findAll())
+                .thenReturn(List.of(createScale("TCD", "I", 70.00, 100.00)))
+                .thenReturn(List.of(createScale("TCD", "I", 70.0, 100.0)))
+                .thenReturn(List.of(createScale("TCD", "I", 75.00, 100.00)));
+
+        List<GradingScale> before = registry.getScales(UniversityPreset.TCD);
+        long generation = registry.getGeneration();
+
+        now.addAndGet(Duration.ofMinutes(11).toNanos());
+        assertSame(before, registry.getScales(UniversityPreset.TCD));
+        assertEquals(generation, registry.getGeneration());
+
+        // A real change moves it
+        registry.reload();
+        assertNotSame(before, registry.getScales(UniversityPreset.TCD));
+        assertNotEquals(generation, registry.getGeneration());
+        verify(gradingScaleRepository, times(3)).findAll();
+    }
+
+    @Test
+    @DisplayName("Should let one thread reload an expired snapshot while the others keep using it")
+    void getScales_SingleReloadWhenExpired() throws Exception {
+        AtomicLong now = new AtomicLong();
+        registry = new GradingScaleRegistry(gradingScaleRepository, Duration.ofMinutes(10), now::get);
+        CountDownLatch reloading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(gradingScaleRepository.findAll())
+                .thenReturn(List.of(createScale("TCD", "I", 70.00, 100.00)))
+                .thenAnswer(invocation -> {
+                    reloading.countDown();
+                    release.await();
+                    return List.of(createScale("TCD", "I", 75.00, 100.00));
+                });
+
+        List<GradingScale> before = registry.getScales(UniversityPreset.TCD);
+        now.addAndGet(Duration.ofMinutes(11).toNanos());
+
+        Thread reloader = new Thread(() -> registry.getScales(UniversityPreset.TCD));
+        reloader.start();
+        reloading.await();
+
+        // Served the expired scales without waiting or querying again
+        assertSame(before, registry.getScales(UniversityPreset.TCD));
+        release.countDown();
+        reloader.join();
+
+        verify(gradingScaleRepository, times(2)).findAll();
+        assertEquals(0, new BigDecimal("75.00").compareTo(
+                registry.getScales(UniversityPreset.TCD).get(0).getMinPercentage()));
+    }
+
+    @Test
+    @DisplayName("Should refuse to reload scales with a duplicate grade code and keep the old ones")
+    void reload_ConflictFails() {
+        registry = new GradingScaleRegistry(gradingScaleRepository, strategyFactory(), Duration.ofMinutes(10),
+                System::nanoTime);
+        when(gradingScaleRepository.findAll())
+                .thenReturn(List.of(createScale("TCD", "I", 70.00, 100.00)))
+                .thenReturn(List.of(createScale("TCD", "I", 70.00, 100.00), createScale("TCD", "I", 60.00, 69.99)));
+
+        List<GradingScale> before = registry.getScales(UniversityPreset.TCD);
+        long generation = registry.getGeneration();
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> registry.reload());
+        assertTrue(e.getMessage().contains("Duplicate grade code 'I'"));
+        assertSame(before, registry.getScales(UniversityPreset.TCD));
+        assertEquals(generation, registry.getGeneration());
+    }
+
+    @Test
+    @DisplayName("Should keep serving the old scales when an expired reload finds a conflict")
+    void getScales_ExpiredConflictKeepsScales() {
+        AtomicLong now = new AtomicLong();
+        registry = new GradingScaleRegistry(gradingScaleRepository, strategyFactory(), Duration.ofMinutes(10),
+                now::get);
+        when(gradingScaleRepository.findAll())
+                .thenReturn(List.of(createScale("TCD", "I", 70.00, 100.00)))
+                .thenReturn(List.of(createScale("TCD", "I", 70.00, 100.00), createScale("TCD", "I", 60.00, 69.99)));
+
+        List<GradingScale> before = registry.getScales(UniversityPreset.TCD);
+        now.addAndGet(Duration.ofMinutes(11).toNanos());
+
+        assertSame(before, registry.getScales(UniversityPreset.TCD));
+        // Not retried until the next expiry
+        now.addAndGet(Duration.ofMinutes(9).toNanos());
+        registry.getScales(UniversityPreset.TCD);
+        verify(gradingScaleRepository, times(2)).findAll();
+    }
+
+    @Test
+    @DisplayName("Should fail the first load when there are no scales to fall back on")
+    void getScales_ConflictOnFirstLoad() {
+        registry = new GradingScaleRegistry(gradingScaleRepository, strategyFactory(), Duration.ofMinutes(10),
+                System::nanoTime);
+        when(gradingScaleRepository.findAll()).thenReturn(List.of(
+                createScale("STANDARD", "A", 70.00, 100.00), createScale("STANDARD", "A", 60.00, 69.99)));
+
+        assertThrows(IllegalStateException.class, () -> registry.preload());
+    }
+
+    @Test
+    @DisplayName("Should return immutable lists")
+    void getScales_Immutable() {
+        when(gradingScaleRepository.findAll()).thenReturn(List.of(createScale("UCD", "A+", 90.00, 100.00)));
+
+        List<GradingScale> scales = registry.getScales(UniversityPreset.UCD);
+
+        assertThrows(UnsupportedOperationException.class, () -> scales.add(new GradingScale()));
+    }
+
+    private GradingStrategyFactory strategyFactory() {
+        return new GradingStrategyFactory(List.of(new StandardStrategy(), new TcdStrategy()));
+    }
+
+    private GradingScale createScale(String university, String code, double min, double max) {
+        GradingScale scale = new GradingScale();
+        scale.setUniversity(university);
+        scale.setGradeCode(code);
+        scale.setMinPercentage(new BigDecimal(String.valueOf(min)));
+        scale.setMaxPercentage(new BigDecimal(String.valueOf(max)));
+        return scale;
+    }
+}
@@ -0,0 +1,74 @@
+package com.ignacio.gradecalc.service;
+
+import com.ignacio.gradecalc.entity.Assessment;
+import com.ignacio.gradecalc.entity.Module;
+import com.ignacio.gradecalc.entity.User;
+import com.ignacio.gradecalc.enums.AssessmentType;
+import com.ignacio.gradecalc.enums.UniversityPreset;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The import against a real database. The test's transaction keeps one persistence context
+ * for the whole import, as open-session-in-view does for a request.
+ */
+@DataJpaTest
+@Import({MarkImportService.class, ModuleAggregateService.class})
+class MarkImportAggregatesTest {
+
+    @Autowired
+    private MarkImportService markImportService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Should rebuild a module from the latest marks when it is written in more than one chunk")
+    void importMarks_ModuleInSeveralChunks() throws Exception {
+        User user = entityManager.persist(new User("student", "hash", UniversityPreset.TUD));
+        Module module = new Module(user, "Databases", "COMP2001", 5, null, "S1");
+        Assessment exam = addAssessment(module, "Exam");
+        Assessment lab = addAssessment(module, "Lab");
+        entityManager.persist(module);
+        entityManager.flush();
+
+        // The first chunk marks both; the second changes the exam mark again
+        StringBuilder csv = new StringBuilder();
+        for (int i = 0; i < MarkImportService.CHUNK_SIZE - 1; i++) {
+            csv.append(exam.getId()).append(",10\n");
+        }
+        csv.append(lab.getId()).append(",20\n");
+        csv.append(exam.getId()).append(",90\n");
+
+        MarkImportResult result = markImportService.importMarks(user.getId(), new StringReader(csv.toString()));
+
+        assertEquals(MarkImportService.CHUNK_SIZE + 1, result.rowsApplied());
+        Map<String, Object> totals = jdbcTemplate.queryForMap(
+                "SELECT completed_weight, weighted_score, completed_count FROM modules WHERE id = ?", module.getId());
+        // 90% and 20% on 50% weights
+        assertEquals(0, new BigDecimal("55").compareTo((BigDecimal) totals.get("WEIGHTED_SCORE")));
+        assertEquals(0, new BigDecimal("100").compareTo((BigDecimal) totals.get("COMPLETED_WEIGHT")));
+        assertEquals(2, ((Number) totals.get("COMPLETED_COUNT")).intValue());
+    }
+
+    private Assessment addAssessment(Module module, String name) {
+        Assessment assessment = new Assessment(module, name, AssessmentType.EXAM,
+                new BigDecimal("50.00"), new BigDecimal("100.00"));
+        module.getAssessments().add(assessment);
+        return assessment;
+    }
+}
@@ -0,0 +1,225 @@
+package com.ignacio.gradecalc.service;
+
+import com.ignacio.gradecalc.event.MarksImported;
+import com.ignacio.gradecalc.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class MarkImportServiceTest {
+
+    private static final Long USER_ID = 1L;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private ModuleAggregateService moduleAggregateService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private MarkImportService markImportService;
+    private List<List<Object[]>> batches;
+
+    @BeforeEach
+    void setUp() {
+        markImportService = new MarkImportService(jdbcTemplate, transactionManager, userRepository,
+                moduleAggregateService, eventPublisher);
+        batches = new ArrayList<>();
+
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), eq(USER_ID))).thenReturn(List.of(
+                new MarkImportService.Target(101, 10, "COMP1001", "Final Exam", new BigDecimal("100.00")),
+                new MarkImportService.Target(102, 10, "COMP1001", "Lab 1, Part A", new BigDecimal("20.00")),
+                new MarkImportService.Target(201, 20, "MATH2002", "Quiz", new BigDecimal("10.00")),
+                new MarkImportService.Target(202, 20, "MATH2002", "Quiz", new BigDecimal("10.00"))
+        ));
+
+        // The service reuses its chunk list, so copy each batch as it is written
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(invocation -> {
+            List<Object[]> batch = invocation.getArgument(1);
+            batches.add(new ArrayList<>(batch));
+            return new int[batch.size()];
+        });
+    }
+
+    @Test
+    @DisplayName("Should apply rows by id and by module code and name")
+    void importMarks_AppliesValidRows() throws Exception {
+        String csv = """
+                module_code,assessment_name,obtained_mark
+                COMP1001,Final Exam,72.5
+                comp1001,"Lab 1, Part A",18
+                201,9.5
+                """;
+
+        MarkImportResult result = markImportService.importMarks(USER_ID, new StringReader(csv));
+
+        assertEquals(3, result.rowsRead());
+        assertEquals(3, result.rowsApplied());
+        assertEquals(0, result.rowsRejected());
+        assertTrue(result.errors().isEmpty());
+
+        assertEquals(1, batches.size());
+        List<Object[]> batch = batches.get(0);
+        assertArrayEquals(new Object[]{new BigDecimal("72.50"), 101L}, batch.get(0));
+        assertArrayEquals(new Object[]{new BigDecimal("18.00"), 102L}, batch.get(1));
+        assertArrayEquals(new Object[]{new BigDecimal("9.50"), 201L}, batch.get(2));
+
+        verify(moduleAggregateService).rebuildModules(Set.of(10L, 20L));
+        verify(eventPublisher).publishEvent(new MarksImported(USER_ID, Set.of(10L, 20L), List.of(101L, 102L, 201L)));
+    }
+
+    @Test
+    @DisplayName("Should report bad rows by line number and carry on")
+    void importMarks_RejectsInvalidRows() throws Exception {
+        String csv = """
+                101,80
+                999,50
+                COMP1001,Final Exam,abc
+                COMP1001,Final Exam,-1
+                102,25
+                MATH2002,Quiz,5
+                101,50.555
+                just one column
+                102,15
+                """;
+
+        MarkImportResult result = markImportService.importMarks(USER_ID, new StringReader(csv));
+
+        assertEquals(9, result.rowsRead());
+        assertEquals(2, result.rowsApplied());
+        assertEquals(7, result.rowsRejected());
+        assertFalse(result.errorsTruncated());
+
+        List<MarkImportError> errors = result.errors();
+        assertEquals(new MarkImportError(2, "Assessment not found: 999"), errors.get(0));
+        assertEquals(new MarkImportError(3, "Invalid mark: abc"), errors.get(1));
+        assertEquals(new MarkImportError(4, "Mark cannot be negative: -1"), errors.get(2));
+        assertEquals(new MarkImportError(5, "Mark 25 is above the total of 20.00"), errors.get(3));
+        assertEquals(6, errors.get(4).line());
+        assertTrue(errors.get(4).message().startsWith("More than one assessment named 'Quiz'"));
+        assertEquals(new MarkImportError(7, "Mark has more than 2 decimal places: 50.555"), errors.get(5));
+        assertEquals(new MarkImportError(8, "Expected 2 or 3 columns but found 1"), errors.get(6));
+    }
+
+    @Test
+    @DisplayName("Should not treat another user's assessment ids as theirs")
+    void importMarks_OnlyOwnAssessments() throws Exception {
+        MarkImportResult result = markImportService.importMarks(USER_ID, new StringReader("555,10\n"));
+
+        assertEquals(0, result.rowsApplied());
+        assertEquals("Assessment not found: 555", result.errors().get(0).message());
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    @DisplayName("Should write in chunks of CHUNK_SIZE rows")
+    void importMarks_WritesInChunks() throws Exception {
+        int rows = MarkImportService.CHUNK_SIZE * 2 + 500;
+        StringBuilder csv = new StringBuilder();
+        for (int i = 0; i < rows; i++) {
+            csv.append("101,").append(i % 100).append('\n');
+        }
+
+        MarkImportResult result = markImportService.importMarks(USER_ID, new StringReader(csv.toString()));
+
+        assertEquals(rows, result.rowsApplied());
+        assertEquals(3, batches.size());
+        assertEquals(MarkImportService.CHUNK_SIZE, batches.get(0).size());
+        assertEquals(500, batches.get(2).size());
+    }
+
+    @Test
+    @DisplayName("Should bump the user's data revision at the start of every chunk, before any writes")
+    void importMarks_BumpsRevisionFirst() throws Exception {
+        int rows = MarkImportService.CHUNK_SIZE + 10;
+        StringBuilder csv = new StringBuilder();
+        for (int i = 0; i < rows; i++) {
+            csv.append("101,50\n");
+        }
+
+        markImportService.importMarks(USER_ID, new StringReader(csv.toString()));
+
+        InOrder order = inOrder(userRepository, jdbcTemplate, moduleAggregateService);
+        for (int chunk = 0; chunk < 2; chunk++) {
+            order.verify(userRepository).bumpDataRevision(USER_ID);
+            order.verify(jdbcTemplate).batchUpdate(anyString(), anyList());
+            order.verify(moduleAggregateService).rebuildModules(Set.of(10L));
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject a failed chunk and still apply the next one")
+    void importMarks_FailedChunkDoesNotAbort() throws Exception {
+        when(jdbcTemplate.batchUpdate(anyString(), anyList()))
+                .thenThrow(new DataIntegrityViolationException("value too long"))
+                .thenAnswer(invocation -> new int[0]);
+
+        int rows = MarkImportService.CHUNK_SIZE + 10;
+        StringBuilder csv = new StringBuilder();
+        for (int i = 0; i < rows; i++) {
+            csv.append("101,50\n");
+        }
+
+        MarkImportResult result = markImportService.importMarks(USER_ID, new StringReader(csv.toString()));
+
+        assertEquals(10, result.rowsApplied());
+        assertEquals(MarkImportService.CHUNK_SIZE, result.rowsRejected());
+        assertEquals(1, result.errors().size());
+        assertEquals(1, result.errors().get(0).line());
+        assertTrue(result.errors().get(0).message().startsWith("Lines 1-" + MarkImportService.CHUNK_SIZE));
+    }
+
+    @Test
+    @DisplayName("Should cap the number of reported errors")
+    void importMarks_CapsErrors() throws Exception {
+        int rows = MarkImportService.MAX_REPORTED_ERRORS + 50;
+        StringBuilder csv = new StringBuilder();
+        for (int i = 0; i < rows; i++) {
+            csv.append("999,50\n");
+        }
+
+        MarkImportResult result = markImportService.importMarks(USER_ID, new StringReader(csv.toString()));
+
+        assertEquals(rows, result.rowsRejected());
+        assertEquals(MarkImportService.MAX_REPORTED_ERRORS, result.errors().size());
+        assertTrue(result.errorsTruncated());
+    }
+
+    @Test
+    @DisplayName("Should split quoted fields containing commas and quotes")
+    void parseLine_HandlesQuotes() {
+        assertEquals(List.of("CS1", "Essay, \"draft\"", "12"),
+                MarkImportService.parseLine("CS1 ,\"Essay, \"\"draft\"\"\", 12"));
+    }
+}
@@ -0,0 +1,86 @@
+package com.ignacio.gradecalc.service;
+
+import com.ignacio.gradecalc.entity.Assessment;
+import com.ignacio.gradecalc.entity.Module;
+import com.ignacio.gradecalc.entity.User;
+import com.ignacio.gradecalc.enums.AssessmentType;
+import com.ignacio.gradecalc.enums.UniversityPreset;
+import com.ignacio.gradecalc.repository.AssessmentRepository;
+import com.ignacio.gradecalc.repository.ModuleRepository;
+import com.ignacio.gradecalc.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ModuleAggregateServiceTest {
+
+    @Mock
+    private ModuleRepository moduleRepository;
+
+    @Mock
+    private AssessmentRepository assessmentRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ModuleAggregateService moduleAggregateService;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        moduleAggregateService = new ModuleAggregateService(moduleRepository, assessmentRepository, userRepository,
+                entityManager, transactionManager);
+
+        user = new User("student", "hash", UniversityPreset.TUD);
+        user.setId(1L);
+    }
+
+    @Test
+    @DisplayName("Should skip a module that fails and carry on with the rest")
+    void repairAll_ContinuesAfterFailure() {
+        when(moduleRepository.findAllIds()).thenReturn(List.of(1L, 2L, 3L));
+        drifted(1L);
+        when(moduleRepository.findById(2L)).thenThrow(new OptimisticLockingFailureException("Edited meanwhile"));
+        drifted(3L);
+
+        assertEquals(2, moduleAggregateService.repairAll());
+
+        verify(moduleRepository).findById(3L);
+        verify(userRepository, times(2)).bumpDataRevision(1L);
+    }
+
+    // A module whose stored totals are still zero although one assessment is marked
+    private void drifted(Long moduleId) {
+        Module module = new Module(user, "Module " + moduleId, "MOD" + moduleId, 5, null, "S1");
+        module.setId(moduleId);
+        Assessment exam = new Assessment(module, "Exam", AssessmentType.EXAM,
+                new BigDecimal("50.00"), new BigDecimal("100.00"));
+        exam.setObtainedMark(new BigDecimal("60.00"));
+
+        when(moduleRepository.findById(moduleId)).thenReturn(Optional.of(module));
+        when(assessmentRepository.findByModuleId(moduleId)).thenReturn(List.of(exam));
+    }
+}
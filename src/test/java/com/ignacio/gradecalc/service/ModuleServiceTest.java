@@ -0,0 +1,95 @@
+package com.ignacio.gradecalc.service;
+
+import com.ignacio.gradecalc.entity.Assessment;
+import com.ignacio.gradecalc.entity.Module;
+import com.ignacio.gradecalc.entity.User;
+import com.ignacio.gradecalc.enums.AssessmentType;
+import com.ignacio.gradecalc.enums.UniversityPreset;
+import com.ignacio.gradecalc.event.ModuleChanged;
+import com.ignacio.gradecalc.repository.AssessmentRepository;
+import com.ignacio.gradecalc.repository.ModuleRepository;
+import com.ignacio.gradecalc.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ModuleServiceTest {
+
+    @Mock
+    private ModuleRepository moduleRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private AssessmentRepository assessmentRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private ModuleService moduleService;
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        moduleService = new ModuleService(moduleRepository, userRepository, assessmentRepository, eventPublisher);
+
+        testUser = new User();
+        testUser.setId(1L);
+        testUser.setUniversityPreset(UniversityPreset.TUD);
+    }
+
+    @Test
+    @DisplayName("Should build the whole module graph and save it once")
+    void createModuleWithAssessments_SavesGraph() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(moduleRepository.save(any(Module.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Module module = moduleService.createModuleWithAssessments(1L, "Databases", "COMP2001", 5, "A2", "S1",
+                List.of(
+                        new NewAssessment("Exam", AssessmentType.EXAM, new BigDecimal("60"),
+                                new BigDecimal("100"), LocalDate.of(2026, 12, 10), null),
+                        new NewAssessment("Lab", AssessmentType.LAB, new BigDecimal("40"),
+                                new BigDecimal("50"), null, new BigDecimal("40"))
+                ));
+
+        verify(moduleRepository, times(1)).save(any(Module.class));
+        verify(eventPublisher).publishEvent(any(ModuleChanged.class));
+        assertSame(testUser, module.getUser());
+        assertEquals(2, module.getAssessments().size());
+
+        for (Assessment assessment : module.getAssessments()) {
+            assertSame(module, assessment.getModule());
+        }
+        assertEquals(LocalDate.of(2026, 12, 10), module.getAssessments().get(0).getDueDate());
+
+        // Lab: 40/50 = 80% on 40% weight = 32 points
+        assertEquals(0, new BigDecimal("32").compareTo(module.getAggregates().getWeightedScore()));
+        assertEquals(0, new BigDecimal("40").compareTo(module.getAggregates().getCompletedWeight()));
+        assertEquals(0, new BigDecimal("60").compareTo(module.getAggregates().getPendingWeight()));
+    }
+
+    @Test
+    @DisplayName("Should throw when the user does not exist")
+    void createModuleWithAssessments_UserNotFound() {
+        when(userRepository.findById(99L)).thenReturn(Optional.empty());
+
+        assertThrows(IllegalArgumentException.class, () -> moduleService.createModuleWithAssessments(
+                99L, "Databases", "COMP2001", 5, null, "S1", List.of()));
+        verify(moduleRepository, never()).save(any(Module.class));
+    }
+}
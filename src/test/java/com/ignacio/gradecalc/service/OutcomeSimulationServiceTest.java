@@ -0,0 +1,207 @@
+package com.ignacio.gradecalc.service;
+
+import com.ignacio.gradecalc.entity.Assessment;
+import com.ignacio.gradecalc.entity.GradingScale;
+import com.ignacio.gradecalc.entity.Module;
+import com.ignacio.gradecalc.entity.User;
+import com.ignacio.gradecalc.enums.AssessmentType;
+import com.ignacio.gradecalc.enums.UniversityPreset;
+import com.ignacio.gradecalc.repository.GradingScaleRepository;
+import com.ignacio.gradecalc.strategy.GradingStrategyFactory;
+import com.ignacio.gradecalc.strategy.StandardStrategy;
+import com.ignacio.gradecalc.strategy.TudStrategy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class OutcomeSimulationServiceTest {
+
+    private static final int TRIALS = 20_000;
+    private static final long SEED = 42;
+
+    @Mock
+    private GradingScaleRepository gradingScaleRepository;
+
+    private OutcomeSimulationService simulationService;
+    private GradeService gradeService;
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        List strategies = Arrays.asList(new TudStrategy(), new StandardStrategy());
+        GradingStrategyFactory strategyFactory = new GradingStrategyFactory(strategies);
+        GradingScaleRegistry registry = new GradingScaleRegistry(gradingScaleRepository);
+
+        gradeService = new GradeService(strategyFactory, registry);
+        simulationService = new OutcomeSimulationService(gradeService);
+
+        testUser = new User();
+        testUser.setUniversityPreset(UniversityPreset.TUD);
+
+        when(gradingScaleRepository.findAll()).thenReturn(Arrays.asList(
+                createScale("A1", 80.00, 100.00, 4.00),
+                createScale("A2", 75.00, 79.99, 3.80),
+                createScale("A3", 70.00, 74.99, 3.60),
+                createScale("B1", 65.00, 69.99, 3.20),
+                createScale("B2", 60.00, 64.99, 3.00),
+                createScale("B3", 55.00, 59.99, 2.80),
+                createScale("C1", 50.00, 54.99, 2.60),
+                createScale("C2", 45.00, 49.99, 2.40),
+                createScale("C3", 40.00, 44.99, 2.00),
+                createScale("D1", 35.00, 39.99, 1.60),
+                createScale("F", 0.00, 34.99, 0.00)
+        ));
+    }
+
+    @Test
+    @DisplayName("Should give the current grade with certainty when nothing is pending")
+    void simulateModule_AllCompleted() {
+        Module module = createModule(5,
+                createAssessment(AssessmentType.EXAM, 60, 72, 100),
+                createAssessment(AssessmentType.LAB, 40, 81, 100)
+        );
+
+        OutcomeDistribution outcome = simulationService.simulateModule(module, testUser, TRIALS, SEED);
+
+        String expected = gradeService.getCurrentGradeCode(module, testUser);
+        assertEquals(1.0, outcome.gradeProbabilities().get(expected));
+        assertEquals(0, gradeService.getCurrentGpaPoints(module, testUser).compareTo(outcome.gpa().median()));
+    }
+
+    @Test
+    @DisplayName("Should list every band, highest first, with probabilities summing to one")
+    void simulateModule_ProbabilitiesSumToOne() {
+        Module module = createModule(5,
+                createAssessment(AssessmentType.EXAM, 40, 65, 100),
+                createPendingAssessment(AssessmentType.EXAM, 60)
+        );
+
+        OutcomeDistribution outcome = simulationService.simulateModule(module, testUser, TRIALS, SEED);
+
+        List<String> codes = new ArrayList<>(outcome.gradeProbabilities().keySet());
+        assertEquals(List.of("A1", "A2", "A3", "B1", "B2", "B3", "C1", "C2", "C3", "D1", "F"), codes);
+
+        double total = outcome.gradeProbabilities().values().stream().mapToDouble(Double::doubleValue).sum();
+        assertEquals(1.0, total, 1e-9);
+        assertEquals(TRIALS, outcome.trials());
+    }
+
+    @Test
+    @DisplayName("Should sample pending work from results of the same type")
+    void simulateModule_UsesResultsOfSameType() {
+        // Strong in labs, weak in exams: the pending exam should drag the grade down
+        Module module = createModule(5,
+                createAssessment(AssessmentType.LAB, 10, 90, 100),
+                createAssessment(AssessmentType.LAB, 10, 94, 100),
+                createAssessment(AssessmentType.EXAM, 20, 40, 100),
+                createAssessment(AssessmentType.EXAM, 20, 44, 100),
+                createPendingAssessment(AssessmentType.EXAM, 40)
+        );
+
+        OutcomeDistribution outcome = simulationService.simulateModule(module, testUser, TRIALS, SEED);
+
+        assertTrue(outcome.gpa().mean() < 3.0);
+        assertTrue(outcome.gradeProbabilities().get("A1") < 0.01);
+    }
+
+    @Test
+    @DisplayName("Should return the same result for the same seed")
+    void simulateModule_Reproducible() {
+        Module module = createModule(5,
+                createAssessment(AssessmentType.ASSIGNMENT, 30, 70, 100),
+                createPendingAssessment(AssessmentType.ASSIGNMENT, 30),
+                createPendingAssessment(AssessmentType.EXAM, 40)
+        );
+
+        assertEquals(simulationService.simulateModule(module, testUser, TRIALS, SEED),
+                simulationService.simulateModule(module, testUser, TRIALS, SEED));
+    }
+
+    @Test
+    @DisplayName("Should fall back to a prior when nothing has been marked")
+    void simulateModule_NoCompletedWork() {
+        Module module = createModule(5, createPendingAssessment(AssessmentType.PROJECT, 100));
+
+        OutcomeDistribution outcome = simulationService.simulateModule(module, testUser, TRIALS, SEED);
+
+        double total = outcome.gradeProbabilities().values().stream().mapToDouble(Double::doubleValue).sum();
+        assertEquals(1.0, total, 1e-9);
+        assertTrue(outcome.gpa().p5().compareTo(outcome.gpa().p95()) < 0);
+    }
+
+    @Test
+    @DisplayName("Should match calculateOverallGpa when every module is complete")
+    void simulateTranscript_AllCompleted() {
+        List<Module> modules = List.of(
+                createModule(5, createAssessment(AssessmentType.EXAM, 100, 82, 100)),
+                createModule(10, createAssessment(AssessmentType.EXAM, 100, 57, 100)),
+                createModule(5, createAssessment(AssessmentType.LAB, 100, 66, 100))
+        );
+
+        TranscriptOutcome outcome = simulationService.simulateTranscript(modules, testUser, TRIALS, SEED);
+
+        BigDecimal expected = gradeService.calculateOverallGpa(modules, testUser);
+        assertEquals(3, outcome.modules().size());
+        assertEquals(1.0, outcome.overallGpa().probabilities().get(expected));
+        assertEquals(expected, outcome.overallGpa().p5());
+        assertEquals(expected, outcome.overallGpa().p95());
+    }
+
+    @Test
+    @DisplayName("Should reject a non-positive trial count")
+    void simulateModule_InvalidTrials() {
+        Module module = createModule(5, createPendingAssessment(AssessmentType.EXAM, 100));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> simulationService.simulateModule(module, testUser, 0, SEED));
+    }
+
+    // Helper methods for creating test data
+
+    private Module createModule(int credits, Assessment... assessments) {
+        Module module = new Module();
+        module.setCredits(credits);
+        module.setAssessments(new ArrayList<>(Arrays.asList(assessments)));
+        return module;
+    }
+
+    private Assessment createAssessment(AssessmentType type, double weight, double obtained, double total) {
+        Assessment assessment = createPendingAssessment(type, weight);
+        assessment.setObtainedMark(new BigDecimal(String.valueOf(obtained)));
+        assessment.setTotalMarks(new BigDecimal(String.valueOf(total)));
+        return assessment;
+    }
+
+    private Assessment createPendingAssessment(AssessmentType type, double weight) {
+        Assessment assessment = new Assessment();
+        assessment.setType(type);
+        assessment.setWeightPercentage(new BigDecimal(String.valueOf(weight)));
+        assessment.setTotalMarks(new BigDecimal("100"));
+        return assessment;
+    }
+
+    private GradingScale createScale(String code, double min, double max, double gpa) {
+        GradingScale scale = new GradingScale();
+        scale.setUniversity("TUD");
+        scale.setGradeCode(code);
+        scale.setMinPercentage(new BigDecimal(String.valueOf(min)));
+        scale.setMaxPercentage(new BigDecimal(String.valueOf(max)));
+        scale.setGpaPoints(new BigDecimal(String.valueOf(gpa)));
+        return scale;
+    }
+}
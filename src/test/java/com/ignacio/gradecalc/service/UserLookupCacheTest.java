@@ -0,0 +1,109 @@
+package com.ignacio.gradecalc.service;
+
+import com.ignacio.gradecalc.entity.User;
+import com.ignacio.gradecalc.enums.UniversityPreset;
+import com.ignacio.gradecalc.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class UserLookupCacheTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private final AtomicLong now = new AtomicLong();
+    private UserLookupCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new UserLookupCache(userRepository, 100, Duration.ofMinutes(10), now::get);
+
+        when(userRepository.findByUsername("alice")).thenReturn(Optional.of(createUser(1L, "alice")));
+        when(userRepository.findByUsername("bob")).thenReturn(Optional.of(createUser(2L, "bob")));
+        when(userRepository.findByUsername("nobody")).thenReturn(Optional.empty());
+    }
+
+    @Test
+    @DisplayName("Should query the database once per user and serve repeats from memory")
+    void findByUsername_CachesUser() {
+        for (int i = 0; i < 5; i++) {
+            assertEquals("alice", cache.findByUsername("alice").orElseThrow().username());
+        }
+
+        verify(userRepository, times(1)).findByUsername("alice");
+        assertEquals(4, cache.getStats().hitCount());
+        assertEquals(1, cache.getStats().missCount());
+        assertEquals(0.8, cache.getStats().hitRate(), 0.0001);
+    }
+
+    @Test
+    @DisplayName("Should not cache unknown usernames")
+    void findByUsername_UnknownNotCached() {
+        assertTrue(cache.findByUsername("nobody").isEmpty());
+        assertTrue(cache.findByUsername("nobody").isEmpty());
+
+        verify(userRepository, times(2)).findByUsername("nobody");
+    }
+
+    @Test
+    @DisplayName("Should reload a user after invalidating by username or id")
+    void invalidate_ReloadsUser() {
+        cache.findByUsername("alice");
+        cache.findByUsername("bob");
+
+        cache.invalidate("alice");
+        cache.invalidate(2L);
+        cache.findByUsername("alice");
+        cache.findByUsername("bob");
+
+        verify(userRepository, times(2)).findByUsername("alice");
+        verify(userRepository, times(2)).findByUsername("bob");
+    }
+
+    @Test
+    @DisplayName("Should reload a user once the entry has expired")
+    void findByUsername_Expires() {
+        cache.findByUsername("alice");
+
+        now.addAndGet(Duration.ofMinutes(9).toNanos());
+        cache.findByUsername("alice");
+        verify(userRepository, times(1)).findByUsername("alice");
+
+        now.addAndGet(Duration.ofMinutes(2).toNanos());
+        cache.findByUsername("alice");
+        verify(userRepository, times(2)).findByUsername("alice");
+        assertEquals(1, cache.getStats().evictionCount());
+    }
+
+    @Test
+    @DisplayName("Should evict entries beyond the maximum size")
+    void findByUsername_BoundedSize() {
+        cache = new UserLookupCache(userRepository, 1, Duration.ofMinutes(10), now::get);
+
+        cache.findByUsername("alice");
+        cache.findByUsername("bob");
+
+        assertEquals(1, cache.getStats().evictionCount());
+    }
+
+    private User createUser(Long id, String username) {
+        User user = new User(username, "hash", UniversityPreset.TUD);
+        user.setId(id);
+        return user;
+    }
+}
@@ -0,0 +1,151 @@
+package com.ignacio.gradecalc.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UsernameIndexTest {
+
+    private final List<String> usernames = new ArrayList<>();
+
+    @Test
+    @DisplayName("Should never report a registered name as absent")
+    void mightContain_NoFalseNegatives() {
+        UsernameIndex index = createIndex(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            usernames.add("student" + i);
+        }
+        index.build();
+
+        for (String username : usernames) {
+            assertTrue(index.mightContain(username), username);
+        }
+        assertEquals(0, index.getDefinitelyAbsentCount());
+    }
+
+    @Test
+    @DisplayName("Should turn away unknown names at about the target false-positive rate")
+    void mightContain_FalsePositiveRate() {
+        UsernameIndex index = createIndex(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            usernames.add("student" + i);
+        }
+        index.build();
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (index.mightContain("probe-" + i + "@example.com")) {
+                falsePositives++;
+            }
+        }
+
+        assertTrue(falsePositives < 2_000, "false positives: " + falsePositives);
+        assertEquals(0.01, index.getEstimatedFalsePositiveRate(), 0.005);
+        // m = -n ln p / (ln 2)^2 bits, about 1.2 bytes per name at 1%
+        assertEquals(11_984, index.getMemoryBytes());
+    }
+
+    @Test
+    @DisplayName("Should treat every name as possibly registered until built")
+    void mightContain_BeforeBuild() {
+        UsernameIndex index = createIndex(100, 0.01);
+
+        assertTrue(index.mightContain("anyone"));
+        assertEquals(1.0, index.getEstimatedFalsePositiveRate());
+    }
+
+    @Test
+    @DisplayName("Should include names registered after the build and during a rebuild")
+    void add_DuringRebuild() {
+        UsernameIndex[] index = new UsernameIndex[1];
+        index[0] = new UsernameIndex(sink -> {
+            sink.accept("alice");
+            // Registered while the table is being read, and missed by the read
+            index[0].add("bob");
+        }, 100, 0.01);
+
+        index[0].build();
+        index[0].add("carol");
+
+        assertTrue(index[0].mightContain("alice"));
+        assertTrue(index[0].mightContain("bob"));
+        assertTrue(index[0].mightContain("carol"));
+        assertFalse(index[0].mightContain("mallory"));
+    }
+
+    @Test
+    @DisplayName("Should keep every name registered while rebuilds swap the filter")
+    void add_RacingRebuilds() throws Exception {
+        Set<String> table = ConcurrentHashMap.newKeySet();
+        UsernameIndex index = new UsernameIndex(sink -> table.forEach(sink), 100, 0.01);
+        index.build();
+
+        AtomicBoolean registering = new AtomicBoolean(true);
+        Thread rebuilder = new Thread(() -> {
+            while (registering.get()) {
+                index.build();
+            }
+        });
+        rebuilder.start();
+
+        // As after commit: the name is in the table, so only a rebuild that read it earlier can miss it
+        List<Thread> registrars = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            String prefix = "student" + t + "-";
+            registrars.add(new Thread(() -> {
+                for (int i = 0; i < 5_000; i++) {
+                    String username = prefix + i;
+                    table.add(username);
+                    index.add(username);
+                }
+            }));
+        }
+        registrars.forEach(Thread::start);
+        for (Thread registrar : registrars) {
+            registrar.join();
+        }
+        registering.set(false);
+        rebuilder.join();
+
+        assertEquals(40_000, table.size());
+        for (String username : table) {
+            assertTrue(index.mightContain(username), username);
+        }
+    }
+
+    @Test
+    @DisplayName("Should rebuild without deleted names once a tenth of them are gone")
+    void rebuildIfStale_DropsDeletedNames() {
+        UsernameIndex index = createIndex(100, 0.01);
+        for (int i = 0; i < 20; i++) {
+            usernames.add("student" + i);
+        }
+        index.build();
+
+        usernames.remove("student0");
+        index.recordRemoval();
+        index.rebuildIfStale();
+        assertTrue(index.mightContain("student0"));
+
+        usernames.remove("student1");
+        index.recordRemoval();
+        index.rebuildIfStale();
+        assertFalse(index.mightContain("student0"));
+        assertFalse(index.mightContain("student1"));
+        assertTrue(index.mightContain("student2"));
+    }
+
+    // Helper methods
+
+    private UsernameIndex createIndex(int expectedCount, double falsePositiveRate) {
+        return new UsernameIndex(sink -> usernames.forEach(sink), expectedCount, falsePositiveRate);
+    }
+}
@@ -0,0 +1,54 @@
+package com.ignacio.gradecalc.strategy;
+
+import com.ignacio.gradecalc.entity.GradingScale;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompiledScalesTest {
+
+    private final CompiledScales compiled = new CompiledScales(GradeAliases.none());
+
+    @Test
+    @DisplayName("Should keep one compiled table per university when handed several in turn")
+    void boundaryTable_PerUniversity() {
+        List<GradingScale> standard = List.of(createScale("STANDARD", "A", 70.00, 100.00));
+        List<GradingScale> dcu = List.of(createScale("DCU", "H1", 70.00, 100.00));
+
+        GradeBoundaryTable standardTable = compiled.boundaryTable(standard);
+        GradeBoundaryTable dcuTable = compiled.boundaryTable(dcu);
+
+        assertSame(standardTable, compiled.boundaryTable(standard));
+        assertSame(dcuTable, compiled.boundaryTable(dcu));
+        assertSame(compiled.aliasIndex(standard), compiled.aliasIndex(standard));
+        assertEquals("H1", compiled.aliasIndex(dcu).find("H1").getGradeCode());
+        assertNull(compiled.aliasIndex(standard).find("H1"));
+    }
+
+    @Test
+    @DisplayName("Should recompile a university's table when its scales are reloaded")
+    void boundaryTable_Reloaded() {
+        List<GradingScale> before = List.of(createScale("TCD", "I", 70.00, 100.00));
+        List<GradingScale> after = List.of(createScale("TCD", "I", 75.00, 100.00));
+
+        GradeBoundaryTable table = compiled.boundaryTable(before);
+        GradeBoundaryTable reloaded = compiled.boundaryTable(after);
+
+        assertNotSame(table, reloaded);
+        assertTrue(reloaded.isCompiledFrom(after));
+        assertNull(reloaded.find(new BigDecimal("72.00")));
+    }
+
+    private GradingScale createScale(String university, String code, double min, double max) {
+        GradingScale scale = new GradingScale();
+        scale.setUniversity(university);
+        scale.setGradeCode(code);
+        scale.setMinPercentage(new BigDecimal(String.valueOf(min)));
+        scale.setMaxPercentage(new BigDecimal(String.valueOf(max)));
+        return scale;
+    }
+}
@@ -0,0 +1,90 @@
+package com.ignacio.gradecalc.strategy;
+
+import com.ignacio.gradecalc.entity.GradingScale;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GradeAliasIndexTest {
+
+    @Test
+    @DisplayName("Should resolve codes and aliases case-insensitively")
+    void find_CodesAndAliases() {
+        List<GradingScale> scales = Arrays.asList(
+                createScale("A", 70.00, 100.00),
+                createScale("B", 60.00, 69.99)
+        );
+        GradeAliases aliases = GradeAliases.builder()
+                .alias("A", "FIRST", "1ST")
+                .alias("B", "SECOND")
+                .build();
+
+        GradeAliasIndex index = GradeAliasIndex.compile(scales, aliases);
+
+        assertEquals("A", index.find("a").getGradeCode());
+        assertEquals("A", index.find(" first ").getGradeCode());
+        assertEquals("A", index.find("1st").getGradeCode());
+        assertEquals("B", index.find("Second").getGradeCode());
+        assertNull(index.find("C"));
+        assertNull(index.find(null));
+    }
+
+    @Test
+    @DisplayName("Should skip aliases for grades the scales do not contain")
+    void compile_IgnoresUnknownCanonicalCodes() {
+        List<GradingScale> scales = List.of(createScale("A", 70.00, 100.00));
+        GradeAliases aliases = GradeAliases.builder()
+                .alias("Z", "LAST")
+                .build();
+
+        GradeAliasIndex index = GradeAliasIndex.compile(scales, aliases);
+
+        assertNull(index.find("LAST"));
+    }
+
+    @Test
+    @DisplayName("Should reject an alias registered for two grades")
+    void builder_RejectsAmbiguousAlias() {
+        GradeAliases.Builder builder = GradeAliases.builder().alias("A", "FIRST");
+
+        assertThrows(IllegalStateException.class, () -> builder.alias("B", "first"));
+    }
+
+    @Test
+    @DisplayName("Should reject an alias that shadows another grade's code")
+    void compile_RejectsAliasOverlappingGradeCode() {
+        List<GradingScale> scales = Arrays.asList(
+                createScale("A", 70.00, 100.00),
+                createScale("B", 60.00, 69.99)
+        );
+        GradeAliases aliases = GradeAliases.builder()
+                .alias("A", "B")
+                .build();
+
+        assertThrows(IllegalStateException.class, () -> GradeAliasIndex.compile(scales, aliases));
+    }
+
+    @Test
+    @DisplayName("Should reject duplicate grade codes in one scale list")
+    void compile_RejectsDuplicateCodes() {
+        List<GradingScale> scales = Arrays.asList(
+                createScale("A", 70.00, 100.00),
+                createScale("a", 60.00, 69.99)
+        );
+
+        assertThrows(IllegalStateException.class, () -> GradeAliasIndex.compile(scales, GradeAliases.none()));
+    }
+
+    private GradingScale createScale(String code, double min, double max) {
+        GradingScale scale = new GradingScale();
+        scale.setGradeCode(code);
+        scale.setMinPercentage(new BigDecimal(String.valueOf(min)));
+        scale.setMaxPercentage(new BigDecimal(String.valueOf(max)));
+        return scale;
+    }
+}
@@ -0,0 +1,117 @@
+package com.ignacio.gradecalc.strategy;
+
+import com.ignacio.gradecalc.entity.GradingScale;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GradeBoundaryTableTest {
+
+    private List<GradingScale> ucdScales;
+
+    @BeforeEach
+    void setUp() {
+        // Deliberately out of order to check the table sorts its bands
+        ucdScales = Arrays.asList(
+                createScale("B+", 66.67, 69.99),
+                createScale("A+", 90.00, 100.00),
+                createScale("FM", 0.00, 39.99),
+                createScale("A", 80.00, 89.99),
+                createScale("A-", 70.00, 79.99),
+                createScale("B", 63.33, 66.66),
+                createScale("B-", 60.00, 63.32),
+                createScale("C+", 56.67, 59.99),
+                createScale("C", 53.33, 56.66),
+                createScale("C-", 50.00, 53.32),
+                createScale("D+", 46.67, 49.99),
+                createScale("D", 43.33, 46.66),
+                createScale("D-", 40.00, 43.32)
+        );
+    }
+
+    @Test
+    @DisplayName("Should match a linear scan for every two-decimal percentage")
+    void find_MatchesLinearScan() {
+        GradeBoundaryTable table = GradeBoundaryTable.compile(ucdScales);
+
+        for (int basisPoints = -100; basisPoints <= 10100; basisPoints++) {
+            BigDecimal percentage = BigDecimal.valueOf(basisPoints, 2);
+            assertSame(linearScan(percentage, ucdScales), table.find(percentage),
+                    "Mismatch at " + percentage);
+        }
+    }
+
+    @Test
+    @DisplayName("Should grade every hundredth the same as find, numbering bands highest first")
+    void band_MatchesFind() {
+        GradeBoundaryTable table = GradeBoundaryTable.compile(ucdScales);
+
+        assertEquals("A+", table.code(0));
+        assertEquals(GradeBoundaryTable.NO_GRADE, table.code(table.noGradeBand()));
+        assertEquals(ucdScales.size() + 1, table.bandCount());
+
+        for (int hundredths = -100; hundredths <= 10100; hundredths++) {
+            GradingScale scale = table.find(BigDecimal.valueOf(hundredths, 2));
+            String expected = scale != null ? scale.getGradeCode() : GradeBoundaryTable.NO_GRADE;
+            assertEquals(expected, table.code(table.band(hundredths)), "Mismatch at " + hundredths);
+        }
+        assertEquals("B+", table.code(table.band(66.666)));
+    }
+
+    @Test
+    @DisplayName("Should return null for percentages in the gap between bands")
+    void find_GapBetweenBands() {
+        GradeBoundaryTable table = GradeBoundaryTable.compile(ucdScales);
+
+        assertNull(table.find(new BigDecimal("79.995")));
+        assertNull(table.find(new BigDecimal("66.665")));
+        assertEquals("A-", table.find(new BigDecimal("79.99")).getGradeCode());
+        assertEquals("A", table.find(new BigDecimal("80.0000")).getGradeCode());
+    }
+
+    @Test
+    @DisplayName("Should keep row order for overlapping bands")
+    void find_OverlappingBandsUseRowOrder() {
+        List<GradingScale> overlapping = Arrays.asList(
+                createScale("WIDE", 0.00, 100.00),
+                createScale("NARROW", 40.00, 60.00)
+        );
+
+        GradeBoundaryTable table = GradeBoundaryTable.compile(overlapping);
+
+        assertEquals("WIDE", table.find(new BigDecimal("50")).getGradeCode());
+    }
+
+    @Test
+    @DisplayName("Should only be reused for the list it was compiled from")
+    void isCompiledFrom_UsesIdentity() {
+        GradeBoundaryTable table = GradeBoundaryTable.compile(ucdScales);
+
+        assertTrue(table.isCompiledFrom(ucdScales));
+        assertFalse(table.isCompiledFrom(List.copyOf(ucdScales)));
+    }
+
+    private GradingScale linearScan(BigDecimal percentage, List<GradingScale> scales) {
+        for (GradingScale scale : scales) {
+            if (percentage.compareTo(scale.getMinPercentage()) >= 0
+                    && percentage.compareTo(scale.getMaxPercentage()) <= 0) {
+                return scale;
+            }
+        }
+        return null;
+    }
+
+    private GradingScale createScale(String code, double min, double max) {
+        GradingScale scale = new GradingScale();
+        scale.setGradeCode(code);
+        scale.setMinPercentage(new BigDecimal(String.valueOf(min)));
+        scale.setMaxPercentage(new BigDecimal(String.valueOf(max)));
+        return scale;
+    }
+}
@@ -3,6 +3,7 @@ package com.ignacio.gradecalc.service;
 import com.ignacio.gradecalc.entity.Assessment;
 import com.ignacio.gradecalc.entity.GradingScale;
 import com.ignacio.gradecalc.entity.Module;
+import com.ignacio.gradecalc.entity.ModuleAggregates;
 import com.ignacio.gradecalc.entity.User;
 import com.ignacio.gradecalc.enums.AssessmentType;
 import com.ignacio.gradecalc.enums.UniversityPreset;
@@ -45,7 +46,7 @@ class GradeServiceTest {
         List strategies = Arrays.asList(new TudStrategy(), new StandardStrategy());
         strategyFactory = new GradingStrategyFactory(strategies);
 
-        gradeService = new GradeService(strategyFactory, gradingScaleRepository);
+        gradeService = new GradeService(strategyFactory, new GradingScaleRegistry(gradingScaleRepository));
 
         // Set up TUD scales
         tudScales = Arrays.asList(
@@ -68,7 +69,7 @@ class GradeServiceTest {
         testUser.setUniversityPreset(UniversityPreset.TUD);
 
         // Mock repository to return TUD scales
-        when(gradingScaleRepository.findByUniversity("TUD")).thenReturn(tudScales);
+        when(gradingScaleRepository.findAll()).thenReturn(tudScales);
     }
 
     @Test
@@ -256,6 +257,168 @@ class GradeServiceTest {
         assertBigDecimalEquals(new BigDecimal("3.50"), result);
     }
 
+    @Test
+    @DisplayName("Should summarise a module in one pass")
+    void summarise_CombinesAllResults() {
+        // Current: 40 points from 50% of module, projected 80% → A1
+        // Target: A3 (70% minimum) needs (70 - 40) / 0.50 = 60% on remaining work
+        Module module = createModuleWithAssessments(
+                createAssessment("Exam", 50, 80, 100),
+                createPendingAssessment("Project", 30),
+                createPendingAssessment("Lab", 20)
+        );
+        module.setTargetGrade("A3");
+
+        ModuleGradeSummary summary = gradeService.summarise(module, testUser);
+
+        assertBigDecimalEquals(new BigDecimal("40"), summary.bankedPercentage());
+        assertBigDecimalEquals(new BigDecimal("50"), summary.completedWeight());
+        assertBigDecimalEquals(new BigDecimal("50"), summary.pendingWeight());
+        assertBigDecimalEquals(new BigDecimal("80"), summary.projectedPercentage());
+        assertEquals("A1", summary.gradeCode());
+        assertBigDecimalEquals(new BigDecimal("4.00"), summary.gpaPoints());
+        assertEquals("A3", summary.targetGrade());
+        assertBigDecimalEquals(new BigDecimal("60"), summary.requiredPercentage());
+        assertFalse(summary.targetSecured());
+    }
+
+    @Test
+    @DisplayName("Should summarise a module with nothing completed")
+    void summarise_NothingCompleted() {
+        Module module = createModuleWithAssessments(
+                createPendingAssessment("Exam", 100)
+        );
+
+        ModuleGradeSummary summary = gradeService.summarise(module, testUser);
+
+        assertEquals("N/A", summary.gradeCode());
+        assertBigDecimalEquals(BigDecimal.ZERO, summary.gpaPoints());
+        assertFalse(summary.hasCompletedWork());
+        assertNull(summary.requiredPercentage());
+    }
+
+    @Test
+    @DisplayName("Should give the same summary from stored aggregates")
+    void summariseFromAggregates_MatchesAssessments() {
+        Module module = createModuleWithAssessments(
+                createAssessment("Exam", 50, 80, 100),
+                createAssessment("Assignment", 30, 66.67, 100),
+                createPendingAssessment("Project", 20)
+        );
+        module.setTargetGrade("A3");
+        module.setAggregates(ModuleAggregates.of(module.getAssessments()));
+
+        assertEquals(gradeService.summarise(module, testUser),
+                gradeService.summariseFromAggregates(module, testUser));
+    }
+
+    @Test
+    @DisplayName("Should give the same summary from summed progress")
+    void summariseProgress_MatchesAssessments() {
+        Module module = createModuleWithAssessments(
+                createAssessment("Exam", 50, 80, 100),
+                createAssessment("Assignment", 30, 66.67, 100),
+                createPendingAssessment("Project", 20)
+        );
+        module.setTargetGrade("A3");
+        ModuleAggregates aggregates = ModuleAggregates.of(module.getAssessments());
+
+        ModuleProgress progress = new ModuleProgress(1L, 5, "A3", null, aggregates.getCompletedWeight(),
+                aggregates.getWeightedScore(), aggregates.getPendingWeight(), 2L, 1L);
+
+        assertEquals(gradeService.summarise(module, testUser), gradeService.summarise(progress, testUser));
+    }
+
+    @Test
+    @DisplayName("Should calculate overall GPA from summed progress")
+    void calculateOverallGpaFromProgress_WeightedByCredits() {
+        List<ModuleProgress> modules = Arrays.asList(
+                new ModuleProgress(1L, 10, null, null, new BigDecimal("100"), new BigDecimal("80"), BigDecimal.ZERO, 1L, 0L),
+                new ModuleProgress(2L, 5, null, null, new BigDecimal("100"), new BigDecimal("60"), BigDecimal.ZERO, 1L, 0L),
+                new ModuleProgress(3L, 5, null, null, BigDecimal.ZERO, BigDecimal.ZERO, new BigDecimal("100"), 0L, 1L)
+        );
+
+        // Expected: (4.0 * 10 + 3.0 * 5) / 15 = 3.67, the ungraded module is left out
+        assertBigDecimalEquals(new BigDecimal("3.67"), gradeService.calculateOverallGpaFromProgress(modules, testUser));
+    }
+
+    @Test
+    @DisplayName("Should calculate requirements for every grade band at once")
+    void calculateRequirements_AllBands() {
+        // Current: 40 points from 50% of module
+        Module module = createModuleWithAssessments(
+                createAssessment("Exam", 50, 80, 100),
+                createPendingAssessment("Project", 50)
+        );
+
+        List<GradeRequirement> requirements = gradeService.calculateRequirements(module, testUser);
+
+        assertEquals(11, requirements.size());
+        assertEquals("A1", requirements.get(0).gradeCode());
+        assertEquals("F", requirements.get(10).gradeCode());
+
+        for (GradeRequirement requirement : requirements) {
+            // Each row must agree with the single-target methods
+            assertEquals(gradeService.calculateRequiredPercentage(module, testUser, requirement.gradeCode()),
+                    requirement.requiredPercentage());
+            assertEquals(gradeService.isTargetAchievable(module, testUser, requirement.gradeCode()),
+                    requirement.achievable());
+            assertEquals(gradeService.isTargetSecured(module, testUser, requirement.gradeCode()),
+                    requirement.secured());
+        }
+
+        // A1 needs (80 - 40) / 0.50 = 80%, C3 is already secured
+        assertBigDecimalEquals(new BigDecimal("80"), requirements.get(0).requiredPercentage());
+        assertTrue(requirements.get(8).secured());
+    }
+
+    @Test
+    @DisplayName("Should reuse a cached summary until the module revision changes")
+    void summariseProgress_CachedByRevision() {
+        GradeResultCache cache = new GradeResultCache(100);
+        GradingScaleRegistry registry = new GradingScaleRegistry(gradingScaleRepository);
+        GradeService cachedService = new GradeService(strategyFactory, registry, cache);
+
+        ModuleProgress before = new ModuleProgress(1L, 5, "A3", 3L, new BigDecimal("50"), new BigDecimal("40.0000"),
+                new BigDecimal("50"), 1L, 1L);
+        ModuleProgress after = new ModuleProgress(1L, 5, "A3", 4L, new BigDecimal("100"), new BigDecimal("60.0000"),
+                BigDecimal.ZERO, 2L, 0L);
+
+        ModuleGradeSummary first = cachedService.summarise(before, testUser);
+        assertSame(first, cachedService.summarise(before, testUser));
+        assertEquals(1, cache.getHitCount(GradeResultCache.Operation.SUMMARY));
+
+        // A new mark means a new revision, so the old summary is never served for it
+        ModuleGradeSummary changed = cachedService.summarise(after, testUser);
+        assertEquals(gradeService.summarise(after, testUser), changed);
+        assertEquals("B2", changed.gradeCode());
+        assertEquals(2, cache.getMissCount(GradeResultCache.Operation.SUMMARY));
+
+        // Reloading unchanged scales keeps the cached summary; changed scales start afresh
+        registry.reload();
+        assertSame(changed, cachedService.summarise(after, testUser));
+        tudScales.get(4).setGpaPoints(new BigDecimal("3.10"));
+        registry.reload();
+        assertNotSame(changed, cachedService.summarise(after, testUser));
+    }
+
+    @Test
+    @DisplayName("Should cache requirements separately from the summary")
+    void calculateRequirementsProgress_Cached() {
+        GradeResultCache cache = new GradeResultCache(100);
+        GradeService cachedService = new GradeService(strategyFactory,
+                new GradingScaleRegistry(gradingScaleRepository), cache);
+        ModuleProgress progress = new ModuleProgress(1L, 5, null, 0L, new BigDecimal("50"), new BigDecimal("40.0000"),
+                new BigDecimal("50"), 1L, 1L);
+
+        List<GradeRequirement> requirements = cachedService.calculateRequirements(progress, testUser);
+
+        assertSame(requirements, cachedService.calculateRequirements(progress, testUser));
+        assertBigDecimalEquals(new BigDecimal("80"), requirements.get(0).requiredPercentage());
+        assertEquals(1, cache.getHitCount(GradeResultCache.Operation.REQUIREMENTS));
+        assertEquals(0, cache.getHitCount(GradeResultCache.Operation.SUMMARY));
+    }
+
     // Helper method for BigDecimal comparison (ignores scale)
     private void assertBigDecimalEquals(BigDecimal expected, BigDecimal actual) {
         assertTrue(expected.compareTo(actual) == 0,
@@ -293,6 +456,7 @@ class GradeServiceTest {
 
     private GradingScale createScale(String code, double min, double max, double gpa) {
         GradingScale scale = new GradingScale();
+        scale.setUniversity("TUD");
         scale.setGradeCode(code);
         scale.setMinPercentage(new BigDecimal(String.valueOf(min)));
         scale.setMaxPercentage(new BigDecimal(String.valueOf(max)));